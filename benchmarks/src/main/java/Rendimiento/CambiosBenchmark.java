@@ -0,0 +1,124 @@
+package Rendimiento;
+
+import Entidades.Videojuego;
+import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.GestorDatos;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Altas y bajas de videojuegos sobre un catálogo ya cargado.
+ *
+ * Cada iteración hace un lote de LOTE llamadas y el resultado es el tiempo
+ * del lote entero (dividir entre LOTE para el de una). Entre iteraciones se
+ * deshace lo hecho sin medirlo: se borran los videojuegos añadidos o se
+ * añaden los que se van a borrar, así el catálogo mantiene su tamaño.
+ * Incluye la escritura en el diario y, cuando toca, el guardado en segundo
+ * plano por diario grande, igual que en el programa.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = CambiosBenchmark.LOTE)
+@Measurement(iterations = 10, batchSize = CambiosBenchmark.LOTE)
+@Fork(value = 1, jvmArgsAppend = {CatalogoPrueba.MEMORIA, CatalogoPrueba.SIN_AUTOGUARDADO})
+@State(Scope.Benchmark)
+public class CambiosBenchmark {
+
+    static final int LOTE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int tamanio;
+
+    private Path carpeta;
+    private GestorDatos gestor;
+    private Random aleatorio;
+    private int numDesarrolladoras;
+    // IDs añadidos en la iteración actual o preparados para borrar en ella
+    private final int[] ids = new int[LOTE];
+    private int hechos;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        carpeta = CatalogoPrueba.copiar(tamanio);
+        System.setProperty("gestor.directorio", carpeta.toString());
+        gestor = new GestorDatos();
+        aleatorio = new Random(CatalogoPrueba.SEMILLA);
+        numDesarrolladoras = CatalogoPrueba.numDesarrolladoras(tamanio);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        CatalogoPrueba.borrar(carpeta);
+    }
+
+    // ========== ALTAS ==========
+
+    @State(Scope.Benchmark)
+    public static class Altas {
+        @Setup(Level.Iteration)
+        public void empezar(CambiosBenchmark b) {
+            b.hechos = 0;
+        }
+
+        @TearDown(Level.Iteration)
+        public void deshacer(CambiosBenchmark b) throws VideojuegoNoEncontradoException {
+            for (int i = 0; i < b.hechos; i++) {
+                b.gestor.eliminarVideojuego(b.ids[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public Videojuego agregarVideojuego(Altas altas) {
+        Videojuego v = nuevo();
+        ids[hechos++] = v.getId();
+        return v;
+    }
+
+    // ========== BAJAS ==========
+
+    @State(Scope.Benchmark)
+    public static class Bajas {
+        @Setup(Level.Iteration)
+        public void preparar(CambiosBenchmark b) {
+            for (int i = 0; i < LOTE; i++) {
+                b.ids[i] = b.nuevo().getId();
+            }
+            b.hechos = 0;
+        }
+    }
+
+    @Benchmark
+    public int eliminarVideojuego(Bajas bajas) throws VideojuegoNoEncontradoException {
+        int id = ids[hechos++];
+        gestor.eliminarVideojuego(id);
+        return id;
+    }
+
+    private Videojuego nuevo() {
+        int numero = aleatorio.nextInt(Integer.MAX_VALUE);
+        return gestor.agregarVideojuego(
+                CatalogoPrueba.titulo(aleatorio.nextInt(CatalogoPrueba.PALABRAS.length),
+                        aleatorio.nextInt(CatalogoPrueba.PALABRAS.length), numero),
+                CatalogoPrueba.GENEROS[aleatorio.nextInt(CatalogoPrueba.GENEROS.length)],
+                CatalogoPrueba.ANIO_MINIMO + aleatorio.nextInt(CatalogoPrueba.ANIO_MAXIMO - CatalogoPrueba.ANIO_MINIMO + 1),
+                1 + aleatorio.nextInt(numDesarrolladoras));
+    }
+}
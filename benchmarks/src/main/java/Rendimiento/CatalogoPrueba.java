@@ -0,0 +1,169 @@
+package Rendimiento;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import Persistencia.EscritorCSV;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+
+/**
+ * Catálogos de prueba para las mediciones.
+ *
+ * Cada tamaño se genera una sola vez con una semilla fija (el mismo tamaño
+ * da siempre los mismos datos) en una plantilla dentro de java.io.tmpdir y
+ * se reutiliza entre ejecuciones. Cada medición trabaja sobre una copia en
+ * una carpeta temporal, porque las altas y bajas escriben en el diario y
+ * guardar reescribe los CSV.
+ *
+ * Los títulos son dos palabras de una lista y un número, así que una
+ * palabra sola aparece en muchos videojuegos y "palabra número" en muy pocos.
+ */
+
+final class CatalogoPrueba {
+
+    static final long SEMILLA = 20240501L;
+    // videojuegos por desarrolladora, de media
+    static final int VIDEOJUEGOS_POR_DESARROLLADORA = 100;
+    static final int ANIO_MINIMO = 1970;
+    static final int ANIO_MAXIMO = 2024;
+
+    // opciones de la JVM de cada medición: memoria para 10M filas y sin guardados por tiempo
+    static final String MEMORIA = "-Xmx16g";
+    static final String SIN_AUTOGUARDADO = "-Dgestor.autoguardado=0";
+
+    static final String[] PALABRAS = {
+        "Leyenda", "Sombra", "Reino", "Guerra", "Estrella", "Dragón", "Ciudad", "Eco",
+        "Fuego", "Hielo", "Camino", "Torre", "Isla", "Noche", "Tormenta", "Bosque",
+        "Acero", "Cielo", "Abismo", "Corona", "Espíritu", "Frontera", "Galaxia", "Héroe",
+        "Imperio", "Jardín", "Laberinto", "Mar", "Niebla", "Océano", "Pirata", "Ruina",
+        "Silencio", "Templo", "Universo", "Valle", "Viento", "Volcán", "Zafiro", "Ídolo"
+    };
+    static final String[] GENEROS = {
+        "Acción", "Aventura", "RPG", "Estrategia", "Deportes", "Carreras",
+        "Simulación", "Puzle", "Plataformas", "Terror", "Lucha", "Shooter"
+    };
+    static final String[] PAISES = {
+        "España", "Japón", "Estados Unidos", "Francia", "Polonia",
+        "Canadá", "Suecia", "Reino Unido", "Alemania", "Corea del Sur"
+    };
+
+    private static final String CSV_VIDEOJUEGOS = "Videojuegos.csv";
+    private static final String CSV_DESARROLLADORAS = "Desarrolladoras.csv";
+
+    private CatalogoPrueba() {
+    }
+
+    static int numDesarrolladoras(int tamanio) {
+        return Math.max(10, tamanio / VIDEOJUEGOS_POR_DESARROLLADORA);
+    }
+
+    static String titulo(int primera, int segunda, int numero) {
+        return PALABRAS[primera] + " " + PALABRAS[segunda] + " " + numero;
+    }
+
+    static String nombreDesarrolladora(int id) {
+        return "Estudio " + PALABRAS[id % PALABRAS.length] + " " + id;
+    }
+
+    // copia de la plantilla de ese tamaño en una carpeta temporal nueva
+    static Path copiar(int tamanio) throws IOException {
+        Path plantilla = plantilla(tamanio);
+        Path destino = Files.createTempDirectory("proyectoad-medicion-");
+        for (String archivo : new String[]{CSV_DESARROLLADORAS, CSV_VIDEOJUEGOS}) {
+            Files.copy(plantilla.resolve(archivo), destino.resolve(archivo), StandardCopyOption.COPY_ATTRIBUTES);
+        }
+        return destino;
+    }
+
+    static void borrar(Path carpeta) {
+        if (carpeta == null) {
+            return;
+        }
+        try {
+            Files.walkFileTree(carpeta, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path archivo, BasicFileAttributes atributos) throws IOException {
+                    Files.delete(archivo);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                    Files.delete(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar " + carpeta + ": " + e.getMessage());
+        }
+    }
+
+    private static synchronized Path plantilla(int tamanio) throws IOException {
+        Path carpeta = Paths.get(System.getProperty("java.io.tmpdir"), "proyectoad-catalogo-" + SEMILLA + "-" + tamanio);
+        // el archivo de videojuegos se escribe el último: si está, la plantilla está completa
+        if (Files.exists(carpeta.resolve(CSV_VIDEOJUEGOS))) {
+            return carpeta;
+        }
+        Files.createDirectories(carpeta);
+        generar(carpeta, tamanio);
+        return carpeta;
+    }
+
+    private static void generar(Path carpeta, int tamanio) throws IOException {
+        Random aleatorio = new Random(SEMILLA);
+        int numDesarrolladoras = numDesarrolladoras(tamanio);
+        List<Desarrolladora> desarrolladoras = new ArrayList<>(numDesarrolladoras);
+        for (int id = 1; id <= numDesarrolladoras; id++) {
+            desarrolladoras.add(new Desarrolladora(id, nombreDesarrolladora(id), PAISES[aleatorio.nextInt(PAISES.length)]));
+        }
+        EscritorCSV.escribir(carpeta.resolve(CSV_DESARROLLADORAS), desarrolladoras, Desarrolladora::aTextoCSV);
+
+        // las filas se generan mientras se escriben, sin tener los 10M objetos a la vez
+        Collection<Videojuego> videojuegos = new AbstractCollection<Videojuego>() {
+            @Override
+            public Iterator<Videojuego> iterator() {
+                return new Iterator<Videojuego>() {
+                    private int id = 1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return id <= tamanio;
+                    }
+
+                    @Override
+                    public Videojuego next() {
+                        if (id > tamanio) {
+                            throw new NoSuchElementException();
+                        }
+                        int actual = id++;
+                        return new Videojuego(actual,
+                                titulo(aleatorio.nextInt(PALABRAS.length), aleatorio.nextInt(PALABRAS.length), actual),
+                                GENEROS[aleatorio.nextInt(GENEROS.length)],
+                                ANIO_MINIMO + aleatorio.nextInt(ANIO_MAXIMO - ANIO_MINIMO + 1),
+                                1 + aleatorio.nextInt(numDesarrolladoras));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return tamanio;
+            }
+        };
+        EscritorCSV.escribir(carpeta.resolve(CSV_VIDEOJUEGOS), videojuegos, Videojuego::aTextoCSV);
+    }
+}
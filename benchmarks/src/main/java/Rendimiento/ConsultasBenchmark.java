@@ -0,0 +1,157 @@
+package Rendimiento;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.GestorDatos;
+import Gestion.Pagina;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Consultas sobre un catálogo ya cargado.
+ *
+ * Cada llamada usa la siguiente de una lista fija de consultas al azar (con
+ * semilla), para no medir siempre la misma clave. Las búsquedas por título y
+ * por desarrolladora buscan un texto concreto que coincide con pocos
+ * elementos; las de género y años devuelven una parte grande del catálogo.
+ * Las de videojuegos se miden también en su versión paginada (primera página).
+ */
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {CatalogoPrueba.MEMORIA, CatalogoPrueba.SIN_AUTOGUARDADO})
+@State(Scope.Benchmark)
+public class ConsultasBenchmark {
+
+    private static final int NUM_CONSULTAS = 1024;
+    private static final int TAMANIO_PAGINA = 20;
+    private static final int ANIOS_POR_RANGO = 5;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int tamanio;
+
+    private Path carpeta;
+    private GestorDatos gestor;
+    private int[] ids;
+    private String[] titulos;
+    private String[] generos;
+    private int[] aniosDesde;
+    private String[] desarrolladoras;
+
+    // posición en las listas de consultas, una por hilo
+    @State(Scope.Thread)
+    public static class Turno {
+        private int siguiente;
+
+        int siguiente() {
+            int actual = siguiente;
+            siguiente = (actual + 1) & (NUM_CONSULTAS - 1);
+            return actual;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        carpeta = CatalogoPrueba.copiar(tamanio);
+        System.setProperty("gestor.directorio", carpeta.toString());
+        gestor = new GestorDatos();
+
+        Random aleatorio = new Random(CatalogoPrueba.SEMILLA);
+        List<Videojuego> todos = gestor.listarTodosLosVideojuegos();
+        ids = new int[NUM_CONSULTAS];
+        titulos = new String[NUM_CONSULTAS];
+        generos = new String[NUM_CONSULTAS];
+        aniosDesde = new int[NUM_CONSULTAS];
+        desarrolladoras = new String[NUM_CONSULTAS];
+        int numDesarrolladoras = CatalogoPrueba.numDesarrolladoras(tamanio);
+        for (int i = 0; i < NUM_CONSULTAS; i++) {
+            Videojuego v = todos.get(aleatorio.nextInt(todos.size()));
+            ids[i] = v.getId();
+            // la segunda palabra y el número: "Sombra 1234"
+            titulos[i] = v.getTitulo().substring(v.getTitulo().indexOf(' ') + 1);
+            generos[i] = CatalogoPrueba.GENEROS[aleatorio.nextInt(CatalogoPrueba.GENEROS.length)];
+            aniosDesde[i] = CatalogoPrueba.ANIO_MINIMO
+                    + aleatorio.nextInt(CatalogoPrueba.ANIO_MAXIMO - CatalogoPrueba.ANIO_MINIMO - ANIOS_POR_RANGO + 2);
+            desarrolladoras[i] = CatalogoPrueba.nombreDesarrolladora(1 + aleatorio.nextInt(numDesarrolladoras));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() {
+        CatalogoPrueba.borrar(carpeta);
+    }
+
+    @Benchmark
+    public Videojuego obtenerVideojuegoPorId(Turno turno) throws VideojuegoNoEncontradoException {
+        return gestor.obtenerVideojuegoPorId(ids[turno.siguiente()]);
+    }
+
+    @Benchmark
+    public List<Videojuego> buscarVideojuegosPorTitulo(Turno turno) {
+        return gestor.buscarVideojuegosPorTitulo(titulos[turno.siguiente()]);
+    }
+
+    @Benchmark
+    public List<Videojuego> buscarVideojuegosPorGenero(Turno turno) {
+        return gestor.buscarVideojuegosPorGenero(generos[turno.siguiente()]);
+    }
+
+    @Benchmark
+    public List<Videojuego> buscarVideojuegosPorRangoAnio(Turno turno) {
+        int desde = aniosDesde[turno.siguiente()];
+        return gestor.buscarVideojuegosPorRangoAnio(desde, desde + ANIOS_POR_RANGO - 1);
+    }
+
+    @Benchmark
+    public List<Videojuego> buscarVideojuegosPorDesarrolladora(Turno turno) {
+        return gestor.buscarVideojuegosPorDesarrolladora(desarrolladoras[turno.siguiente()]);
+    }
+
+    @Benchmark
+    public List<Desarrolladora> buscarDesarrolladorasPorNombre(Turno turno) {
+        return gestor.buscarDesarrolladorasPorNombre(desarrolladoras[turno.siguiente()]);
+    }
+
+    // ========== PAGINADAS ==========
+
+    @Benchmark
+    public Pagina<Videojuego> buscarVideojuegosPorTituloPaginado(Turno turno) {
+        return gestor.buscarVideojuegosPorTitulo(titulos[turno.siguiente()], Pagina.INICIO, TAMANIO_PAGINA);
+    }
+
+    @Benchmark
+    public Pagina<Videojuego> buscarVideojuegosPorGeneroPaginado(Turno turno) {
+        return gestor.buscarVideojuegosPorGenero(generos[turno.siguiente()], Pagina.INICIO, TAMANIO_PAGINA);
+    }
+
+    @Benchmark
+    public Pagina<Videojuego> buscarVideojuegosPorRangoAnioPaginado(Turno turno) {
+        int desde = aniosDesde[turno.siguiente()];
+        return gestor.buscarVideojuegosPorRangoAnio(desde, desde + ANIOS_POR_RANGO - 1, Pagina.INICIO, TAMANIO_PAGINA);
+    }
+
+    @Benchmark
+    public Pagina<Videojuego> buscarVideojuegosPorDesarrolladoraPaginado(Turno turno) {
+        return gestor.buscarVideojuegosPorDesarrolladora(desarrolladoras[turno.siguiente()], Pagina.INICIO, TAMANIO_PAGINA);
+    }
+}
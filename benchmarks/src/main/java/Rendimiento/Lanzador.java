@@ -0,0 +1,35 @@
+package Rendimiento;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * Punto de entrada del jar de mediciones.
+ *
+ * Admite las mismas opciones que el lanzador de JMH (filtro de nombres,
+ * -p tamanio=..., -f, -wi, -i...) y añade siempre el perfilador de memoria
+ * (gc), así cada resultado lleva también los bytes reservados por
+ * operación (gc.alloc.rate.norm).
+ */
+
+public class Lanzador {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions lineaComandos = new CommandLineOptions(args);
+        if (lineaComandos.shouldHelp() || lineaComandos.shouldList() || lineaComandos.shouldListProfilers()
+                || lineaComandos.shouldListResultFormats() || lineaComandos.shouldListWithParams()) {
+            // ayuda y listados: igual que el lanzador normal de JMH
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options opciones = new OptionsBuilder()
+                .parent(lineaComandos)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,98 @@
+package Rendimiento;
+
+import Gestion.GestorDatos;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Carga y guardado del catálogo completo.
+ *
+ * cargarDatos se mide creando un GestorDatos sobre la carpeta, que es lo que
+ * hace el programa al arrancar: desde los CSV o desde la instantánea binaria
+ * si está y es más reciente. Son operaciones largas, así que cada iteración
+ * es una sola llamada.
+ */
+
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {CatalogoPrueba.MEMORIA, CatalogoPrueba.SIN_AUTOGUARDADO})
+public class PersistenciaBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Carga {
+
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int tamanio;
+
+        // csv: sin instantánea; instantanea: con Catalogo.bin al día
+        @Param({"csv", "instantanea"})
+        public String origen;
+
+        Path carpeta;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            carpeta = CatalogoPrueba.copiar(tamanio);
+            System.setProperty("gestor.directorio", carpeta.toString());
+            if (origen.equals("instantanea")) {
+                // guardar escribe los CSV y la instantánea, que queda más reciente que ellos
+                new GestorDatos().guardarDatos();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void limpiar() {
+            CatalogoPrueba.borrar(carpeta);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Guardado {
+
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int tamanio;
+
+        Path carpeta;
+        GestorDatos gestor;
+
+        @Setup(Level.Trial)
+        public void preparar() throws IOException {
+            carpeta = CatalogoPrueba.copiar(tamanio);
+            System.setProperty("gestor.directorio", carpeta.toString());
+            gestor = new GestorDatos();
+        }
+
+        @TearDown(Level.Trial)
+        public void limpiar() {
+            CatalogoPrueba.borrar(carpeta);
+        }
+    }
+
+    @Benchmark
+    public GestorDatos cargarDatos(Carga estado) {
+        return new GestorDatos();
+    }
+
+    // CSV de las dos entidades e instantánea binaria, esperando a que terminen
+    @Benchmark
+    public boolean guardarDatos(Guardado estado) {
+        return estado.gestor.guardarDatos();
+    }
+}
@@ -0,0 +1,304 @@
+package Carga;
+
+import Persistencia.EscritorCSV;
+import Persistencia.FormatoCSV;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Year;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+
+/**
+ * Genera catálogos de prueba realistas y reproducibles: la misma semilla da
+ * siempre los mismos archivos.
+ *
+ * Los títulos son en español, con tildes y eñes, a veces con subtítulo,
+ * número de entrega, comas o comillas. Los géneros y las desarrolladoras no
+ * se reparten por igual: siguen una ley de Zipf, así que unos pocos géneros
+ * y estudios acaparan buena parte del catálogo, como en la realidad. Los
+ * años se concentran en los más recientes.
+ *
+ * Las filas se generan mientras se escriben, así que se pueden crear
+ * catálogos de decenas de millones de videojuegos sin tenerlos en memoria.
+ *
+ *   java -cp ProyectoAD.jar Carga.GeneradorCatalogo <carpeta> <videojuegos> [desarrolladoras] [semilla]
+ */
+
+public final class GeneradorCatalogo {
+
+    public static final long SEMILLA_POR_DEFECTO = 42;
+    // desarrolladoras por defecto: una por cada tantos videojuegos
+    public static final int VIDEOJUEGOS_POR_DESARROLLADORA = 200;
+
+    // exponentes de Zipf: cuanto mayores, más se concentran en los primeros
+    private static final double SESGO_GENEROS = 1.0;
+    private static final double SESGO_DESARROLLADORAS = 1.1;
+    private static final double SESGO_PAISES = 1.2;
+    private static final int ANIO_MINIMO = 1970;
+
+    // probabilidades de cada adorno del título
+    private static final double PROB_SUBTITULO = 0.30;
+    private static final double PROB_ENTREGA = 0.15;
+    private static final double PROB_COMAS = 0.06;
+    private static final double PROB_COMILLAS = 0.01;
+
+    private static final String CSV_VIDEOJUEGOS = "Videojuegos.csv";
+    private static final String CSV_DESARROLLADORAS = "Desarrolladoras.csv";
+
+    // de más a menos frecuente
+    static final String[] GENEROS = {
+        "Acción", "Aventura", "RPG", "Shooter", "Deportes", "Estrategia", "Plataformas", "Carreras",
+        "Simulación", "Puzle", "Lucha", "Terror", "Música", "Educativo", "Party", "Táctico"
+    };
+    private static final String[] PAISES = {
+        "Estados Unidos", "Japón", "Reino Unido", "Francia", "Canadá", "Alemania", "España",
+        "Polonia", "Suecia", "Corea del Sur", "China", "Finlandia", "Países Bajos", "Brasil", "México"
+    };
+    private static final String[] COMIENZOS = {
+        "La Leyenda de", "Crónicas de", "El Último Viaje de", "La Canción de", "Héroes de", "Sombras de",
+        "El Despertar de", "La Caída de", "Misión en", "Más allá de", "El Señor de", "Guardianes de",
+        "Ecos de", "La Búsqueda de", "Tierra de", "El Secreto de", "Batalla por", "Regreso a",
+        "La Maldición de", "Relatos de", "El Árbol de", "Noches de", "Los Hijos de", "El Corazón de"
+    };
+    static final String[] NUCLEOS = {
+        "Aragón", "la Montaña", "los Dioses", "Sevilla", "Álvaro", "la Niña Perdida", "Ébano", "Ícaro",
+        "Cádiz", "los Océanos", "la Corona", "Castilla", "Río Oscuro", "los Ñandúes", "la Alhambra",
+        "Toledo", "Añoranza", "el Dragón", "la Tormenta", "Compostela", "los Volcanes", "Acero",
+        "la Luna Roja", "Galicia", "Nébula", "el Páramo", "los Piratas", "Órbita", "la Península",
+        "el Silencio", "Cristal", "Albacete", "los Almogávares", "la Selva", "Úrsula", "Zafiro",
+        "el Laberinto", "Numancia", "la Niebla", "los Caballeros", "Mañana", "Pirineos", "el Cóndor",
+        "la Frontera", "Ámbar", "el Faro", "Trafalgar", "los Sueños", "Canarias", "el Imperio",
+        "Murciélago", "la Ciudad Sumergida", "Bárbara", "Lúa", "el Desierto", "Júpiter", "los Gigantes",
+        "la Orquídea", "Fénix", "Covadonga"
+    };
+    private static final String[] SUBTITULOS = {
+        "Edición Definitiva", "Renacer", "El Regreso", "Año Cero", "Orígenes", "La Venganza",
+        "Edición del Aniversario", "Capítulo Final", "El Éxodo", "Nueva Era", "Despertar", "Génesis",
+        "Sangre y Honor", "La Última Esperanza", "Edición Coleccionista"
+    };
+    private static final String[] ENTREGAS = {"2", "3", "II", "III", "IV", "4", "Zero", "HD"};
+    private static final String[] ENUMERACIONES = {
+        "Luz, Cámara y Acción", "Sangre, Sudor y Píxeles", "Espada, Escudo y Magia", "Rápido, Ágil y Letal",
+        "Pan, Vino y Dragones", "Agua, Fuego y Tierra", "Hola, Adiós", "Corre, Salta y Dispara"
+    };
+    private static final String[] ADJETIVOS = {"Perdido", "Eterno", "Oscuro", "Dorado", "Olvidado", "Salvaje", "Épico"};
+    static final String[] NOMBRES_ESTUDIO = {
+        "Águila", "Lince", "Fénix", "Cometa", "Ñandú", "Tormenta", "Píxel", "Quimera", "Centella", "Bóveda",
+        "Cíclope", "Alquimia", "Orión", "Dédalo", "Mástil", "Caracola", "Nómada", "Hélice", "Trueno", "Pólvora"
+    };
+    private static final String[] SUFIJOS_ESTUDIO = {
+        "Games", "Studios", "Interactive", "Entertainment", "Software", "Digital", "Juegos", "Estudios",
+        ", S.L.", ", S.A.", "Labs", "Producciones"
+    };
+
+    private final Random aleatorio;
+    private final int numDesarrolladoras;
+    private final int anioMaximo;
+    // probabilidades acumuladas de cada distribución sesgada
+    private final double[] acumuladaGeneros;
+    private final double[] acumuladaDesarrolladoras;
+    private final double[] acumuladaPaises;
+    // el estudio más grande no tiene por qué ser el de ID 1
+    private final int[] idPorPuesto;
+
+
+    public GeneradorCatalogo(long semilla, int numDesarrolladoras) {
+        if (numDesarrolladoras <= 0) {
+            throw new IllegalArgumentException("Hace falta al menos una desarrolladora.");
+        }
+        this.aleatorio = new Random(semilla);
+        this.numDesarrolladoras = numDesarrolladoras;
+        this.anioMaximo = Year.now().getValue();
+        this.acumuladaGeneros = zipf(GENEROS.length, SESGO_GENEROS);
+        this.acumuladaDesarrolladoras = zipf(numDesarrolladoras, SESGO_DESARROLLADORAS);
+        this.acumuladaPaises = zipf(PAISES.length, SESGO_PAISES);
+        this.idPorPuesto = new int[numDesarrolladoras];
+        for (int i = 0; i < numDesarrolladoras; i++) {
+            idPorPuesto[i] = i + 1;
+        }
+        for (int i = numDesarrolladoras - 1; i > 0; i--) {
+            int j = aleatorio.nextInt(i + 1);
+            int t = idPorPuesto[i];
+            idPorPuesto[i] = idPorPuesto[j];
+            idPorPuesto[j] = t;
+        }
+    }
+
+    public int getNumDesarrolladoras() {
+        return numDesarrolladoras;
+    }
+
+    public static int desarrolladorasPorDefecto(int numVideojuegos) {
+        return Math.max(10, numVideojuegos / VIDEOJUEGOS_POR_DESARROLLADORA);
+    }
+
+    // ========== VALORES ==========
+
+    public String titulo() {
+        String titulo;
+        if (aleatorio.nextDouble() < PROB_COMAS) {
+            titulo = ENUMERACIONES[aleatorio.nextInt(ENUMERACIONES.length)];
+        } else {
+            titulo = COMIENZOS[aleatorio.nextInt(COMIENZOS.length)] + " " + NUCLEOS[aleatorio.nextInt(NUCLEOS.length)];
+            // "de el Dragón" -> "del Dragón", "a el Faro" -> "al Faro"
+            titulo = titulo.replace(" de el ", " del ").replace(" a el ", " al ");
+            if (aleatorio.nextInt(3) == 0) {
+                titulo += " " + ADJETIVOS[aleatorio.nextInt(ADJETIVOS.length)];
+            }
+        }
+        if (aleatorio.nextDouble() < PROB_ENTREGA) {
+            titulo += " " + ENTREGAS[aleatorio.nextInt(ENTREGAS.length)];
+        }
+        if (aleatorio.nextDouble() < PROB_SUBTITULO) {
+            titulo += ": " + SUBTITULOS[aleatorio.nextInt(SUBTITULOS.length)];
+        }
+        if (aleatorio.nextDouble() < PROB_COMILLAS) {
+            titulo = "\"" + titulo + "\"";
+        }
+        return titulo;
+    }
+
+    public String genero() {
+        return GENEROS[elegir(acumuladaGeneros)];
+    }
+
+    // más probable cuanto más reciente
+    public int anio() {
+        int rango = anioMaximo - ANIO_MINIMO + 1;
+        return ANIO_MINIMO + Math.min(rango - 1, (int) (rango * Math.sqrt(aleatorio.nextDouble())));
+    }
+
+    public int idDesarrolladora() {
+        return idPorPuesto[elegir(acumuladaDesarrolladoras)];
+    }
+
+    public String pais() {
+        return PAISES[elegir(acumuladaPaises)];
+    }
+
+    // distinto para cada ID
+    public static String nombreDesarrolladora(int id) {
+        int i = id - 1;
+        int combinaciones = NOMBRES_ESTUDIO.length * SUFIJOS_ESTUDIO.length;
+        String nombre = NOMBRES_ESTUDIO[i % NOMBRES_ESTUDIO.length];
+        String sufijo = SUFIJOS_ESTUDIO[(i / NOMBRES_ESTUDIO.length) % SUFIJOS_ESTUDIO.length];
+        int vuelta = i / combinaciones;
+        if (vuelta > 0) {
+            nombre += " " + (vuelta + 1);
+        }
+        return sufijo.startsWith(",") ? nombre + sufijo : nombre + " " + sufijo;
+    }
+
+    // ========== ARCHIVOS ==========
+
+    // escribe Desarrolladoras.csv y Videojuegos.csv en la carpeta (la crea si no existe)
+    public static void generar(Path carpeta, int numVideojuegos, int numDesarrolladoras, long semilla)
+            throws IOException {
+        if (numVideojuegos < 0) {
+            throw new IllegalArgumentException("El número de videojuegos no puede ser negativo.");
+        }
+        GeneradorCatalogo generador = new GeneradorCatalogo(semilla, numDesarrolladoras);
+        Files.createDirectories(carpeta);
+        EscritorCSV.escribir(carpeta.resolve(CSV_DESARROLLADORAS),
+                filas(numDesarrolladoras, id -> id + "," + FormatoCSV.campo(nombreDesarrolladora(id))
+                        + "," + FormatoCSV.campo(generador.pais())),
+                Function.identity());
+        EscritorCSV.escribir(carpeta.resolve(CSV_VIDEOJUEGOS),
+                filas(numVideojuegos, id -> id + "," + FormatoCSV.campo(generador.titulo())
+                        + "," + FormatoCSV.campo(generador.genero()) + "," + generador.anio()
+                        + "," + generador.idDesarrolladora()),
+                Function.identity());
+    }
+
+    // líneas de la 1 a la n, generadas al recorrerlas (una sola vez)
+    private static Collection<String> filas(int n, IntFunction<String> linea) {
+        return new AbstractCollection<String>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int id = 1;
+
+                    @Override
+                    public boolean hasNext() {
+                        return id <= n;
+                    }
+
+                    @Override
+                    public String next() {
+                        if (id > n) {
+                            throw new NoSuchElementException();
+                        }
+                        return linea.apply(id++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+
+    // ========== DISTRIBUCIONES ==========
+
+    // probabilidades acumuladas de una ley de Zipf con n puestos
+    private static double[] zipf(int n, double sesgo) {
+        double[] acumulada = new double[n];
+        double suma = 0;
+        for (int i = 0; i < n; i++) {
+            suma += 1.0 / Math.pow(i + 1, sesgo);
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < n; i++) {
+            acumulada[i] /= suma;
+        }
+        return acumulada;
+    }
+
+    // puesto elegido al azar según las probabilidades acumuladas
+    private int elegir(double[] acumulada) {
+        int i = Arrays.binarySearch(acumulada, aleatorio.nextDouble());
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return Math.min(i, acumulada.length - 1);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Uso: java -cp ProyectoAD.jar Carga.GeneradorCatalogo <carpeta> <videojuegos> [desarrolladoras] [semilla]");
+            System.exit(2);
+        }
+        Path carpeta = Paths.get(args[0]);
+        int numVideojuegos = Integer.parseInt(args[1]);
+        int numDesarrolladoras = args.length > 2 ? Integer.parseInt(args[2]) : desarrolladorasPorDefecto(numVideojuegos);
+        long semilla = args.length > 3 ? Long.parseLong(args[3]) : SEMILLA_POR_DEFECTO;
+
+        // un diario o una instantánea de otro catálogo se mezclarían con el nuevo al arrancar
+        for (String archivo : new String[]{CSV_VIDEOJUEGOS, CSV_DESARROLLADORAS, "Diario.log", "Catalogo.bin"}) {
+            if (Files.exists(carpeta.resolve(archivo))) {
+                System.err.println("La carpeta ya contiene un catálogo (" + archivo + "); use una carpeta vacía.");
+                System.exit(1);
+            }
+        }
+        long inicio = System.nanoTime();
+        try {
+            generar(carpeta, numVideojuegos, numDesarrolladoras, semilla);
+        } catch (IOException e) {
+            System.err.println("Error al escribir el catálogo: " + e.getMessage());
+            System.exit(1);
+        }
+        System.out.printf("Generados %d videojuegos y %d desarrolladoras en %s (%.1f s)%n",
+                numVideojuegos, numDesarrolladoras, carpeta, (System.nanoTime() - inicio) / 1e9);
+    }
+}
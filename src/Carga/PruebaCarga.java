@@ -0,0 +1,468 @@
+package Carga;
+
+import Entidades.Desarrolladora;
+import Entidades.TextoBusqueda;
+import Entidades.Videojuego;
+import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.GestorDatos;
+import Gestion.Pagina;
+import Metricas.Histograma;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Prueba de carga de extremo a extremo para planificar capacidad: cuánto
+ * tarda en arrancar y en guardar un catálogo de un tamaño dado, cuánta
+ * memoria ocupa y qué latencias tiene cada operación con varios hilos
+ * leyendo y escribiendo a la vez.
+ *
+ *   java -Xmx8g -cp ProyectoAD.jar Carga.PruebaCarga <carpeta> [videojuegos] [hilos] [segundos]
+ *
+ * Si la carpeta no tiene catálogo se genera uno con GeneradorCatalogo. La
+ * prueba trabaja sobre esa carpeta (añade, modifica y borra videojuegos y
+ * guarda al final), así que no debe ser la del catálogo de verdad.
+ *
+ * Además de medir, comprueba que el gestor sigue siendo coherente con
+ * todos los hilos a la vez:
+ *   - ningún lector ve un videojuego a medio modificar: las modificaciones
+ *     escriben título, género y año que se deducen uno de otro;
+ *   - cada búsqueda devuelve solo videojuegos que cumplen la condición;
+ *   - al final no hay IDs repetidos, el número de videojuegos cuadra con
+ *     las altas y bajas, y cada índice encuentra una muestra de ellos;
+ *   - tras guardar y volver a arrancar, el catálogo es idéntico.
+ * Si algo falla el programa termina con código 1.
+ */
+
+public final class PruebaCarga {
+
+    private static final int VIDEOJUEGOS_POR_DEFECTO = 1_000_000;
+    private static final int SEGUNDOS_POR_DEFECTO = 30;
+    private static final int TAMANIO_PAGINA = 20;
+    private static final int ANIOS_POR_RANGO = 5;
+    private static final int MUESTRA_INDICES = 1000;
+    // los títulos que escribe la modificación: "Revisión #k", con género y año que salen de k
+    private static final String MARCA_REVISION = "Revisión #";
+    private static final int ANIO_REVISION = 1970;
+    private static final int ANIOS_REVISION = 50;
+
+    // mezcla de operaciones: cada una se elige con probabilidad peso / 100
+    private enum Operacion {
+        POR_ID("obtener por ID", 35),
+        TITULO("buscar por título", 15),
+        GENERO("buscar por género", 10),
+        ANIOS("buscar por años", 10),
+        DESARROLLADORA("buscar por desarrolladora", 5),
+        LISTADO("listar una página", 5),
+        ALTA("añadir", 8),
+        MODIFICACION("modificar", 8),
+        BAJA("eliminar", 4);
+
+        private final String nombre;
+        private final int peso;
+
+        Operacion(String nombre, int peso) {
+            this.nombre = nombre;
+            this.peso = peso;
+        }
+    }
+
+    private static final Operacion[] OPERACIONES = Operacion.values();
+
+    private final GestorDatos gestor;
+    private final int[] idsDesarrolladoras;
+    private final int tamanioInicial;
+    // mayor ID de videojuego que puede existir, para elegir IDs al azar
+    private final AtomicInteger idMaximo;
+    private final LongAdder altas = new LongAdder();
+    private final LongAdder bajas = new LongAdder();
+    private final LongAdder errores = new LongAdder();
+    private final LongAdder inconsistencias = new LongAdder();
+    private final List<String> fallos = new ArrayList<>();
+    private volatile boolean parar;
+
+
+    private PruebaCarga(GestorDatos gestor) {
+        this.gestor = gestor;
+        List<Desarrolladora> desarrolladoras = gestor.listarTodasLasDesarrolladoras();
+        this.idsDesarrolladoras = desarrolladoras.stream().mapToInt(Desarrolladora::getId).toArray();
+        List<Videojuego> videojuegos = gestor.listarTodosLosVideojuegos();
+        this.tamanioInicial = videojuegos.size();
+        int maximo = 1;
+        for (Videojuego v : videojuegos) {
+            maximo = Math.max(maximo, v.getId());
+        }
+        this.idMaximo = new AtomicInteger(maximo);
+    }
+
+    // ========== CARGA DE TRABAJO ==========
+
+    private Histograma[] ejecutar(int hilos, int segundos) throws Exception {
+        List<Future<Histograma[]>> resultados = new ArrayList<>();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        try {
+            for (int i = 0; i < hilos; i++) {
+                long semilla = GeneradorCatalogo.SEMILLA_POR_DEFECTO + 1 + i;
+                resultados.add(ejecutor.submit(() -> trabajar(semilla)));
+            }
+            Thread.sleep(segundos * 1000L);
+            parar = true;
+            Histograma[] total = histogramas();
+            for (Future<Histograma[]> resultado : resultados) {
+                Histograma[] parcial = resultado.get();
+                for (int i = 0; i < total.length; i++) {
+                    total[i].sumar(parcial[i]);
+                }
+            }
+            return total;
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    // cada hilo registra en sus propios histogramas, que se suman al final
+    private Histograma[] trabajar(long semilla) {
+        Histograma[] latencias = histogramas();
+        Random aleatorio = new Random(semilla);
+        GeneradorCatalogo generador = new GeneradorCatalogo(semilla, idsDesarrolladoras.length);
+        while (!parar) {
+            Operacion operacion = elegir(aleatorio);
+            long inicio = System.nanoTime();
+            try {
+                ejecutar(operacion, aleatorio, generador);
+            } catch (VideojuegoNoEncontradoException e) {
+                // el ID ya se había borrado: es parte normal de la mezcla
+            } catch (RuntimeException e) {
+                errores.increment();
+            }
+            latencias[operacion.ordinal()].registrar(System.nanoTime() - inicio);
+        }
+        return latencias;
+    }
+
+    private void ejecutar(Operacion operacion, Random aleatorio, GeneradorCatalogo generador)
+            throws VideojuegoNoEncontradoException {
+        switch (operacion) {
+            case POR_ID:
+                comprobarRevision(gestor.obtenerVideojuegoPorId(idAlAzar(aleatorio)));
+                break;
+            case TITULO: {
+                String texto = GeneradorCatalogo.NUCLEOS[aleatorio.nextInt(GeneradorCatalogo.NUCLEOS.length)];
+                String clave = TextoBusqueda.normalizar(texto);
+                for (Videojuego v : gestor.buscarVideojuegosPorTitulo(texto, Pagina.INICIO, TAMANIO_PAGINA).getElementos()) {
+                    comprobar(v.getTituloBusqueda().contains(clave));
+                    comprobarRevision(v);
+                }
+                break;
+            }
+            case GENERO: {
+                String texto = GeneradorCatalogo.GENEROS[aleatorio.nextInt(GeneradorCatalogo.GENEROS.length)];
+                String clave = TextoBusqueda.normalizar(texto);
+                for (Videojuego v : gestor.buscarVideojuegosPorGenero(texto, Pagina.INICIO, TAMANIO_PAGINA).getElementos()) {
+                    comprobar(v.getGeneroBusqueda().contains(clave));
+                    comprobarRevision(v);
+                }
+                break;
+            }
+            case ANIOS: {
+                int desde = ANIO_REVISION + aleatorio.nextInt(ANIOS_REVISION);
+                int hasta = desde + ANIOS_POR_RANGO - 1;
+                for (Videojuego v : gestor.buscarVideojuegosPorRangoAnio(desde, hasta, Pagina.INICIO, TAMANIO_PAGINA).getElementos()) {
+                    comprobar(v.getAnio() >= desde && v.getAnio() <= hasta);
+                    comprobarRevision(v);
+                }
+                break;
+            }
+            case DESARROLLADORA: {
+                String texto = GeneradorCatalogo.NOMBRES_ESTUDIO[aleatorio.nextInt(GeneradorCatalogo.NOMBRES_ESTUDIO.length)];
+                for (Videojuego v : gestor.buscarVideojuegosPorDesarrolladora(texto, Pagina.INICIO, TAMANIO_PAGINA).getElementos()) {
+                    comprobarRevision(v);
+                }
+                break;
+            }
+            case LISTADO:
+                for (Videojuego v : gestor.listarVideojuegos(idAlAzar(aleatorio), TAMANIO_PAGINA).getElementos()) {
+                    comprobarRevision(v);
+                }
+                break;
+            case ALTA: {
+                Videojuego v = gestor.agregarVideojuego(generador.titulo(), generador.genero(), generador.anio(),
+                        desarrolladoraAlAzar(generador));
+                idMaximo.accumulateAndGet(v.getId(), Math::max);
+                altas.increment();
+                break;
+            }
+            case MODIFICACION: {
+                int k = aleatorio.nextInt(Integer.MAX_VALUE);
+                gestor.modificarVideojuego(idAlAzar(aleatorio), MARCA_REVISION + k, generoRevision(k), anioRevision(k),
+                        desarrolladoraAlAzar(generador));
+                break;
+            }
+            case BAJA:
+                gestor.eliminarVideojuego(idAlAzar(aleatorio));
+                bajas.increment();
+                break;
+        }
+    }
+
+    private static Operacion elegir(Random aleatorio) {
+        int valor = aleatorio.nextInt(100);
+        for (Operacion operacion : OPERACIONES) {
+            valor -= operacion.peso;
+            if (valor < 0) {
+                return operacion;
+            }
+        }
+        return OPERACIONES[0];
+    }
+
+    private int idAlAzar(Random aleatorio) {
+        return 1 + aleatorio.nextInt(idMaximo.get());
+    }
+
+    // con el mismo reparto sesgado que el generador
+    private int desarrolladoraAlAzar(GeneradorCatalogo generador) {
+        return idsDesarrolladoras[generador.idDesarrolladora() - 1];
+    }
+
+    private static String generoRevision(int k) {
+        return GeneradorCatalogo.GENEROS[k % GeneradorCatalogo.GENEROS.length];
+    }
+
+    private static int anioRevision(int k) {
+        return ANIO_REVISION + k % ANIOS_REVISION;
+    }
+
+    // un videojuego modificado por la prueba debe tener el género y el año de su título
+    private void comprobarRevision(Videojuego v) {
+        if (!v.getTitulo().startsWith(MARCA_REVISION)) {
+            return;
+        }
+        int k = Integer.parseInt(v.getTitulo().substring(MARCA_REVISION.length()));
+        comprobar(v.getGenero().equals(generoRevision(k)) && v.getAnio() == anioRevision(k));
+    }
+
+    private void comprobar(boolean correcto) {
+        if (!correcto) {
+            inconsistencias.increment();
+        }
+    }
+
+    private static Histograma[] histogramas() {
+        Histograma[] histogramas = new Histograma[OPERACIONES.length];
+        for (int i = 0; i < histogramas.length; i++) {
+            histogramas[i] = new Histograma();
+        }
+        return histogramas;
+    }
+
+    // ========== COMPROBACIONES FINALES ==========
+
+    private void comprobarCatalogo() throws VideojuegoNoEncontradoException {
+        if (inconsistencias.sum() > 0) {
+            fallos.add(inconsistencias.sum() + " lecturas vieron datos incoherentes durante la prueba");
+        }
+        List<Videojuego> videojuegos = gestor.listarTodosLosVideojuegos();
+        BitSet vistos = new BitSet();
+        int repetidos = 0;
+        int incoherentes = 0;
+        for (Videojuego v : videojuegos) {
+            if (vistos.get(v.getId())) {
+                repetidos++;
+            }
+            vistos.set(v.getId());
+            if (v.getTitulo().startsWith(MARCA_REVISION)) {
+                int k = Integer.parseInt(v.getTitulo().substring(MARCA_REVISION.length()));
+                if (!v.getGenero().equals(generoRevision(k)) || v.getAnio() != anioRevision(k)) {
+                    incoherentes++;
+                }
+            }
+        }
+        if (repetidos > 0) {
+            fallos.add(repetidos + " IDs de videojuego repetidos");
+        }
+        if (incoherentes > 0) {
+            fallos.add(incoherentes + " videojuegos modificados a medias");
+        }
+        long esperados = tamanioInicial + altas.sum() - bajas.sum();
+        if (videojuegos.size() != esperados) {
+            fallos.add("hay " + videojuegos.size() + " videojuegos y deberían quedar " + esperados);
+        }
+
+        // cada índice debe encontrar a una muestra de videojuegos: la página que empieza
+        // justo antes de su ID tiene que empezar por él
+        Random aleatorio = new Random(GeneradorCatalogo.SEMILLA_POR_DEFECTO);
+        int perdidos = 0;
+        for (int i = 0; i < Math.min(MUESTRA_INDICES, videojuegos.size()); i++) {
+            Videojuego v = videojuegos.get(aleatorio.nextInt(videojuegos.size()));
+            int antes = v.getId() - 1;
+            String nombreDesarrolladora = gestor.obtenerNombreDesarrolladora(v.getIdDesarrolladora());
+            if (!gestor.obtenerVideojuegoPorId(v.getId()).aTextoCSV().equals(v.aTextoCSV())
+                    || !empiezaPor(gestor.buscarVideojuegosPorTitulo(v.getTitulo(), antes, 1), v)
+                    || !empiezaPor(gestor.buscarVideojuegosPorGenero(v.getGenero(), antes, 1), v)
+                    || !empiezaPor(gestor.buscarVideojuegosPorRangoAnio(v.getAnio(), v.getAnio(), antes, 1), v)
+                    || !empiezaPor(gestor.buscarVideojuegosPorDesarrolladora(nombreDesarrolladora, antes, 1), v)) {
+                perdidos++;
+            }
+        }
+        if (perdidos > 0) {
+            fallos.add(perdidos + " de " + MUESTRA_INDICES + " videojuegos de muestra no aparecen en algún índice");
+        }
+    }
+
+    private static boolean empiezaPor(Pagina<Videojuego> pagina, Videojuego v) {
+        return !pagina.estaVacia() && pagina.getElementos().get(0).getId() == v.getId();
+    }
+
+    // resumen de todo el catálogo para comparar antes y después de reiniciar
+    private static long huella(GestorDatos gestor) {
+        long huella = 1;
+        for (Desarrolladora d : gestor.listarTodasLasDesarrolladoras()) {
+            huella = 31 * huella + d.aTextoCSV().hashCode();
+        }
+        for (Videojuego v : gestor.listarTodosLosVideojuegos()) {
+            huella = 31 * huella + v.aTextoCSV().hashCode();
+        }
+        return huella;
+    }
+
+    // ========== INFORME ==========
+
+    private static void imprimirLatencias(Histograma[] latencias, int segundos) {
+        System.out.println();
+        System.out.printf("%-26s %10s %9s %9s %9s %9s %9s %9s%n",
+                "Operación", "Llamadas", "Por seg.", "Media", "p50", "p99", "p99.9", "Máx.");
+        Histograma todas = new Histograma();
+        for (Operacion operacion : OPERACIONES) {
+            Histograma h = latencias[operacion.ordinal()];
+            todas.sumar(h);
+            imprimirFila(operacion.nombre, h, segundos);
+        }
+        imprimirFila("TOTAL", todas, segundos);
+        System.out.println("(latencias en microsegundos)");
+    }
+
+    private static void imprimirFila(String nombre, Histograma h, int segundos) {
+        System.out.printf("%-26s %10d %9.0f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                nombre, h.getTotal(), (double) h.getTotal() / segundos, h.getMedia() / 1e3,
+                h.percentil(0.50) / 1e3, h.percentil(0.99) / 1e3, h.percentil(0.999) / 1e3, h.getMaximo() / 1e3);
+    }
+
+    // memoria ocupada tras recoger la basura, en bytes
+    private static long memoriaOcupada() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // lo mismo que decide GestorDatos: la instantánea si es más reciente que los CSV
+    private static String origen(Path carpeta) throws IOException {
+        Path instantanea = carpeta.resolve("Catalogo.bin");
+        if (!Files.exists(instantanea)) {
+            return "los CSV";
+        }
+        for (String csv : new String[]{"Videojuegos.csv", "Desarrolladoras.csv"}) {
+            Path archivo = carpeta.resolve(csv);
+            if (Files.exists(archivo) && Files.getLastModifiedTime(archivo).compareTo(Files.getLastModifiedTime(instantanea)) > 0) {
+                return "los CSV";
+            }
+        }
+        return "la instantánea";
+    }
+
+    private static double milisegundos(long desde) {
+        return (System.nanoTime() - desde) / 1e6;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Uso: java -cp ProyectoAD.jar Carga.PruebaCarga <carpeta> [videojuegos] [hilos] [segundos]");
+            System.exit(2);
+        }
+        Path carpeta = Paths.get(args[0]);
+        int numVideojuegos = args.length > 1 ? Integer.parseInt(args[1]) : VIDEOJUEGOS_POR_DEFECTO;
+        int hilos = args.length > 2 ? Integer.parseInt(args[2]) : Math.max(2, Runtime.getRuntime().availableProcessors());
+        int segundos = args.length > 3 ? Integer.parseInt(args[3]) : SEGUNDOS_POR_DEFECTO;
+
+        if (!Files.exists(carpeta.resolve("Videojuegos.csv"))) {
+            long inicio = System.nanoTime();
+            try {
+                GeneradorCatalogo.generar(carpeta, numVideojuegos,
+                        GeneradorCatalogo.desarrolladorasPorDefecto(numVideojuegos), GeneradorCatalogo.SEMILLA_POR_DEFECTO);
+            } catch (IOException e) {
+                System.err.println("No se pudo generar el catálogo: " + e.getMessage());
+                System.exit(1);
+            }
+            System.out.printf("Catálogo generado en %s: %d videojuegos (%.0f ms)%n", carpeta, numVideojuegos, milisegundos(inicio));
+        }
+        System.setProperty("gestor.directorio", carpeta.toString());
+
+        String origen = origen(carpeta);
+        long memoriaAntes = memoriaOcupada();
+        long inicio = System.nanoTime();
+        GestorDatos gestor = new GestorDatos();
+        double arranque = milisegundos(inicio);
+        long memoria = memoriaOcupada() - memoriaAntes;
+        PruebaCarga prueba = new PruebaCarga(gestor);
+        System.out.printf("Arranque desde %s: %.0f ms, %d videojuegos, %d desarrolladoras%n",
+                origen, arranque, prueba.tamanioInicial, prueba.idsDesarrolladoras.length);
+        System.out.printf("Memoria del catálogo: %.1f MB (%.0f bytes por videojuego)%n",
+                memoria / 1048576.0, prueba.tamanioInicial == 0 ? 0.0 : (double) memoria / prueba.tamanioInicial);
+
+        System.out.println("Carga mixta con " + hilos + " hilos durante " + segundos + " s...");
+        Histograma[] latencias = prueba.ejecutar(hilos, segundos);
+        imprimirLatencias(latencias, segundos);
+        System.out.printf("Altas: %d, bajas: %d, errores: %d%n", prueba.altas.sum(), prueba.bajas.sum(), prueba.errores.sum());
+        if (prueba.errores.sum() > 0) {
+            prueba.fallos.add(prueba.errores.sum() + " operaciones lanzaron un error inesperado");
+        }
+
+        prueba.comprobarCatalogo();
+        List<String> fallos = prueba.fallos;
+        prueba = null;
+
+        inicio = System.nanoTime();
+        boolean guardado = gestor.guardarDatos();
+        System.out.printf("%nGuardado: %.0f ms%n", milisegundos(inicio));
+        if (!guardado) {
+            fallos.add("no se pudieron guardar los datos");
+        }
+
+        // se vuelve a arrancar desde lo guardado y se compara con lo que había en memoria
+        long huella = huella(gestor);
+        int tamanio = gestor.listarTodosLosVideojuegos().size();
+        gestor = null;
+        memoriaOcupada();
+        inicio = System.nanoTime();
+        GestorDatos recargado = new GestorDatos();
+        System.out.printf("Arranque desde la instantánea: %.0f ms%n", milisegundos(inicio));
+        if (recargado.listarTodosLosVideojuegos().size() != tamanio || huella(recargado) != huella) {
+            fallos.add("el catálogo guardado no coincide con el que había en memoria");
+        }
+
+        System.out.println();
+        if (fallos.isEmpty()) {
+            System.out.println("Comprobaciones: todo correcto.");
+        } else {
+            System.out.println("Comprobaciones: FALLOS");
+            for (String fallo : fallos) {
+                System.out.println("  - " + fallo);
+            }
+            System.exit(1);
+        }
+    }
+}
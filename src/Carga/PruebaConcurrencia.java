@@ -0,0 +1,282 @@
+package Carga;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.GestorDatos;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+
+/**
+ * Comprobación rápida de concurrencia: muchos hilos leen, modifican, añaden
+ * y borran a la vez sobre un catálogo pequeño, para que se pisen de verdad.
+ *
+ *   java -cp ProyectoAD.jar Carga.PruebaConcurrencia [hilos] [operaciones por hilo] [videojuegos]
+ *
+ * Trabaja en una carpeta temporal que borra al terminar. Todos los
+ * videojuegos tienen un título "Revisión #k" del que salen su género, su año
+ * y su desarrolladora, así que se comprueba que:
+ *   - ninguna lectura ve un videojuego a medio modificar, ni por ID ni en
+ *     las búsquedas, y cada búsqueda devuelve solo lo que cumple la condición;
+ *   - las altas a la vez nunca reciben el mismo ID y al final no hay IDs
+ *     repetidos;
+ *   - al final quedan exactamente los iniciales más las altas menos las bajas;
+ *   - al volver a arrancar desde el diario el catálogo es el mismo.
+ * Si algo falla termina con código 1. A diferencia de PruebaCarga no mide
+ * latencias y tarda unos segundos.
+ */
+
+public final class PruebaConcurrencia {
+
+    private static final int OPERACIONES_POR_DEFECTO = 20_000;
+    private static final int VIDEOJUEGOS_POR_DEFECTO = 200;
+    private static final int DESARROLLADORAS = 5;
+    private static final String MARCA_REVISION = "Revisión #";
+    private static final int ANIO_REVISION = 1970;
+    private static final int ANIOS_REVISION = 50;
+
+    private final GestorDatos gestor;
+    private final int[] idsDesarrolladoras;
+    private final int tamanioInicial;
+    private final LongAdder altas = new LongAdder();
+    private final LongAdder bajas = new LongAdder();
+    private final LongAdder lecturas = new LongAdder();
+    private final LongAdder incoherentes = new LongAdder();
+    // IDs que devolvió cada alta, para ver que no se repiten
+    private final ConcurrentLinkedQueue<Integer> idsAltas = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<String> errores = new ConcurrentLinkedQueue<>();
+    private final List<String> fallos = new ArrayList<>();
+
+
+    private PruebaConcurrencia(GestorDatos gestor, int videojuegos) {
+        this.gestor = gestor;
+        this.idsDesarrolladoras = new int[DESARROLLADORAS];
+        for (int i = 0; i < DESARROLLADORAS; i++) {
+            idsDesarrolladoras[i] = gestor.agregarDesarrolladora("Estudio " + i, "País " + i).getId();
+        }
+        for (int k = 0; k < videojuegos; k++) {
+            gestor.agregarVideojuego(MARCA_REVISION + k, genero(k), anio(k), desarrolladora(k));
+        }
+        this.tamanioInicial = videojuegos;
+    }
+
+    // ========== CARGA ==========
+
+    private void ejecutar(int hilos, int operaciones) throws Exception {
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+        // todos los hilos empiezan a la vez para que coincidan lo más posible
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> resultados = new ArrayList<>();
+        try {
+            for (int i = 0; i < hilos; i++) {
+                long semilla = GeneradorCatalogo.SEMILLA_POR_DEFECTO + i;
+                resultados.add(ejecutor.submit(() -> {
+                    salida.await();
+                    trabajar(new Random(semilla), operaciones);
+                    return null;
+                }));
+            }
+            salida.countDown();
+            for (Future<?> resultado : resultados) {
+                resultado.get();
+            }
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private void trabajar(Random aleatorio, int operaciones) {
+        for (int i = 0; i < operaciones; i++) {
+            int id = 1 + aleatorio.nextInt(tamanioInicial + (int) altas.sum());
+            int k = aleatorio.nextInt(Integer.MAX_VALUE);
+            int tipo = aleatorio.nextInt(100);
+            try {
+                if (tipo < 25) {
+                    comprobar(gestor.obtenerVideojuegoPorId(id));
+                } else if (tipo < 35) {
+                    String genero = genero(k);
+                    for (Videojuego v : gestor.buscarVideojuegosPorGenero(genero)) {
+                        comprobar(v, v.getGenero().equals(genero));
+                    }
+                } else if (tipo < 45) {
+                    int anio = anio(k);
+                    for (Videojuego v : gestor.buscarVideojuegosPorRangoAnio(anio, anio)) {
+                        comprobar(v, v.getAnio() == anio);
+                    }
+                } else if (tipo < 50) {
+                    for (Videojuego v : gestor.listarTodosLosVideojuegos()) {
+                        comprobar(v);
+                    }
+                } else if (tipo < 70) {
+                    gestor.modificarVideojuego(id, MARCA_REVISION + k, genero(k), anio(k), desarrolladora(k));
+                } else if (tipo < 85) {
+                    gestor.actualizarVideojuego(id, MARCA_REVISION + k, genero(k), anio(k), desarrolladora(k));
+                } else if (tipo < 95) {
+                    Videojuego v = gestor.agregarVideojuego(MARCA_REVISION + k, genero(k), anio(k), desarrolladora(k));
+                    idsAltas.add(v.getId());
+                    altas.increment();
+                } else {
+                    gestor.eliminarVideojuego(id);
+                    bajas.increment();
+                }
+            } catch (VideojuegoNoEncontradoException e) {
+                // otro hilo lo acaba de borrar
+            } catch (RuntimeException e) {
+                errores.add(e.toString());
+            }
+        }
+    }
+
+    private void comprobar(Videojuego v) {
+        comprobar(v, true);
+    }
+
+    // el videojuego debe cumplir la condición de la búsqueda y tener los campos de su título
+    private void comprobar(Videojuego v, boolean cumple) {
+        lecturas.increment();
+        if (!cumple || !coherente(v)) {
+            incoherentes.increment();
+        }
+    }
+
+    private boolean coherente(Videojuego v) {
+        if (!v.getTitulo().startsWith(MARCA_REVISION)) {
+            return false;
+        }
+        int k = Integer.parseInt(v.getTitulo().substring(MARCA_REVISION.length()));
+        return v.getGenero().equals(genero(k)) && v.getAnio() == anio(k)
+                && v.getIdDesarrolladora() == desarrolladora(k);
+    }
+
+    private static String genero(int k) {
+        return GeneradorCatalogo.GENEROS[k % GeneradorCatalogo.GENEROS.length];
+    }
+
+    private static int anio(int k) {
+        return ANIO_REVISION + k % ANIOS_REVISION;
+    }
+
+    private int desarrolladora(int k) {
+        return idsDesarrolladoras[k % idsDesarrolladoras.length];
+    }
+
+    // ========== COMPROBACIONES FINALES ==========
+
+    private void comprobarCatalogo() {
+        if (!errores.isEmpty()) {
+            fallos.add(errores.size() + " operaciones lanzaron un error inesperado, la primera: " + errores.peek());
+        }
+        if (incoherentes.sum() > 0) {
+            fallos.add(incoherentes.sum() + " de " + lecturas.sum() + " lecturas vieron datos incoherentes");
+        }
+        BitSet altasVistas = new BitSet();
+        for (int id : idsAltas) {
+            if (altasVistas.get(id)) {
+                fallos.add("dos altas recibieron el ID " + id);
+                break;
+            }
+            altasVistas.set(id);
+        }
+
+        List<Videojuego> videojuegos = gestor.listarTodosLosVideojuegos();
+        BitSet vistos = new BitSet();
+        int repetidos = 0;
+        int aMedias = 0;
+        for (Videojuego v : videojuegos) {
+            if (vistos.get(v.getId())) {
+                repetidos++;
+            }
+            vistos.set(v.getId());
+            if (!coherente(v)) {
+                aMedias++;
+            }
+        }
+        if (repetidos > 0) {
+            fallos.add(repetidos + " IDs de videojuego repetidos");
+        }
+        if (aMedias > 0) {
+            fallos.add(aMedias + " videojuegos modificados a medias");
+        }
+        long esperados = tamanioInicial + altas.sum() - bajas.sum();
+        if (videojuegos.size() != esperados) {
+            fallos.add("hay " + videojuegos.size() + " videojuegos y deberían quedar " + esperados);
+        }
+    }
+
+    // todo el catálogo en texto, ordenado por ID, para comparar dos gestores
+    private static List<String> comoCSV(GestorDatos gestor) {
+        List<String> lineas = new ArrayList<>();
+        gestor.listarTodasLasDesarrolladoras().stream()
+                .sorted(Comparator.comparingInt(Desarrolladora::getId))
+                .forEach(d -> lineas.add(d.aTextoCSV()));
+        gestor.listarTodosLosVideojuegos().stream()
+                .sorted(Comparator.comparingInt(Videojuego::getId))
+                .forEach(v -> lineas.add(v.aTextoCSV()));
+        return lineas;
+    }
+
+    // carpeta temporal de la prueba, con lo que haya dejado el gestor
+    private static void borrar(Path carpeta) {
+        try (Stream<Path> archivos = Files.walk(carpeta)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(archivo);
+            }
+        } catch (IOException e) {
+            System.err.println("No se pudo borrar la carpeta temporal " + carpeta + ": " + e.getMessage());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int hilos = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        int operaciones = args.length > 1 ? Integer.parseInt(args[1]) : OPERACIONES_POR_DEFECTO;
+        int numVideojuegos = args.length > 2 ? Integer.parseInt(args[2]) : VIDEOJUEGOS_POR_DEFECTO;
+
+        Path carpeta = Files.createTempDirectory("prueba-concurrencia");
+        System.setProperty("gestor.directorio", carpeta.toString());
+        System.setProperty("gestor.autoguardado", "0");
+        List<String> fallos;
+        try {
+            GestorDatos gestor = new GestorDatos();
+            PruebaConcurrencia prueba = new PruebaConcurrencia(gestor, numVideojuegos);
+            System.out.println(hilos + " hilos, " + operaciones + " operaciones cada uno, sobre "
+                    + numVideojuegos + " videojuegos...");
+            long inicio = System.nanoTime();
+            prueba.ejecutar(hilos, operaciones);
+            System.out.printf("Terminado en %.0f ms: %d lecturas comprobadas, %d altas, %d bajas%n",
+                    (System.nanoTime() - inicio) / 1e6, prueba.lecturas.sum(), prueba.altas.sum(), prueba.bajas.sum());
+            prueba.comprobarCatalogo();
+            fallos = prueba.fallos;
+
+            // sin guardar: el segundo gestor lo reconstruye todo desde el diario
+            if (!comoCSV(new GestorDatos()).equals(comoCSV(gestor))) {
+                fallos.add("al volver a arrancar desde el diario el catálogo no es el mismo");
+            }
+        } finally {
+            borrar(carpeta);
+        }
+
+        if (fallos.isEmpty()) {
+            System.out.println("Comprobaciones: todo correcto.");
+        } else {
+            System.out.println("Comprobaciones: FALLOS");
+            for (String fallo : fallos) {
+                System.out.println("  - " + fallo);
+            }
+            System.exit(1);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 
 package Entidades;
 
+import Persistencia.FormatoCSV;
+import Persistencia.LectorCSV;
+
 
 /**
  * Esta clase representa una empresa desarrolladora de videojuegos, sus atributos son:
@@ -8,6 +11,8 @@ package Entidades;
  *
  * Gestiona la entidad Desarrolladora en el CRUD.
  * Se guarda y carga desde un archivo CSV separado.
+ *
+ * Guarda también el nombre normalizado (minúsculas y sin tildes) para las búsquedas.
  */
 
 public class Desarrolladora {
@@ -15,12 +20,17 @@ public class Desarrolladora {
     private final int id;
     private String nombre;
     private String pais;
+    // claves de búsqueda, se recalculan solo cuando cambia el nombre o el país
+    private String nombreBusqueda;
+    private String paisBusqueda;
 
 
     public Desarrolladora(int id, String nombre, String pais) {
         this.id = id;
         this.nombre = nombre;
         this.pais = pais;
+        this.nombreBusqueda = TextoBusqueda.normalizar(nombre);
+        this.paisBusqueda = TextoBusqueda.normalizar(pais);
     }
 
     // region getters
@@ -35,6 +45,14 @@ public class Desarrolladora {
     public String getPais() {
         return pais;
     }
+
+    public String getNombreBusqueda() {
+        return nombreBusqueda;
+    }
+
+    public String getPaisBusqueda() {
+        return paisBusqueda;
+    }
     //endregion
 
 
@@ -44,6 +62,7 @@ public class Desarrolladora {
             throw new IllegalArgumentException("El nombre no puede estar vacío.");
         }
         this.nombre = nombre;
+        this.nombreBusqueda = TextoBusqueda.normalizar(nombre);
     }
 
     public void setPais(String pais) {
@@ -51,6 +70,7 @@ public class Desarrolladora {
             throw new IllegalArgumentException("El país no puede estar vacío.");
         }
         this.pais = pais;
+        this.paisBusqueda = TextoBusqueda.normalizar(pais);
     }
 
     // toString del texto a mostrar en consola
@@ -61,12 +81,12 @@ public class Desarrolladora {
 
     // metodo para convertir el objeto a una línea de texto para guardar en el archivo
     public String aTextoCSV() {
-        return id + "," + nombre + "," + pais;
+        return id + "," + FormatoCSV.campo(nombre) + "," + FormatoCSV.campo(pais);
     }
 
     // para crear un objeto Desarrolladora a partir de la línea del archivo
     public static Desarrolladora desdeTextoCSV(String linea) {
-        String[] campos = linea.split(",");
+        String[] campos = FormatoCSV.dividir(linea);
         // verificamos que haya exactamente los 3 campos que existen en mi csv
         if (campos.length != 3) {
             throw new IllegalArgumentException("La línea CSV no contiene el formato correcto para una desarrolladora.");
@@ -79,4 +99,12 @@ public class Desarrolladora {
         // por último se crea y devuelve la desarrolladora
         return new Desarrolladora(id, nombre, pais);
     }
+
+    // igual que desdeTextoCSV pero a partir de un registro del lector mapeado
+    public static Desarrolladora desdeRegistroCSV(LectorCSV.Registro registro) {
+        if (registro.numCampos() != 3) {
+            throw new IllegalArgumentException("La línea CSV no contiene el formato correcto para una desarrolladora.");
+        }
+        return new Desarrolladora(registro.entero(0), registro.texto(1), registro.texto(2));
+    }
 }
\ No newline at end of file
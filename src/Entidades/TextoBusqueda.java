@@ -0,0 +1,41 @@
+package Entidades;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+
+/**
+ * Normaliza textos para las búsquedas: pasa a minúsculas y quita las tildes
+ * y demás diacríticos, de forma que "accion" coincide con "Acción-Aventura".
+ *
+ * Las entidades guardan su clave normalizada al crearse o modificarse, así
+ * las búsquedas solo tienen que normalizar la consulta.
+ */
+
+public final class TextoBusqueda {
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    private TextoBusqueda() {
+    }
+
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+        // camino rápido: texto ASCII, basta con pasarlo a minúsculas
+        boolean ascii = true;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) > 0x7F) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            return texto.toLowerCase(Locale.ROOT);
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        return DIACRITICOS.matcher(descompuesto).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,5 +1,8 @@
 package Entidades;
 
+import Persistencia.FormatoCSV;
+import Persistencia.LectorCSV;
+
 
 /**
  * Esta clase representa los videojuegos, sus atributos son:
@@ -9,6 +12,8 @@ package Entidades;
  * Gestiona la entidad Videojuego en el CRUD.
  * Se guarda y carga desde un archivo CSV separado.
  *
+ * Guarda también el título y el género normalizados (minúsculas y sin tildes)
+ * para que las búsquedas no tengan que recalcularlos en cada consulta.
  */
 
 public class Videojuego {
@@ -18,6 +23,9 @@ public class Videojuego {
     private String genero;
     private int anio;
     private int idDesarrolladora;
+    // claves de búsqueda, se recalculan solo cuando cambia el texto
+    private String tituloBusqueda;
+    private String generoBusqueda;
 
     public Videojuego(int id, String titulo, String genero, int anio, int idDesarrolladora) {
         this.id = id;
@@ -25,6 +33,20 @@ public class Videojuego {
         this.genero = genero;
         this.anio = anio;
         this.idDesarrolladora = idDesarrolladora;
+        this.tituloBusqueda = TextoBusqueda.normalizar(titulo);
+        this.generoBusqueda = TextoBusqueda.normalizar(genero);
+    }
+
+    // constructor con las claves de búsqueda ya calculadas (por ejemplo al leer de un almacén por columnas)
+    public Videojuego(int id, String titulo, String tituloBusqueda, String genero, String generoBusqueda,
+                      int anio, int idDesarrolladora) {
+        this.id = id;
+        this.titulo = titulo;
+        this.genero = genero;
+        this.anio = anio;
+        this.idDesarrolladora = idDesarrolladora;
+        this.tituloBusqueda = tituloBusqueda;
+        this.generoBusqueda = generoBusqueda;
     }
 
     //region getters
@@ -47,6 +69,14 @@ public class Videojuego {
     public int getIdDesarrolladora() {
         return idDesarrolladora;
     }
+
+    public String getTituloBusqueda() {
+        return tituloBusqueda;
+    }
+
+    public String getGeneroBusqueda() {
+        return generoBusqueda;
+    }
     //endregion
 
     // setters con validaciones para asegurar que los atributos no sean nulos o estén vacíos
@@ -55,6 +85,7 @@ public class Videojuego {
             throw new IllegalArgumentException("El título no puede estar vacío.");
         }
         this.titulo = titulo;
+        this.tituloBusqueda = TextoBusqueda.normalizar(titulo);
     }
 
     public void setGenero(String genero) {
@@ -62,6 +93,16 @@ public class Videojuego {
             throw new IllegalArgumentException("El género no puede estar vacío.");
         }
         this.genero = genero;
+        this.generoBusqueda = TextoBusqueda.normalizar(genero);
+    }
+
+    // sustituye el género por la instancia compartida del diccionario de géneros
+    public void compartirGenero(String genero, String generoBusqueda) {
+        if (!this.genero.equals(genero)) {
+            throw new IllegalArgumentException("El género compartido no coincide con el del videojuego.");
+        }
+        this.genero = genero;
+        this.generoBusqueda = generoBusqueda;
     }
 
     public void setAnio(int anio) {
@@ -82,17 +123,26 @@ public class Videojuego {
 
     @Override
     public String toString() {
-        return "ID: " + id + " | Título: '" + titulo + "' | Género: " + genero + " | Año: " + anio;
+        StringBuilder texto = new StringBuilder(64);
+        anexarA(texto);
+        return texto.toString();
+    }
+
+    // el mismo texto que toString, añadido a un StringBuilder sin crear un String intermedio
+    public void anexarA(StringBuilder texto) {
+        texto.append("ID: ").append(id).append(" | Título: '").append(titulo)
+                .append("' | Género: ").append(genero).append(" | Año: ").append(anio);
     }
 
     //  metodo para convertir el objeto a una línea de texto para guardar en el archivo
+    //  los textos van entre comillas si contienen comas o comillas
     public String aTextoCSV() {
-        return id + "," + titulo + "," + genero + "," + anio + "," + idDesarrolladora;
+        return id + "," + FormatoCSV.campo(titulo) + "," + FormatoCSV.campo(genero) + "," + anio + "," + idDesarrolladora;
     }
 
     // para crear un objeto videojuego a partir de la línea del archivo
     public static Videojuego desdeTextoCSV(String linea) {
-        String[] campos = linea.split(",");
+        String[] campos = FormatoCSV.dividir(linea);
         if (campos.length != 5) {
             throw new IllegalArgumentException("La línea CSV no tiene el formato correcto para un videojuego.");
         }
@@ -104,4 +154,13 @@ public class Videojuego {
         // por último se crea y devuelve el objeto
         return new Videojuego(id, titulo, genero, anio, idDesarrolladora);
     }
+
+    // igual que desdeTextoCSV pero a partir de un registro del lector mapeado
+    public static Videojuego desdeRegistroCSV(LectorCSV.Registro registro) {
+        if (registro.numCampos() != 5) {
+            throw new IllegalArgumentException("La línea CSV no tiene el formato correcto para un videojuego.");
+        }
+        return new Videojuego(registro.entero(0), registro.texto(1), registro.texto(2),
+                registro.entero(3), registro.entero(4));
+    }
 }
\ No newline at end of file
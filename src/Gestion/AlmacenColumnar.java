@@ -0,0 +1,249 @@
+package Gestion;
+
+import Entidades.Videojuego;
+import Indices.MapaEnteroEntero;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Almacén de videojuegos por columnas (struct-of-arrays).
+ *
+ * Cada campo se guarda en su propio array: int[] para el ID y la
+ * desarrolladora, short[] para el año y String[] para los textos. No hay un
+ * objeto por fila, así que ocupa mucha menos memoria y los recorridos por
+ * año o desarrolladora leen memoria contigua. Los objetos Videojuego solo se
+ * crean cuando se devuelven. Los pocos años que no caben en un short (un CSV
+ * editado a mano) se guardan aparte por ID y su fila lleva una marca.
+ *
+ * Al borrar, la fila se marca como borrada y se compacta el almacén cuando
+ * las filas borradas superan a las vivas, manteniendo el orden de inserción.
+ *
+ * Lo que se paga a cambio es listar: como no hay objetos guardados, cada
+ * llamada crea una lista nueva con todos ellos, O(n) en tiempo y memoria (y
+ * con ella listarTodosLosVideojuegos y streamVideojuegos). La lista sigue
+ * siendo una foto fija, pero no sale gratis como en AlmacenObjetos; si se
+ * lista mucho el catálogo completo conviene ese otro almacén.
+ */
+
+public class AlmacenColumnar implements AlmacenVideojuegos {
+
+    private static final int CAPACIDAD_INICIAL = 64;
+    // año de las filas cuyo año real está en aniosGrandes
+    private static final short ANIO_APARTE = Short.MIN_VALUE;
+
+    private int[] ids;
+    private short[] anios;
+    private int[] idsDesarrolladora;
+    private String[] titulos;
+    private String[] titulosBusqueda;
+    // los géneros vienen del diccionario, así que son instancias compartidas
+    private String[] generos;
+    private String[] generosBusqueda;
+
+    private final BitSet borradas;
+    private final MapaEnteroEntero posiciones;
+    // ID -> año, solo para los años que no caben en el short
+    private final MapaEnteroEntero aniosGrandes;
+    // filas ocupadas (vivas y borradas) y filas vivas
+    private int filas;
+    private int vivas;
+
+
+    public AlmacenColumnar() {
+        this.borradas = new BitSet();
+        this.posiciones = new MapaEnteroEntero();
+        this.aniosGrandes = new MapaEnteroEntero();
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    private void reservar(int capacidad) {
+        this.ids = new int[capacidad];
+        this.anios = new short[capacidad];
+        this.idsDesarrolladora = new int[capacidad];
+        this.titulos = new String[capacidad];
+        this.titulosBusqueda = new String[capacidad];
+        this.generos = new String[capacidad];
+        this.generosBusqueda = new String[capacidad];
+        this.filas = 0;
+        this.vivas = 0;
+    }
+
+    @Override
+    public void añadir(Videojuego v) {
+        if (posiciones.contiene(v.getId())) {
+            throw new IllegalStateException("Ya existe un videojuego con ID: " + v.getId());
+        }
+        if (filas == ids.length) {
+            ampliar();
+        }
+        escribir(filas, v);
+        posiciones.poner(v.getId(), filas);
+        filas++;
+        vivas++;
+    }
+
+    @Override
+    public void actualizar(Videojuego v) {
+        int fila = posiciones.obtener(v.getId());
+        if (fila == MapaEnteroEntero.NO_ENCONTRADO) {
+            throw new IllegalStateException("No existe un videojuego con ID: " + v.getId());
+        }
+        escribir(fila, v);
+    }
+
+    private void escribir(int fila, Videojuego v) {
+        if (v.getAnio() <= ANIO_APARTE || v.getAnio() > Short.MAX_VALUE) {
+            anios[fila] = ANIO_APARTE;
+            aniosGrandes.poner(v.getId(), v.getAnio());
+        } else {
+            anios[fila] = (short) v.getAnio();
+            aniosGrandes.quitar(v.getId());
+        }
+        ids[fila] = v.getId();
+        idsDesarrolladora[fila] = v.getIdDesarrolladora();
+        titulos[fila] = v.getTitulo();
+        titulosBusqueda[fila] = v.getTituloBusqueda();
+        generos[fila] = v.getGenero();
+        generosBusqueda[fila] = v.getGeneroBusqueda();
+    }
+
+    private Videojuego leer(int fila) {
+        return new Videojuego(ids[fila], titulos[fila], titulosBusqueda[fila], generos[fila], generosBusqueda[fila],
+                anio(fila), idsDesarrolladora[fila]);
+    }
+
+    private int anio(int fila) {
+        return anios[fila] == ANIO_APARTE ? aniosGrandes.obtener(ids[fila]) : anios[fila];
+    }
+
+    @Override
+    public Videojuego obtener(int id) {
+        int fila = posiciones.obtener(id);
+        return fila == MapaEnteroEntero.NO_ENCONTRADO ? null : leer(fila);
+    }
+
+    @Override
+    public boolean contiene(int id) {
+        return posiciones.contiene(id);
+    }
+
+    @Override
+    public Videojuego quitar(int id) {
+        int fila = posiciones.quitar(id);
+        if (fila == MapaEnteroEntero.NO_ENCONTRADO) {
+            return null;
+        }
+        Videojuego v = leer(fila);
+        borradas.set(fila);
+        if (anios[fila] == ANIO_APARTE) {
+            aniosGrandes.quitar(id);
+        }
+        // se sueltan los textos para que el recolector pueda liberarlos
+        titulos[fila] = null;
+        titulosBusqueda[fila] = null;
+        generos[fila] = null;
+        generosBusqueda[fila] = null;
+        vivas--;
+        if (filas > CAPACIDAD_INICIAL && filas - vivas > vivas) {
+            compactar();
+        }
+        return v;
+    }
+
+    @Override
+    public List<Videojuego> quitarVarios(int[] ids) {
+        List<Videojuego> quitados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Videojuego v = quitar(id);
+            if (v != null) {
+                quitados.add(v);
+            }
+        }
+        return quitados;
+    }
+
+    @Override
+    public int tamanio() {
+        return vivas;
+    }
+
+    // aquí no hay objetos guardados, así que se crean todos: cuesta O(n)
+    @Override
+    public List<Videojuego> listar() {
+        List<Videojuego> lista = new ArrayList<>(vivas);
+        for (int fila = 0; fila < filas; fila++) {
+            if (!borradas.get(fila)) {
+                lista.add(leer(fila));
+            }
+        }
+        return Collections.unmodifiableList(lista);
+    }
+
+    @Override
+    public int[] filtrar(FiltroFila filtro) {
+        int[] resultado = new int[16];
+        int n = 0;
+        for (int fila = 0; fila < filas; fila++) {
+            if (borradas.get(fila)) {
+                continue;
+            }
+            if (filtro.acepta(ids[fila], titulosBusqueda[fila], generosBusqueda[fila], anio(fila), idsDesarrolladora[fila])) {
+                if (n == resultado.length) {
+                    resultado = Arrays.copyOf(resultado, n * 2);
+                }
+                resultado[n++] = ids[fila];
+            }
+        }
+        return Arrays.copyOf(resultado, n);
+    }
+
+    @Override
+    public void limpiar() {
+        borradas.clear();
+        posiciones.limpiar();
+        aniosGrandes.limpiar();
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    private void ampliar() {
+        int capacidad = ids.length + (ids.length >> 1);
+        ids = Arrays.copyOf(ids, capacidad);
+        anios = Arrays.copyOf(anios, capacidad);
+        idsDesarrolladora = Arrays.copyOf(idsDesarrolladora, capacidad);
+        titulos = Arrays.copyOf(titulos, capacidad);
+        titulosBusqueda = Arrays.copyOf(titulosBusqueda, capacidad);
+        generos = Arrays.copyOf(generos, capacidad);
+        generosBusqueda = Arrays.copyOf(generosBusqueda, capacidad);
+    }
+
+    // mueve las filas vivas al principio respetando el orden y recalcula las posiciones
+    private void compactar() {
+        int destino = 0;
+        for (int fila = 0; fila < filas; fila++) {
+            if (borradas.get(fila)) {
+                continue;
+            }
+            if (destino != fila) {
+                ids[destino] = ids[fila];
+                anios[destino] = anios[fila];
+                idsDesarrolladora[destino] = idsDesarrolladora[fila];
+                titulos[destino] = titulos[fila];
+                titulosBusqueda[destino] = titulosBusqueda[fila];
+                generos[destino] = generos[fila];
+                generosBusqueda[destino] = generosBusqueda[fila];
+                posiciones.poner(ids[destino], destino);
+            }
+            destino++;
+        }
+        Arrays.fill(titulos, destino, filas, null);
+        Arrays.fill(titulosBusqueda, destino, filas, null);
+        Arrays.fill(generos, destino, filas, null);
+        Arrays.fill(generosBusqueda, destino, filas, null);
+        borradas.clear();
+        filas = destino;
+    }
+}
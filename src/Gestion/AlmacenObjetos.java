@@ -0,0 +1,123 @@
+package Gestion;
+
+import Entidades.Videojuego;
+import Indices.MapaEnteroEntero;
+import Indices.VectorPersistente;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Almacén de videojuegos como lista de objetos, con un índice por ID.
+ *
+ * Es la forma original de guardar los datos: cada fila es un objeto
+ * Videojuego y se devuelve el mismo objeto que está guardado. La lista es un
+ * VectorPersistente, así que listar devuelve la versión actual sin copiarla
+ * y esa lista no cambia aunque después se modifique el almacén. El índice
+ * guarda la posición de cada ID en la lista.
+ *
+ * Al borrar, la última fila pasa al hueco de la borrada: así solo cambia la
+ * posición de una fila, pero el orden deja de ser el de inserción.
+ */
+
+public class AlmacenObjetos implements AlmacenVideojuegos {
+
+    private VectorPersistente<Videojuego> videojuegos;
+    private final MapaEnteroEntero posiciones;
+
+
+    public AlmacenObjetos() {
+        this.videojuegos = VectorPersistente.vacio();
+        this.posiciones = new MapaEnteroEntero();
+    }
+
+    @Override
+    public void añadir(Videojuego v) {
+        if (posiciones.contiene(v.getId())) {
+            throw new IllegalStateException("Ya existe un videojuego con ID: " + v.getId());
+        }
+        posiciones.poner(v.getId(), videojuegos.size());
+        videojuegos = videojuegos.añadir(v);
+    }
+
+    @Override
+    public void actualizar(Videojuego v) {
+        int posicion = posiciones.obtener(v.getId());
+        if (posicion == MapaEnteroEntero.NO_ENCONTRADO) {
+            throw new IllegalStateException("No existe un videojuego con ID: " + v.getId());
+        }
+        if (videojuegos.get(posicion) != v) {
+            videojuegos = videojuegos.poner(posicion, v);
+        }
+    }
+
+    @Override
+    public Videojuego obtener(int id) {
+        int posicion = posiciones.obtener(id);
+        return posicion == MapaEnteroEntero.NO_ENCONTRADO ? null : videojuegos.get(posicion);
+    }
+
+    @Override
+    public boolean contiene(int id) {
+        return posiciones.contiene(id);
+    }
+
+    @Override
+    public Videojuego quitar(int id) {
+        int posicion = posiciones.quitar(id);
+        if (posicion == MapaEnteroEntero.NO_ENCONTRADO) {
+            return null;
+        }
+        Videojuego v = videojuegos.get(posicion);
+        int ultima = videojuegos.size() - 1;
+        if (posicion != ultima) {
+            posiciones.poner(videojuegos.get(ultima).getId(), posicion);
+        }
+        videojuegos = videojuegos.quitarIntercambiando(posicion);
+        return v;
+    }
+
+    @Override
+    public List<Videojuego> quitarVarios(int[] ids) {
+        List<Videojuego> quitados = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Videojuego v = quitar(id);
+            if (v != null) {
+                quitados.add(v);
+            }
+        }
+        return quitados;
+    }
+
+    @Override
+    public int tamanio() {
+        return videojuegos.size();
+    }
+
+    @Override
+    public List<Videojuego> listar() {
+        return videojuegos;
+    }
+
+    @Override
+    public int[] filtrar(FiltroFila filtro) {
+        int[] ids = new int[16];
+        int n = 0;
+        for (Videojuego v : videojuegos) {
+            if (filtro.acepta(v.getId(), v.getTituloBusqueda(), v.getGeneroBusqueda(), v.getAnio(), v.getIdDesarrolladora())) {
+                if (n == ids.length) {
+                    ids = Arrays.copyOf(ids, n * 2);
+                }
+                ids[n++] = v.getId();
+            }
+        }
+        return Arrays.copyOf(ids, n);
+    }
+
+    @Override
+    public void limpiar() {
+        videojuegos = VectorPersistente.vacio();
+        posiciones.limpiar();
+    }
+}
@@ -0,0 +1,58 @@
+package Gestion;
+
+import Entidades.Videojuego;
+import java.util.List;
+
+
+/**
+ * Almacenamiento de las filas de videojuegos que usa GestorDatos.
+ *
+ * GestorDatos mantiene por su cuenta los índices secundarios (trigramas,
+ * géneros, años, desarrolladora) y delega aquí solo el guardado de las filas
+ * y la búsqueda por ID. Hay dos implementaciones: AlmacenObjetos (una lista
+ * de objetos Videojuego) y AlmacenColumnar (un array por campo). Devuelven
+ * los mismos datos, pero no con el mismo coste ni en el mismo orden:
+ *   - listar es O(1) en AlmacenObjetos y O(n) en AlmacenColumnar, que tiene
+ *     que crear todos los objetos;
+ *   - tras un borrado AlmacenObjetos pone la última fila en el hueco, y
+ *     AlmacenColumnar mantiene el orden de inserción.
+ *
+ * Los videojuegos devueltos pueden ser copias: para cambiar una fila hay que
+ * llamar a actualizar con el objeto modificado.
+ */
+
+public interface AlmacenVideojuegos {
+
+    // condición sobre los campos de una fila, sin necesidad de crear el objeto
+    interface FiltroFila {
+        boolean acepta(int id, String tituloBusqueda, String generoBusqueda, int anio, int idDesarrolladora);
+    }
+
+    // añade una fila nueva, el ID no debe existir ya
+    void añadir(Videojuego v);
+
+    // sustituye la fila con el mismo ID
+    void actualizar(Videojuego v);
+
+    // devuelve el videojuego con ese ID o null si no existe
+    Videojuego obtener(int id);
+
+    boolean contiene(int id);
+
+    // elimina la fila y devuelve el videojuego eliminado (o null si no existía)
+    Videojuego quitar(int id);
+
+    // elimina varias filas de una vez y devuelve los videojuegos eliminados
+    List<Videojuego> quitarVarios(int[] ids);
+
+    int tamanio();
+
+    // todos los videojuegos (en orden de inserción mientras no se borre nada), en una
+    // lista que no se puede modificar y que no cambia aunque después se modifique el almacén
+    List<Videojuego> listar();
+
+    // IDs de las filas que cumplen el filtro, en el mismo orden que listar
+    int[] filtrar(FiltroFila filtro);
+
+    void limpiar();
+}
@@ -0,0 +1,235 @@
+package Gestion;
+
+import Entidades.Desarrolladora;
+import Entidades.TextoBusqueda;
+import Indices.ConjuntoEnteros;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Consulta compuesta sobre los videojuegos: criterios sobre cualquier campo
+ * del videojuego o de su desarrolladora, combinados con y() y o().
+ *
+ *   Consulta rpgJaponeses = Consulta.y(
+ *           Consulta.genero("rol"),
+ *           Consulta.paisDesarrolladora("Japón"),
+ *           Consulta.anios(2015, 2023),
+ *           Consulta.titulo("ring"));
+ *   List<Videojuego> resultados = gestor.buscarVideojuegos(rpgJaponeses);
+ *
+ * Los criterios de texto buscan coincidencias parciales sin tildes ni
+ * mayúsculas, como las búsquedas simples de GestorDatos. Una consulta no
+ * cambia una vez creada, así que se puede guardar y usar desde varios hilos.
+ *
+ * GestorDatos la convierte en un PlanConsulta cada vez que la ejecuta, con
+ * los tamaños de los índices de ese momento.
+ */
+
+public abstract class Consulta {
+
+    private final String descripcion;
+
+    // solo las crean los métodos de esta clase
+    private Consulta(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    abstract PlanConsulta planificar(IndicesConsulta indices);
+
+    @Override
+    public String toString() {
+        return descripcion;
+    }
+
+    // ========== CRITERIOS ==========
+
+    public static Consulta idVideojuego(int id) {
+        return new Consulta("ID de videojuego = " + id) {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                boolean existe = indices.existeVideojuego(id);
+                return new PlanConsulta.Hoja(toString(), existe ? 1 : 0, indices.totalVideojuegos(),
+                        () -> existe ? new int[]{id} : new int[0],
+                        (i, t, g, a, d) -> i == id);
+            }
+        };
+    }
+
+    public static Consulta titulo(String parte) {
+        String busqueda = normalizar(parte);
+        return new Consulta("título contiene \"" + busqueda + "\"") {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                int total = indices.totalVideojuegos();
+                int maximo = indices.maximoCandidatosTitulo(busqueda);
+                // texto demasiado corto para el índice de trigramas: solo sirve como filtro
+                return new PlanConsulta.Hoja(toString(), maximo < 0 ? total : maximo, total,
+                        maximo < 0 ? null : () -> indices.candidatosTitulo(busqueda),
+                        (i, t, g, a, d) -> t.contains(busqueda));
+            }
+        };
+    }
+
+    public static Consulta genero(String parte) {
+        String busqueda = normalizar(parte);
+        return new Consulta("género contiene \"" + busqueda + "\"") {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                return new PlanConsulta.Hoja(toString(), indices.contarGenero(busqueda), indices.totalVideojuegos(),
+                        () -> indices.videojuegosDeGenero(busqueda),
+                        (i, t, g, a, d) -> g.contains(busqueda));
+            }
+        };
+    }
+
+    // años de lanzamiento entre desde y hasta, ambos incluidos
+    public static Consulta anios(int desde, int hasta) {
+        if (desde > hasta) {
+            throw new IllegalArgumentException("El año inicial no puede ser mayor que el año final.");
+        }
+        return new Consulta("año entre " + desde + " y " + hasta) {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                return new PlanConsulta.Hoja(toString(), indices.contarAnios(desde, hasta), indices.totalVideojuegos(),
+                        () -> indices.videojuegosEntreAnios(desde, hasta),
+                        (i, t, g, a, d) -> a >= desde && a <= hasta);
+            }
+        };
+    }
+
+    public static Consulta idDesarrolladora(int id) {
+        return new Consulta("ID de desarrolladora = " + id) {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                ConjuntoEnteros ids = new ConjuntoEnteros();
+                ids.añadir(id);
+                return deDesarrolladoras(toString(), ids, indices);
+            }
+        };
+    }
+
+    public static Consulta nombreDesarrolladora(String parte) {
+        String busqueda = normalizar(parte);
+        return new Consulta("nombre de desarrolladora contiene \"" + busqueda + "\"") {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                return deDesarrolladoras(toString(), ids(indices.desarrolladorasPorNombre(busqueda)), indices);
+            }
+        };
+    }
+
+    public static Consulta paisDesarrolladora(String parte) {
+        String busqueda = normalizar(parte);
+        return new Consulta("país de desarrolladora contiene \"" + busqueda + "\"") {
+            @Override
+            PlanConsulta planificar(IndicesConsulta indices) {
+                return deDesarrolladoras(toString(), ids(indices.desarrolladorasPorPais(busqueda)), indices);
+            }
+        };
+    }
+
+    // ========== COMBINACIONES ==========
+
+    // se tienen que cumplir todos los criterios
+    public static Consulta y(Consulta... criterios) {
+        Consulta[] hijos = aplanar(criterios, true);
+        if (hijos.length == 1) {
+            return hijos[0];
+        }
+        return new Compuesta(hijos, true);
+    }
+
+    // basta con que se cumpla uno de los criterios
+    public static Consulta o(Consulta... criterios) {
+        Consulta[] hijos = aplanar(criterios, false);
+        if (hijos.length == 1) {
+            return hijos[0];
+        }
+        return new Compuesta(hijos, false);
+    }
+
+    private static final class Compuesta extends Consulta {
+
+        private final Consulta[] hijos;
+        private final boolean todos;
+
+        Compuesta(Consulta[] hijos, boolean todos) {
+            super(describir(hijos, todos));
+            this.hijos = hijos;
+            this.todos = todos;
+        }
+
+        private static String describir(Consulta[] hijos, boolean todos) {
+            StringBuilder texto = new StringBuilder("(");
+            for (int i = 0; i < hijos.length; i++) {
+                if (i > 0) {
+                    texto.append(todos ? " Y " : " O ");
+                }
+                texto.append(hijos[i]);
+            }
+            return texto.append(')').toString();
+        }
+
+        @Override
+        PlanConsulta planificar(IndicesConsulta indices) {
+            PlanConsulta[] planes = new PlanConsulta[hijos.length];
+            for (int i = 0; i < hijos.length; i++) {
+                planes[i] = hijos[i].planificar(indices);
+            }
+            int total = indices.totalVideojuegos();
+            if (todos) {
+                return new PlanConsulta.Y("todas estas condiciones", planes, total);
+            }
+            return new PlanConsulta.O("alguna de estas condiciones", planes, total);
+        }
+    }
+
+    // y(a, y(b, c)) es lo mismo que y(a, b, c); así el plan elige entre los tres
+    private static Consulta[] aplanar(Consulta[] criterios, boolean todos) {
+        if (criterios == null || criterios.length == 0) {
+            throw new IllegalArgumentException("Una consulta compuesta necesita al menos un criterio.");
+        }
+        List<Consulta> hijos = new ArrayList<>();
+        for (Consulta c : criterios) {
+            if (c == null) {
+                throw new IllegalArgumentException("Los criterios de una consulta no pueden ser nulos.");
+            }
+            if (c instanceof Compuesta compuesta && compuesta.todos == todos) {
+                hijos.addAll(List.of(compuesta.hijos));
+            } else {
+                hijos.add(c);
+            }
+        }
+        return hijos.toArray(new Consulta[0]);
+    }
+
+    // ========== AUXILIARES ==========
+
+    private static String normalizar(String parte) {
+        if (parte == null) {
+            throw new IllegalArgumentException("El texto de un criterio no puede ser nulo.");
+        }
+        return TextoBusqueda.normalizar(parte);
+    }
+
+    private static ConjuntoEnteros ids(List<Desarrolladora> desarrolladoras) {
+        ConjuntoEnteros ids = new ConjuntoEnteros();
+        for (Desarrolladora d : desarrolladoras) {
+            ids.añadir(d.getId());
+        }
+        return ids;
+    }
+
+    // criterio sobre la desarrolladora: sus videojuegos salen del índice inverso
+    private static PlanConsulta deDesarrolladoras(String descripcion, ConjuntoEnteros idsDesarrolladoras,
+            IndicesConsulta indices) {
+        int estimacion = 0;
+        for (int i = 0; i < idsDesarrolladoras.tamanio(); i++) {
+            estimacion += indices.contarVideojuegosDe(idsDesarrolladoras.obtener(i));
+        }
+        return new PlanConsulta.Hoja(descripcion, estimacion, indices.totalVideojuegos(),
+                () -> indices.videojuegosDe(idsDesarrolladoras),
+                (i, t, g, a, d) -> idsDesarrolladoras.contiene(d));
+    }
+}
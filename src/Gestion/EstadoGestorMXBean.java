@@ -0,0 +1,45 @@
+package Gestion;
+
+
+/**
+ * Estado de un GestorDatos que se publica por JMX: tamaño del catálogo y
+ * de los índices, y cómo van los guardados. Cada lectura toma un momento
+ * el cerrojo de lectura, así que los números son coherentes entre sí.
+ *
+ * Las latencias de cada operación se publican aparte, una por operación
+ * (ver MetricasGestor).
+ */
+
+public interface EstadoGestorMXBean {
+
+    int getVideojuegos();
+
+    int getDesarrolladoras();
+
+    // desarrolladoras con al menos un videojuego (entradas del índice inverso)
+    int getDesarrolladorasConVideojuegos();
+
+    int getGeneros();
+
+    int getTrigramasTitulos();
+
+    int getTrigramasNombres();
+
+    // operaciones apuntadas en el diario desde el último guardado
+    long getRegistrosDiario();
+
+    String getAlmacen();
+
+    String getDirectorio();
+
+    // duración de la escritura del último guardado terminado, -1 si aún no hay ninguno
+    double getUltimoGuardadoMillis();
+
+    // segundos desde que terminó el último guardado correcto, -1 si aún no hay ninguno
+    long getSegundosDesdeUltimoGuardado();
+
+    long getGuardadosFallidos();
+
+    // vuelve a cero las latencias de todas las operaciones
+    void reiniciarMetricas();
+}
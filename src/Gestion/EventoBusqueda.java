@@ -0,0 +1,54 @@
+package Gestion;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+
+/**
+ * Evento de JDK Flight Recorder con cada búsqueda de GestorDatos (también
+ * las paginadas): qué búsqueda fue, cuánto medía el texto buscado y cuántos
+ * resultados dio. No se guarda el texto en sí.
+ *
+ * Por defecto solo se graban las que tardan al menos 1 ms, para que un
+ * servidor con muchas búsquedas por segundo no llene la grabación; el
+ * umbral se cambia en el archivo .jfc.
+ *
+ * terminar() se llama después del try/finally del cerrojo y no dentro del
+ * finally: en el camino de las excepciones el JIT no la compila en línea,
+ * así que el objeto escaparía y se crearía aunque no se esté grabando.
+ */
+
+@Name("proyectoad.Busqueda")
+@Label("Búsqueda")
+@Category({"ProyectoAD", "Consultas"})
+@StackTrace(false)
+@Threshold("1 ms")
+final class EventoBusqueda extends Event {
+
+    @Label("Tipo")
+    @Description("Método de GestorDatos, con el sufijo Paginado en las versiones por páginas")
+    String tipo;
+
+    @Label("Longitud del término")
+    @Description("Caracteres del texto buscado ya normalizado; 0 en las búsquedas por rango de años y en las consultas compuestas")
+    int longitudTermino;
+
+    @Label("Resultados")
+    int resultados;
+
+    // rellena y escribe el evento solo si se está grabando y ha superado el umbral
+    void terminar(Operacion operacion, int longitudTermino, int resultados) {
+        end();
+        if (shouldCommit()) {
+            this.tipo = operacion.getNombre();
+            this.longitudTermino = longitudTermino;
+            this.resultados = resultados;
+            commit();
+        }
+    }
+}
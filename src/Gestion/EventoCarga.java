@@ -0,0 +1,44 @@
+package Gestion;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Evento de JDK Flight Recorder con la carga del catálogo al arrancar
+ * (cargarDatos): de dónde se leyó, cuántas filas y cuántos bytes.
+ *
+ * Como los demás eventos de GestorDatos, solo se rellena y se escribe si
+ * hay una grabación que lo tenga habilitado; si no, el compilador JIT
+ * elimina el objeto y no cuesta nada.
+ */
+
+@Name("proyectoad.Carga")
+@Label("Carga del catálogo")
+@Category({"ProyectoAD", "Persistencia"})
+@StackTrace(false)
+final class EventoCarga extends Event {
+
+    @Label("Origen")
+    @Description("Catalogo.bin si se usó la instantánea binaria, CSV si se leyeron los CSV")
+    String origen;
+
+    @Label("Videojuegos")
+    int videojuegos;
+
+    @Label("Desarrolladoras")
+    int desarrolladoras;
+
+    @Label("Operaciones del diario")
+    @Description("Cambios de Diario.log reproducidos después de leer los datos")
+    long operacionesDiario;
+
+    @Label("Bytes leídos")
+    @DataAmount
+    long bytes;
+}
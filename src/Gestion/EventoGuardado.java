@@ -0,0 +1,35 @@
+package Gestion;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * Evento de JDK Flight Recorder con cada guardado: lo que tarda el hilo de
+ * guardado en escribir los CSV y Catalogo.bin, tanto si lo pidió
+ * guardarDatos como si fue un guardado automático.
+ */
+
+@Name("proyectoad.Guardado")
+@Label("Guardado del catálogo")
+@Category({"ProyectoAD", "Persistencia"})
+@StackTrace(false)
+final class EventoGuardado extends Event {
+
+    @Label("Videojuegos")
+    int videojuegos;
+
+    @Label("Desarrolladoras")
+    int desarrolladoras;
+
+    @Label("Bytes escritos")
+    @DataAmount
+    long bytes;
+
+    @Label("Correcto")
+    boolean correcto;
+}
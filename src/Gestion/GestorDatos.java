@@ -4,132 +4,702 @@ package Gestion;
 import Excepciones.DesarrolladoraNoEncontradaException;
 import Excepciones.VideojuegoNoEncontradoException;
 import Entidades.Desarrolladora;
+import Entidades.TextoBusqueda;
 import Entidades.Videojuego;
+import Indices.ConjuntoEnteros;
+import Indices.DiccionarioGeneros;
+import Indices.IndiceAnios;
+import Indices.IndiceTrigramas;
+import Indices.MapaEnteroEntero;
+import Indices.MapaEnteros;
+import Indices.VectorPersistente;
+import Persistencia.Diario;
+import Persistencia.EscritorCSV;
+import Persistencia.InstantaneaBinaria;
+import Persistencia.LectorCSV;
 import java.io.*;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Clase gestora del CRUD para videojuegos y desarrolladoras.
  * Usa listas estáticas y métodos estáticos para gestionar los datos.
- * Los datos se guardan en archivos CSV en la carpeta del proyecto.
+ * Los datos se guardan en archivos CSV en la carpeta del proyecto, o en la
+ * que se indique con -Dgestor.directorio.
  * Genera IDs automáticos y carga/guarda los datos al iniciar y cerrar.
+ * Cada cambio se apunta en Diario.log; se puede usar desde varios hilos.
  */
 
 public class GestorDatos {
 
-    private final List<Videojuego> videojuegos;
-    private final List<Desarrolladora> desarrolladoras;
-    private int siguienteIdVideojuego;
-    private int siguienteIdDesarrolladora;
+    // las filas de videojuegos, con su propio índice por ID
+    private final AlmacenVideojuegos videojuegos;
+    // se sustituye por una versión nueva en cada cambio; listar la devuelve tal cual
+    private VectorPersistente<Desarrolladora> desarrolladoras;
+    // posición de cada desarrolladora en la lista, para sustituirla o quitarla sin buscarla
+    private final MapaEnteroEntero posicionesDesarrolladoras;
+    // índices secundarios, se mantienen sincronizados en cada alta, modificación y baja
+    private final MapaEnteros<Desarrolladora> indiceDesarrolladoras;
+    private final MapaEnteros<ConjuntoEnteros> videojuegosPorDesarrolladora;
+    private final IndiceTrigramas indiceTitulos;
+    private final DiccionarioGeneros diccionarioGeneros;
+    private final IndiceAnios indiceAnios;
+    private final IndiceTrigramas indiceNombres;
+    // todos los IDs en orden, para paginar por clave
+    private final ConjuntoEnteros idsVideojuegos;
+    private final ConjuntoEnteros idsDesarrolladoras;
+    private final AtomicInteger siguienteIdVideojuego;
+    private final AtomicInteger siguienteIdDesarrolladora;
+    // lectura para las consultas, escritura para los cambios (no es reentrante)
+    private final StampedLock cerrojo;
+    // solo un guardado se prepara a la vez
+    private final Object cerrojoGuardado;
 
     private static final String csv_videojuegos = "Videojuegos.csv";
     private static final String csv_desarrolladoras = "Desarrolladoras.csv";
+    private static final String diario_cambios = "Diario.log";
+    private static final String instantanea_binaria = "Catalogo.bin";
+    // se guarda cuando el diario supera este número de operaciones (o el tamaño del catálogo)
+    private static final int UMBRAL_COMPACTACION = 10_000;
+    // segundos entre guardados automáticos si no se indica -Dgestor.autoguardado
+    private static final long AUTOGUARDADO_POR_DEFECTO = 300;
+    // IDs que se reservan de golpe al importar
+    private static final int BLOQUE_IDS = 1024;
+    // primer año de lanzamiento admitido; el último es el año actual + 1
+    private static final int ANIO_MINIMO = 1950;
+
+    // carpeta de los CSV, el diario y la instantánea (-Dgestor.directorio, por defecto la actual)
+    private final Path directorio;
+    private final Diario diario;
+    private final ExecutorService guardador;
+    private CompletableFuture<Void> guardado;
+    private long intervaloAutoguardado;
+    private long ultimoGuardado;
+    // archivo que no se pudo leer al arrancar: guardar lo dejaría vacío, así que no se guarda
+    private volatile String cargaFallida;
+    private final MetricasGestor metricas;
+    // lo que ven de los índices los planes de las consultas compuestas
+    private final IndicesConsulta indicesConsulta = new AccesoIndices();
 
 
     public GestorDatos() {
-        this.videojuegos = new ArrayList<>();
-        this.desarrolladoras = new ArrayList<>();
-        this.siguienteIdVideojuego = 1;
-        this.siguienteIdDesarrolladora = 1;
+        this(crearAlmacenPorDefecto());
+    }
+
+    public GestorDatos(AlmacenVideojuegos almacen) {
+        this.videojuegos = almacen;
+        this.desarrolladoras = VectorPersistente.vacio();
+        this.posicionesDesarrolladoras = new MapaEnteroEntero();
+        this.indiceDesarrolladoras = new MapaEnteros<>();
+        this.videojuegosPorDesarrolladora = new MapaEnteros<>();
+        this.indiceTitulos = new IndiceTrigramas();
+        this.diccionarioGeneros = new DiccionarioGeneros();
+        this.indiceAnios = new IndiceAnios();
+        this.indiceNombres = new IndiceTrigramas();
+        this.idsVideojuegos = new ConjuntoEnteros();
+        this.idsDesarrolladoras = new ConjuntoEnteros();
+        this.siguienteIdVideojuego = new AtomicInteger(1);
+        this.siguienteIdDesarrolladora = new AtomicInteger(1);
+        this.cerrojo = new StampedLock();
+        this.cerrojoGuardado = new Object();
+        this.directorio = Paths.get(System.getProperty("gestor.directorio", ""));
+        this.diario = new Diario(directorio.resolve(diario_cambios), Boolean.getBoolean("gestor.diario.fsync"));
+        this.guardador = Executors.newSingleThreadExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "guardado-datos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.intervaloAutoguardado = TimeUnit.SECONDS.toNanos(Long.getLong("gestor.autoguardado", AUTOGUARDADO_POR_DEFECTO));
+        this.ultimoGuardado = System.nanoTime();
+        this.metricas = new MetricasGestor();
+        long inicio = metricas.empezar(Operacion.CARGAR_DATOS);
         cargarDatos();
+        metricas.registrar(Operacion.CARGAR_DATOS, inicio);
+        try {
+            diario.abrir();
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el diario de cambios: " + e.getMessage());
+        }
+        metricas.publicar(new Estado());
+    }
+
+
+    private static AlmacenVideojuegos crearAlmacenPorDefecto() {
+        if ("columnar".equalsIgnoreCase(System.getProperty("gestor.almacen"))) {
+            return new AlmacenColumnar();
+        }
+        return new AlmacenObjetos();
     }
 
 
     private void cargarDatos() {
+        EventoCarga evento = new EventoCarga();
+        evento.begin();
+        videojuegos.limpiar();
+        desarrolladoras = VectorPersistente.vacio();
+        posicionesDesarrolladoras.limpiar();
+        indiceDesarrolladoras.limpiar();
+        videojuegosPorDesarrolladora.limpiar();
+        indiceTitulos.limpiar();
+        diccionarioGeneros.limpiar();
+        indiceAnios.limpiar();
+        indiceNombres.limpiar();
+        idsVideojuegos.limpiar();
+        idsDesarrolladoras.limpiar();
+
+        CompletableFuture<List<Desarrolladora>> lecturaDesarrolladoras;
+        CompletableFuture<List<Videojuego>> lecturaVideojuegos;
+        InstantaneaBinaria.Contenido instantanea = leerInstantanea();
+        if (instantanea != null) {
+            lecturaDesarrolladoras = CompletableFuture.completedFuture(instantanea.getDesarrolladoras());
+            lecturaVideojuegos = CompletableFuture.completedFuture(instantanea.getVideojuegos());
+        } else {
+            // Se leen los dos archivos a la vez; cada uno se reparte además en trozos
+            // que se analizan en paralelo. Solo la inserción en los índices es secuencial.
+            LectorCSV lector = new LectorCSV();
+            lecturaDesarrolladoras = CompletableFuture.supplyAsync(
+                    () -> leerCSV(lector, csv_desarrolladoras, Desarrolladora::desdeRegistroCSV));
+            lecturaVideojuegos = CompletableFuture.supplyAsync(
+                    () -> leerCSV(lector, csv_videojuegos, Videojuego::desdeRegistroCSV));
+        }
+
         // Cargamos desarrolladoras primero porque los videojuegos dependen de estas
-        Path rutaDesarrolladoras = Paths.get(csv_desarrolladoras);
-        if (Files.exists(rutaDesarrolladoras)) {
-            try (BufferedReader lector = Files.newBufferedReader(rutaDesarrolladoras)) {
-                String linea;
-                while ((linea = lector.readLine()) != null) {
-                    linea = linea;
-                    if (!linea.isEmpty()) {
-                        try {
-                            Desarrolladora d = Desarrolladora.desdeTextoCSV(linea);
-                            desarrolladoras.add(d);
-                            if (d.getId() >= siguienteIdDesarrolladora) {
-                                siguienteIdDesarrolladora = d.getId() + 1;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Línea ignorada en desarrolladoras.csv: " + linea);
-                        }
+        List<Desarrolladora> leidas = lecturaDesarrolladoras.join();
+        for (Desarrolladora d : leidas) {
+            indexarDesarrolladora(d);
+        }
+        siguienteIdDesarrolladora.accumulateAndGet(
+                leidas.parallelStream().mapToInt(Desarrolladora::getId).max().orElse(0) + 1, Math::max);
+
+        // Cargar videojuegos
+        List<Videojuego> leidos = lecturaVideojuegos.join();
+        for (Videojuego v : leidos) {
+            insertarVideojuego(v);
+        }
+        siguienteIdVideojuego.accumulateAndGet(
+                leidos.parallelStream().mapToInt(Videojuego::getId).max().orElse(0) + 1, Math::max);
+
+        // Por último, los cambios apuntados en el diario después de la última instantánea
+        long aplicadas = 0;
+        try {
+            aplicadas = diario.reproducir(new Diario.Aplicador() {
+                @Override
+                public void ponerVideojuego(Videojuego v) {
+                    Videojuego actual = videojuegos.obtener(v.getId());
+                    if (actual == null) {
+                        insertarVideojuego(v);
+                    } else {
+                        // se sustituye la fila existente sin cambiar su posición; sin pasar por los
+                        // setters, que no admiten los años fuera de rango que sí se cargan de los CSV
+                        desindexarCampos(actual);
+                        compartirGenero(v);
+                        videojuegos.actualizar(v);
+                        indexarCampos(v);
+                    }
+                    siguienteIdVideojuego.accumulateAndGet(v.getId() + 1, Math::max);
+                }
+
+                @Override
+                public void quitarVideojuego(int id) {
+                    Videojuego v = videojuegos.quitar(id);
+                    if (v != null) {
+                        desindexarCampos(v);
+                        idsVideojuegos.quitar(id);
+                    }
+                }
+
+                @Override
+                public void ponerDesarrolladora(Desarrolladora d) {
+                    Desarrolladora actual = indiceDesarrolladoras.obtener(d.getId());
+                    if (actual == null) {
+                        indexarDesarrolladora(d);
+                    } else {
+                        indiceNombres.quitar(actual.getId(), actual.getNombreBusqueda());
+                        actual.setNombre(d.getNombre());
+                        actual.setPais(d.getPais());
+                        indiceNombres.añadir(actual.getId(), actual.getNombreBusqueda());
                     }
+                    siguienteIdDesarrolladora.accumulateAndGet(d.getId() + 1, Math::max);
                 }
+
+                @Override
+                public void quitarDesarrolladora(int id) {
+                    Desarrolladora d = indiceDesarrolladoras.quitar(id);
+                    if (d != null) {
+                        quitarDeLista(id);
+                        indiceNombres.quitar(id, d.getNombreBusqueda());
+                        idsDesarrolladoras.quitar(id);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("No se pudo leer el diario de cambios: " + e.getMessage());
+        }
+
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.origen = instantanea != null ? instantanea_binaria : "CSV";
+            evento.videojuegos = videojuegos.tamanio();
+            evento.desarrolladoras = desarrolladoras.size();
+            evento.operacionesDiario = aplicadas;
+            evento.bytes = instantanea != null ? bytesDe(instantanea_binaria) : bytesDe(csv_desarrolladoras, csv_videojuegos);
+            evento.commit();
+        }
+    }
+
+    // tamaño total de esos archivos de la carpeta de datos; solo para los eventos
+    private long bytesDe(String... archivos) {
+        long total = 0;
+        for (String archivo : archivos) {
+            try {
+                total += Files.size(directorio.resolve(archivo));
             } catch (IOException e) {
-                System.err.println("No se pudo leer el archivo de desarrolladoras.csv");
+                // no existe (por ejemplo, la instantánea que no se pudo escribir)
             }
         }
+        return total;
+    }
 
+    // la instantánea binaria solo se usa si es al menos tan reciente como los dos CSV
+    private InstantaneaBinaria.Contenido leerInstantanea() {
+        Path ruta = directorio.resolve(instantanea_binaria);
+        if (!Files.exists(ruta)) {
+            return null;
+        }
+        try {
+            FileTime fecha = Files.getLastModifiedTime(ruta);
+            for (String archivo : new String[]{csv_desarrolladoras, csv_videojuegos}) {
+                Path csv = directorio.resolve(archivo);
+                if (Files.exists(csv) && Files.getLastModifiedTime(csv).compareTo(fecha) > 0) {
+                    // el CSV se ha cambiado a mano después del último guardado
+                    return null;
+                }
+            }
+            return InstantaneaBinaria.leer(ruta);
+        } catch (IOException e) {
+            System.err.println("No se pudo leer la instantánea binaria, se cargan los CSV: " + e.getMessage());
+            return null;
+        }
+    }
 
-        // Cargar videojuegos
-        Path rutaVideojuegos = Paths.get(csv_videojuegos);
-        if (Files.exists(rutaVideojuegos)) {
-            try (BufferedReader lector = Files.newBufferedReader(rutaVideojuegos)) {
-                String linea;
-                while ((linea = lector.readLine()) != null) {
-                    linea = linea;
-                    if (!linea.isEmpty()) {
-                        try {
-                            Videojuego v = Videojuego.desdeTextoCSV(linea);
-                            videojuegos.add(v);
-                            if (v.getId() >= siguienteIdVideojuego) {
-                                siguienteIdVideojuego = v.getId() + 1;
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Línea ignorada en videojuegos.csv: " + linea);
-                        }
-                    }
+    private <T> List<T> leerCSV(LectorCSV lector, String archivo, LectorCSV.Convertidor<T> convertidor) {
+        Path ruta = directorio.resolve(archivo);
+        if (!Files.exists(ruta)) {
+            return new ArrayList<>();
+        }
+        try {
+            return lector.leerEnParalelo(ruta, convertidor,
+                    linea -> System.err.println("Línea ignorada en " + archivo.toLowerCase() + ": " + linea));
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("No se pudo leer el archivo de " + archivo.toLowerCase() + ": " + e.getMessage());
+            cargaFallida = archivo;
+            return new ArrayList<>();
+        }
+    }
+
+    // ========== MANTENIMIENTO DE ÍNDICES ==========
+
+    // añade la desarrolladora a la lista y a los índices
+    private void indexarDesarrolladora(Desarrolladora d) {
+        Desarrolladora anterior = indiceDesarrolladoras.poner(d.getId(), d);
+        if (anterior != null) {
+            // ID repetido en el archivo: la última línea sustituye a la anterior en su sitio
+            desarrolladoras = desarrolladoras.poner(posicionesDesarrolladoras.obtener(d.getId()), d);
+            indiceNombres.quitar(anterior.getId(), anterior.getNombreBusqueda());
+        } else {
+            posicionesDesarrolladoras.poner(d.getId(), desarrolladoras.size());
+            desarrolladoras = desarrolladoras.añadir(d);
+        }
+        indiceNombres.añadir(d.getId(), d.getNombreBusqueda());
+        idsDesarrolladoras.añadir(d.getId());
+    }
+
+    // la última desarrolladora de la lista pasa al hueco de la quitada
+    private void quitarDeLista(int idDesarrolladora) {
+        int posicion = posicionesDesarrolladoras.quitar(idDesarrolladora);
+        int ultima = desarrolladoras.size() - 1;
+        if (posicion != ultima) {
+            posicionesDesarrolladoras.poner(desarrolladoras.get(ultima).getId(), posicion);
+        }
+        desarrolladoras = desarrolladoras.quitarIntercambiando(posicion);
+    }
+
+    private void insertarVideojuego(Videojuego v) {
+        Videojuego anterior = videojuegos.quitar(v.getId());
+        if (anterior != null) {
+            // ID repetido en el archivo: la última línea sustituye a la anterior
+            desindexarCampos(anterior);
+        }
+        compartirGenero(v);
+        videojuegos.añadir(v);
+        indexarCampos(v);
+        idsVideojuegos.añadir(v.getId());
+    }
+
+    // el género pasa a ser la instancia del diccionario antes de guardar la fila
+    private void compartirGenero(Videojuego v) {
+        int codigoGenero = diccionarioGeneros.codificar(v.getGenero());
+        v.compartirGenero(diccionarioGeneros.genero(codigoGenero), diccionarioGeneros.generoBusqueda(codigoGenero));
+    }
+
+    private void indexarCampos(Videojuego v) {
+        indiceTitulos.añadir(v.getId(), v.getTituloBusqueda());
+        diccionarioGeneros.añadir(diccionarioGeneros.codificar(v.getGenero()), v.getId());
+        indiceAnios.añadir(v.getAnio(), v.getId());
+        ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(v.getIdDesarrolladora());
+        if (ids == null) {
+            ids = new ConjuntoEnteros();
+            videojuegosPorDesarrolladora.poner(v.getIdDesarrolladora(), ids);
+        }
+        ids.añadir(v.getId());
+    }
+
+    private void desindexarCampos(Videojuego v) {
+        indiceTitulos.quitar(v.getId(), v.getTituloBusqueda());
+        diccionarioGeneros.quitar(v.getGenero(), v.getId());
+        indiceAnios.quitar(v.getAnio(), v.getId());
+        quitarDeDesarrolladora(v.getIdDesarrolladora(), v.getId());
+    }
+
+    /**
+     * Quita de una vez los videojuegos con esos IDs: una pasada por el
+     * almacén y una actualización de cada índice para todo el lote. Devuelve
+     * los videojuegos quitados. Se llama con el cerrojo de escritura.
+     */
+    private List<Videojuego> quitarVideojuegos(ConjuntoEnteros ids) {
+        List<Videojuego> quitados = videojuegos.quitarVarios(ids.aArray());
+        if (quitados.isEmpty()) {
+            return quitados;
+        }
+        idsVideojuegos.quitarTodos(ids);
+        indiceAnios.quitarVarios(ids);
+        List<String> titulos = new ArrayList<>(quitados.size());
+        ConjuntoEnteros desarrolladorasAfectadas = new ConjuntoEnteros();
+        for (Videojuego v : quitados) {
+            titulos.add(v.getTituloBusqueda());
+            diccionarioGeneros.quitar(v.getGenero(), v.getId());
+            desarrolladorasAfectadas.añadir(v.getIdDesarrolladora());
+        }
+        indiceTitulos.quitarVarios(ids, titulos);
+        for (int i = 0; i < desarrolladorasAfectadas.tamanio(); i++) {
+            int idDesarrolladora = desarrolladorasAfectadas.obtener(i);
+            ConjuntoEnteros deEsta = videojuegosPorDesarrolladora.obtener(idDesarrolladora);
+            if (deEsta != null) {
+                deEsta.quitarTodos(ids);
+                if (deEsta.estaVacio()) {
+                    videojuegosPorDesarrolladora.quitar(idDesarrolladora);
                 }
+            }
+        }
+        return quitados;
+    }
+
+    private void quitarDeDesarrolladora(int idDesarrolladora, int idVideojuego) {
+        ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(idDesarrolladora);
+        if (ids != null) {
+            ids.quitar(idVideojuego);
+            if (ids.estaVacio()) {
+                videojuegosPorDesarrolladora.quitar(idDesarrolladora);
+            }
+        }
+    }
+
+    // Guarda todas las listas en los archivos CSV y espera a que terminen de escribirse
+    public boolean guardarDatos() {
+        long inicio = metricas.empezar(Operacion.GUARDAR_DATOS);
+        try {
+            lanzarGuardado().join();
+            return true;
+        } catch (CompletionException e) {
+            System.err.println("Error al guardar los datos: " + e.getCause().getMessage());
+            return false;
+        } finally {
+            metricas.registrar(Operacion.GUARDAR_DATOS, inicio);
+        }
+    }
+
+    /**
+     * Guarda los datos sin bloquear. Aquí solo se rota el diario y se copian
+     * las listas; los CSV se escriben en el hilo de guardado. Los cambios que
+     * lleguen mientras tanto van al diario nuevo, de modo que no se pierden
+     * aunque el guardado falle.
+     */
+    public CompletableFuture<Void> guardarDatosEnSegundoPlano() {
+        long inicio = metricas.empezar(Operacion.GUARDAR_EN_SEGUNDO_PLANO);
+        try {
+            return lanzarGuardado();
+        } finally {
+            metricas.registrar(Operacion.GUARDAR_EN_SEGUNDO_PLANO, inicio);
+        }
+    }
+
+    private CompletableFuture<Void> lanzarGuardado() {
+        // con el cerrojo de lectura las consultas siguen mientras se copian las listas
+        long sello = cerrojo.readLock();
+        try {
+            return iniciarGuardado();
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    // hay que tener tomado el cerrojo (de lectura o de escritura) para que no entren cambios
+    private CompletableFuture<Void> iniciarGuardado() {
+        synchronized (cerrojoGuardado) {
+            if (cargaFallida != null) {
+                // los cambios siguen en el diario y se aplicarán cuando el archivo se pueda leer
+                return CompletableFuture.failedFuture(new IOException(
+                        "no se guarda porque " + cargaFallida + " no se pudo leer al arrancar"));
+            }
+            esperarGuardado();
+            try {
+                diario.rotar();
             } catch (IOException e) {
-                System.err.println("No se pudo leer el archivo de videojuegos.csv");
+                return CompletableFuture.failedFuture(e);
             }
+            // las dos listas son fotos fijas: los cambios posteriores no les afectan
+            List<Desarrolladora> copiaDesarrolladoras = desarrolladoras;
+            List<Videojuego> copiaVideojuegos = videojuegos.listar();
+            ultimoGuardado = System.nanoTime();
+            guardado = CompletableFuture.runAsync(
+                    () -> escribirGuardado(copiaDesarrolladoras, copiaVideojuegos), guardador);
+            return guardado;
         }
     }
 
-    // Guarda todas las listas en los archivos CSV
-    public void guardarDatos() {
-        // Guardar desarrolladoras
-        try (PrintWriter escritor = new PrintWriter(new OutputStreamWriter(new FileOutputStream(csv_desarrolladoras)))) {
-            for (Desarrolladora d : desarrolladoras) {
-                escritor.println(d.aTextoCSV());
+    // lo que hace el hilo de guardado
+    private void escribirGuardado(List<Desarrolladora> desarrolladoras, List<Videojuego> videojuegos) {
+        long inicio = System.nanoTime();
+        EventoGuardado evento = new EventoGuardado();
+        evento.begin();
+        boolean correcto = false;
+        try {
+            escribirInstantanea(desarrolladoras, videojuegos);
+            // los CSV ya contienen todo lo que había en el diario apartado
+            diario.terminarCompactacion();
+            correcto = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            metricas.registrarGuardado(inicio, correcto);
+            evento.end();
+            if (evento.shouldCommit()) {
+                evento.videojuegos = videojuegos.size();
+                evento.desarrolladoras = desarrolladoras.size();
+                evento.bytes = bytesDe(csv_desarrolladoras, csv_videojuegos, instantanea_binaria);
+                evento.correcto = correcto;
+                evento.commit();
             }
+        }
+    }
+
+    // segundos entre guardados automáticos mientras haya cambios, 0 para desactivarlo
+    public void configurarAutoguardado(long segundos) {
+        if (segundos < 0) {
+            throw new IllegalArgumentException("El intervalo de autoguardado no puede ser negativo.");
+        }
+        long sello = cerrojo.writeLock();
+        try {
+            this.intervaloAutoguardado = TimeUnit.SECONDS.toNanos(segundos);
+            this.ultimoGuardado = System.nanoTime();
+        } finally {
+            cerrojo.unlockWrite(sello);
+        }
+    }
+
+    private void escribirInstantanea(List<Desarrolladora> desarrolladoras, List<Videojuego> videojuegos)
+            throws IOException {
+        EscritorCSV.escribir(directorio.resolve(csv_desarrolladoras), desarrolladoras, Desarrolladora::aTextoCSV);
+        EscritorCSV.escribir(directorio.resolve(csv_videojuegos), videojuegos, Videojuego::aTextoCSV);
+        // la instantánea binaria se escribe después, así queda más reciente que los CSV
+        try {
+            InstantaneaBinaria.escribir(directorio.resolve(instantanea_binaria), desarrolladoras, videojuegos);
+        } catch (IOException | IllegalArgumentException e) {
+            // los CSV ya están guardados: sin instantánea el próximo arranque los lee a ellos
+            System.err.println("No se pudo escribir la instantánea binaria: " + e.getMessage());
+            Files.deleteIfExists(directorio.resolve(instantanea_binaria));
+        }
+    }
+
+    private void esperarGuardado() {
+        if (guardado == null) {
+            return;
+        }
+        try {
+            guardado.join();
+        } catch (CompletionException e) {
+            // ya se informó a quien pidió ese guardado; el diario apartado se conserva
+        }
+    }
+
+    // ========== DIARIO DE CAMBIOS ==========
+
+    private void apuntarVideojuego(Videojuego v) {
+        try {
+            diario.registrarVideojuego(v);
         } catch (IOException e) {
-            System.err.println("Error al guardar el archivo de desarrolladoras.");
+            System.err.println("No se pudo apuntar el cambio en el diario: " + e.getMessage());
         }
+        comprobarGuardado();
+    }
 
-        // Guardar videojuegos
-        try (PrintWriter escritor = new PrintWriter(new OutputStreamWriter(new FileOutputStream(csv_videojuegos)))) {
-            for (Videojuego v : videojuegos) {
-                escritor.println(v.aTextoCSV());
-            }
+    private void apuntarVideojuegos(List<Videojuego> lote) {
+        try {
+            diario.registrarVideojuegos(lote);
         } catch (IOException e) {
-            System.err.println("Error al guardar el archivo de videojuegos.");
+            System.err.println("No se pudo apuntar la importación en el diario: " + e.getMessage());
+        }
+        comprobarGuardado();
+    }
+
+    private void apuntarBajasVideojuegos(List<Videojuego> quitados) {
+        int[] ids = new int[quitados.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = quitados.get(i).getId();
+        }
+        try {
+            diario.registrarBajasVideojuegos(ids);
+        } catch (IOException e) {
+            System.err.println("No se pudo apuntar el cambio en el diario: " + e.getMessage());
+        }
+        comprobarGuardado();
+    }
+
+    private void apuntarBajaVideojuego(int id) {
+        try {
+            diario.registrarBajaVideojuego(id);
+        } catch (IOException e) {
+            System.err.println("No se pudo apuntar el cambio en el diario: " + e.getMessage());
+        }
+        comprobarGuardado();
+    }
+
+    private void apuntarDesarrolladora(Desarrolladora d) {
+        try {
+            diario.registrarDesarrolladora(d);
+        } catch (IOException e) {
+            System.err.println("No se pudo apuntar el cambio en el diario: " + e.getMessage());
+        }
+        comprobarGuardado();
+    }
+
+    private void apuntarDesarrolladoras(List<Desarrolladora> lote) {
+        try {
+            diario.registrarDesarrolladoras(lote);
+        } catch (IOException e) {
+            System.err.println("No se pudo apuntar la importación en el diario: " + e.getMessage());
+        }
+        comprobarGuardado();
+    }
+
+    private void apuntarBajaDesarrolladora(int id) {
+        try {
+            diario.registrarBajaDesarrolladora(id);
+        } catch (IOException e) {
+            System.err.println("No se pudo apuntar el cambio en el diario: " + e.getMessage());
+        }
+        comprobarGuardado();
+    }
+
+    /**
+     * Lanza un guardado en segundo plano si el diario ha crecido lo bastante o
+     * si ha pasado el intervalo de autoguardado. El umbral crece con el
+     * catálogo para que el coste de reescribir los CSV, repartido entre las
+     * operaciones, siga siendo constante. Se llama con el cerrojo de escritura.
+     */
+    private void comprobarGuardado() {
+        if (cargaFallida != null || guardado != null && !guardado.isDone()) {
+            return;
+        }
+        long registros = diario.registros();
+        boolean diarioGrande = registros >= Math.max(UMBRAL_COMPACTACION, videojuegos.tamanio());
+        boolean tocaAutoguardado = intervaloAutoguardado > 0 && registros > 0
+                && System.nanoTime() - ultimoGuardado >= intervaloAutoguardado;
+        if (diarioGrande || tocaAutoguardado) {
+            iniciarGuardado().exceptionally(e -> {
+                System.err.println("Error en el guardado automático: " + e.getMessage());
+                return null;
+            });
         }
     }
 
     // ========== MÉTODOS PARA DESARROLLADORAS ==========
 
-    public void agregarDesarrolladora(String nombre, String pais) {
-        Desarrolladora d = new Desarrolladora(siguienteIdDesarrolladora, nombre, pais);
-        desarrolladoras.add(d);
-        siguienteIdDesarrolladora++;
+    // devuelve la desarrolladora creada, con su ID
+    public Desarrolladora agregarDesarrolladora(String nombre, String pais) {
+        long inicio = metricas.empezar(Operacion.AGREGAR_DESARROLLADORA);
+        long sello = cerrojo.writeLock();
+        try {
+            // dentro del try para que las llamadas rechazadas también se cuenten
+            comprobarCampos(nombre, pais);
+            Desarrolladora d = new Desarrolladora(siguienteIdDesarrolladora.getAndIncrement(), nombre, pais);
+            indexarDesarrolladora(d);
+            apuntarDesarrolladora(d);
+            return d;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.AGREGAR_DESARROLLADORA, inicio);
+        }
     }
 
     public Desarrolladora obtenerDesarrolladoraPorId(int id) throws DesarrolladoraNoEncontradaException {
-        for (Desarrolladora d : desarrolladoras) {
-            if (d.getId() == id) {
-                return d;
-            }
+        long inicio = metricas.empezar(Operacion.OBTENER_DESARROLLADORA);
+        Desarrolladora d;
+        long sello = cerrojo.readLock();
+        try {
+            d = indiceDesarrolladoras.obtener(id);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.OBTENER_DESARROLLADORA, inicio);
+        }
+        if (d != null) {
+            return d;
         }
         throw new DesarrolladoraNoEncontradaException("No se encontró ninguna desarrolladora con ID: " + id);
     }
 
     public List<Desarrolladora> buscarDesarrolladorasPorNombre(String nombre)  {
+        long inicio = metricas.empezar(Operacion.BUSCAR_DESARROLLADORAS_POR_NOMBRE);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        String busqueda = TextoBusqueda.normalizar(nombre);
+        List<Desarrolladora> resultados;
+        long sello = cerrojo.readLock();
+        try {
+            resultados = desarrolladorasPorNombre(busqueda);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.BUSCAR_DESARROLLADORAS_POR_NOMBRE, inicio);
+        }
+        evento.terminar(Operacion.BUSCAR_DESARROLLADORAS_POR_NOMBRE, busqueda.length(), resultados.size());
+        return resultados;
+    }
+
+    private List<Desarrolladora> desarrolladorasPorNombre(String busqueda) {
         List<Desarrolladora> resultados = new ArrayList<>();
-        String busqueda = nombre.toLowerCase();
-        for (Desarrolladora d : desarrolladoras) {
-            if (d.getNombre().toLowerCase().contains(busqueda)) {
+        int[] candidatos = indiceNombres.candidatos(busqueda);
+        if (candidatos == null) {
+            // consulta demasiado corta para el índice: recorrido completo
+            for (Desarrolladora d : desarrolladoras) {
+                if (d.getNombreBusqueda().contains(busqueda)) {
+                    resultados.add(d);
+                }
+            }
+            return resultados;
+        }
+        for (int id : candidatos) {
+            Desarrolladora d = indiceDesarrolladoras.obtener(id);
+            if (d != null && d.getNombreBusqueda().contains(busqueda)) {
                 resultados.add(d);
             }
         }
@@ -137,153 +707,1307 @@ public class GestorDatos {
     }
 
     public void modificarDesarrolladora(int id, String nombre, String pais) throws DesarrolladoraNoEncontradaException {
-        for (Desarrolladora d : desarrolladoras) {
-            if (d.getId() == id) {
-                d.setNombre(nombre);
-                d.setPais(pais);
+        long inicio = metricas.empezar(Operacion.MODIFICAR_DESARROLLADORA);
+        long sello = cerrojo.writeLock();
+        try {
+            Desarrolladora d = indiceDesarrolladoras.obtener(id);
+            if (d != null) {
+                // se valida sobre una copia: si falla algo, la desarrolladora queda como estaba
+                Desarrolladora copia = new Desarrolladora(id, d.getNombre(), d.getPais());
+                copia.setNombre(nombre);
+                copia.setPais(pais);
+                reemplazarDesarrolladora(d, copia);
                 return;
             }
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.MODIFICAR_DESARROLLADORA, inicio);
         }
         throw new DesarrolladoraNoEncontradaException("No se encontró la desarrolladora para modificar.");
     }
 
+    // como modificarDesarrolladora, pero los campos a null se quedan como estaban; devuelve cómo queda
+    public Desarrolladora actualizarDesarrolladora(int id, String nombre, String pais)
+            throws DesarrolladoraNoEncontradaException {
+        long inicio = metricas.empezar(Operacion.ACTUALIZAR_DESARROLLADORA);
+        long sello = cerrojo.writeLock();
+        try {
+            Desarrolladora d = indiceDesarrolladoras.obtener(id);
+            if (d != null) {
+                Desarrolladora copia = new Desarrolladora(id, d.getNombre(), d.getPais());
+                if (nombre != null) {
+                    copia.setNombre(nombre);
+                }
+                if (pais != null) {
+                    copia.setPais(pais);
+                }
+                reemplazarDesarrolladora(d, copia);
+                return copia;
+            }
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ACTUALIZAR_DESARROLLADORA, inicio);
+        }
+        throw new DesarrolladoraNoEncontradaException("No se encontró la desarrolladora para modificar.");
+    }
+
+    // pone la copia ya validada en lugar de d; se llama con el cerrojo de escritura tomado
+    private void reemplazarDesarrolladora(Desarrolladora d, Desarrolladora copia) {
+        indiceNombres.quitar(d.getId(), d.getNombreBusqueda());
+        desarrolladoras = desarrolladoras.poner(posicionesDesarrolladoras.obtener(d.getId()), copia);
+        indiceDesarrolladoras.poner(d.getId(), copia);
+        indiceNombres.añadir(d.getId(), copia.getNombreBusqueda());
+        apuntarDesarrolladora(copia);
+    }
+
     public void eliminarDesarrolladora(int id) throws DesarrolladoraNoEncontradaException {
-        // Comprobar que no tenga videojuegos asociados
-        for (Videojuego v : videojuegos) {
-            if (v.getIdDesarrolladora() == id) {
+        long inicio = metricas.empezar(Operacion.ELIMINAR_DESARROLLADORA);
+        long sello = cerrojo.writeLock();
+        try {
+            // Comprobar que no tenga videojuegos asociados
+            if (videojuegosPorDesarrolladora.contiene(id)) {
                 throw new DesarrolladoraNoEncontradaException("No se puede eliminar, hay videojuegos asociados a esta desarrolladora,\nprimero se debe eliminar el videojuego.");
             }
-        }
-        // Eliminar la desarrolladora
-        for (int i = 0; i < desarrolladoras.size(); i++) {
-            if (desarrolladoras.get(i).getId() == id) {
-                desarrolladoras.remove(i);
+            // Eliminar la desarrolladora
+            Desarrolladora d = indiceDesarrolladoras.quitar(id);
+            if (d != null) {
+                quitarDeLista(id);
+                indiceNombres.quitar(id, d.getNombreBusqueda());
+                idsDesarrolladoras.quitar(id);
+                apuntarBajaDesarrolladora(id);
                 return;
             }
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ELIMINAR_DESARROLLADORA, inicio);
         }
         throw new DesarrolladoraNoEncontradaException("No se encontró la desarrolladora para eliminar.");
     }
 
+    // elimina la desarrolladora junto con todos sus videojuegos, devuelve cuántos se borraron
+    public int eliminarDesarrolladoraEnCascada(int id) throws DesarrolladoraNoEncontradaException {
+        long inicio = metricas.empezar(Operacion.ELIMINAR_DESARROLLADORA_EN_CASCADA);
+        long sello = cerrojo.writeLock();
+        try {
+            Desarrolladora d = indiceDesarrolladoras.quitar(id);
+            if (d == null) {
+                throw new DesarrolladoraNoEncontradaException("No se encontró la desarrolladora para eliminar.");
+            }
+            quitarDeLista(id);
+            indiceNombres.quitar(id, d.getNombreBusqueda());
+            idsDesarrolladoras.quitar(id);
+
+            int borrados = 0;
+            ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(id);
+            if (ids != null) {
+                // se copian porque quitarVideojuegos vacía este mismo conjunto del índice
+                List<Videojuego> quitados = quitarVideojuegos(ConjuntoEnteros.deOrdenados(ids.aArray()));
+                apuntarBajasVideojuegos(quitados);
+                borrados = quitados.size();
+            }
+            apuntarBajaDesarrolladora(id);
+            return borrados;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ELIMINAR_DESARROLLADORA_EN_CASCADA, inicio);
+        }
+    }
+
+    public int contarVideojuegosDeDesarrolladora(int idDesarrolladora) {
+        long inicio = metricas.empezar(Operacion.CONTAR_VIDEOJUEGOS_DE_DESARROLLADORA);
+        long sello = cerrojo.readLock();
+        try {
+            ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(idDesarrolladora);
+            return ids == null ? 0 : ids.tamanio();
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.CONTAR_VIDEOJUEGOS_DE_DESARROLLADORA, inicio);
+        }
+    }
+
+    // foto fija en O(1): no se puede modificar y no cambia con las operaciones posteriores
     public List<Desarrolladora> listarTodasLasDesarrolladoras() {
-        return new ArrayList<>(desarrolladoras);
+        long inicio = metricas.empezar(Operacion.LISTAR_DESARROLLADORAS);
+        long sello = cerrojo.readLock();
+        try {
+            return desarrolladoras;
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.LISTAR_DESARROLLADORAS, inicio);
+        }
     }
 
     // ========== MÉTODOS PARA VIDEOJUEGOS ==========
 
-    public void agregarVideojuego(String titulo, String genero, int anio, int idDesarrolladora) {
-        // validar que la desarrolladora exista
-        boolean existe = false;
-        for (Desarrolladora desarrolladora : desarrolladoras) {
-            if (desarrolladora.getId() == idDesarrolladora) {
-                existe = true;
-                break;
+    // devuelve el videojuego creado, con su ID
+    public Videojuego agregarVideojuego(String titulo, String genero, int anio, int idDesarrolladora) {
+        long inicio = metricas.empezar(Operacion.AGREGAR_VIDEOJUEGO);
+        long sello = cerrojo.writeLock();
+        try {
+            comprobarCampos(titulo, genero, anio, anioMaximo());
+            // validar que la desarrolladora exista
+            if (!indiceDesarrolladoras.contiene(idDesarrolladora)) {
+                throw new IllegalArgumentException("El ID de desarrolladora no existe. Cree la desarrolladora primero.");
             }
-        }
-        if (!existe) {
-            throw new IllegalArgumentException("El ID de desarrolladora no existe. Cree la desarrolladora primero.");
-        }
 
-        Videojuego v = new Videojuego(siguienteIdVideojuego, titulo, genero, anio, idDesarrolladora);
-        videojuegos.add(v);
-        siguienteIdVideojuego++;
+            Videojuego v = new Videojuego(siguienteIdVideojuego.getAndIncrement(), titulo, genero, anio, idDesarrolladora);
+            insertarVideojuego(v);
+            apuntarVideojuego(v);
+            return v;
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.AGREGAR_VIDEOJUEGO, inicio);
+        }
     }
 
     public Videojuego obtenerVideojuegoPorId(int id) throws VideojuegoNoEncontradoException {
-        for (Videojuego v : videojuegos) {
-            if (v.getId() == id) {
-                return v;
-            }
+        long inicio = metricas.empezar(Operacion.OBTENER_VIDEOJUEGO);
+        Videojuego v;
+        long sello = cerrojo.readLock();
+        try {
+            v = videojuegos.obtener(id);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.OBTENER_VIDEOJUEGO, inicio);
+        }
+        if (v != null) {
+            return v;
         }
         throw new VideojuegoNoEncontradoException("No se encontró ningún videojuego con ID: " + id);
     }
 
     public List<Videojuego> buscarVideojuegosPorTitulo(String titulo) {
+        long inicio = metricas.empezar(Operacion.BUSCAR_POR_TITULO);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
         List<Videojuego> resultados = new ArrayList<>();
-        String busqueda = titulo.toLowerCase();
-        for (Videojuego v : videojuegos) {
-            if (v.getTitulo().toLowerCase().contains(busqueda)) {
-                resultados.add(v);
+        String busqueda = TextoBusqueda.normalizar(titulo);
+        long sello = cerrojo.readLock();
+        try {
+            int[] candidatos = indiceTitulos.candidatos(busqueda);
+            if (candidatos == null) {
+                // consulta demasiado corta para el índice: recorrido de la columna de títulos
+                for (int id : videojuegos.filtrar((id, t, g, a, d) -> t.contains(busqueda))) {
+                    resultados.add(videojuegos.obtener(id));
+                }
+            } else {
+                for (int id : candidatos) {
+                    Videojuego v = videojuegos.obtener(id);
+                    if (v != null && v.getTituloBusqueda().contains(busqueda)) {
+                        resultados.add(v);
+                    }
+                }
             }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.BUSCAR_POR_TITULO, inicio);
         }
+        evento.terminar(Operacion.BUSCAR_POR_TITULO, busqueda.length(), resultados.size());
         return resultados;
     }
 
     public List<Videojuego> buscarVideojuegosPorGenero(String genero) {
+        long inicio = metricas.empezar(Operacion.BUSCAR_POR_GENERO);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
         List<Videojuego> resultados = new ArrayList<>();
-        String busqueda = genero.toLowerCase();
-        for (Videojuego v : videojuegos) {
-            if (v.getGenero().toLowerCase().contains(busqueda)) {
-                resultados.add(v);
+        String busqueda = TextoBusqueda.normalizar(genero);
+        long sello = cerrojo.readLock();
+        try {
+            // se compara con las entradas del diccionario y se unen sus mapas de bits
+            for (int id : diccionarioGeneros.buscar(busqueda).aArray()) {
+                resultados.add(videojuegos.obtener(id));
             }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.BUSCAR_POR_GENERO, inicio);
         }
+        evento.terminar(Operacion.BUSCAR_POR_GENERO, busqueda.length(), resultados.size());
+        return resultados;
+    }
+
+    // videojuegos lanzados entre dos años (ambos incluidos), ordenados por año
+    public List<Videojuego> buscarVideojuegosPorRangoAnio(int desde, int hasta) {
+        long inicio = metricas.empezar(Operacion.BUSCAR_POR_RANGO_ANIO);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        List<Videojuego> resultados;
+        long sello = cerrojo.readLock();
+        try {
+            if (desde > hasta) {
+                throw new IllegalArgumentException("El año inicial no puede ser mayor que el año final.");
+            }
+            int[] ids = indiceAnios.buscar(desde, hasta);
+            resultados = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                resultados.add(videojuegos.obtener(id));
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.BUSCAR_POR_RANGO_ANIO, inicio);
+        }
+        evento.terminar(Operacion.BUSCAR_POR_RANGO_ANIO, 0, resultados.size());
         return resultados;
     }
 
     //  combina videojuegos cuya desarrolladora contiene un nombre
     public List<Videojuego> buscarVideojuegosPorDesarrolladora(String nombreDesarrolladora) {
+        long inicio = metricas.empezar(Operacion.BUSCAR_POR_DESARROLLADORA);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
         List<Videojuego> resultados = new ArrayList<>();
-        String busqueda = nombreDesarrolladora.toLowerCase();
-        // Primero, encontrar desarrolladoras que coinciden
-        for (Desarrolladora d : desarrolladoras) {
-            if (d.getNombre().toLowerCase().contains(busqueda)) {
-                int idDesa = d.getId();
-                // Luego, buscar videojuegos con ese ID
-                for (Videojuego v : videojuegos) {
-                    if (v.getIdDesarrolladora() == idDesa) {
-                        resultados.add(v);
-                    }
+        String busqueda = TextoBusqueda.normalizar(nombreDesarrolladora);
+        long sello = cerrojo.readLock();
+        try {
+            // Primero, encontrar desarrolladoras que coinciden
+            for (Desarrolladora d : desarrolladorasPorNombre(busqueda)) {
+                // Luego, sacar sus videojuegos del índice inverso
+                ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(d.getId());
+                if (ids == null) {
+                    continue;
+                }
+                for (int i = 0; i < ids.tamanio(); i++) {
+                    resultados.add(videojuegos.obtener(ids.obtener(i)));
                 }
             }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.BUSCAR_POR_DESARROLLADORA, inicio);
         }
+        evento.terminar(Operacion.BUSCAR_POR_DESARROLLADORA, busqueda.length(), resultados.size());
         return resultados;
     }
 
     public void modificarVideojuego(int id, String titulo, String genero, int anio, int idDesarrolladora) throws VideojuegoNoEncontradoException {
-        // validar que la desarrolladora exista
-        boolean existeDesa = false;
-        for (Desarrolladora desarrolladora : desarrolladoras) {
-            if (desarrolladora.getId() == idDesarrolladora) {
-                existeDesa = true;
-                break;
+        long inicio = metricas.empezar(Operacion.MODIFICAR_VIDEOJUEGO);
+        long sello = cerrojo.writeLock();
+        try {
+            // validar que la desarrolladora exista
+            if (!indiceDesarrolladoras.contiene(idDesarrolladora)) {
+                throw new IllegalArgumentException("El ID de desarrolladora no existe.");
             }
-        }
-        if (!existeDesa) {
-            throw new IllegalArgumentException("El ID de desarrolladora no existe.");
-        }
 
-        for (Videojuego v : videojuegos) {
-            if (v.getId() == id) {
-                v.setTitulo(titulo);
-                v.setGenero(genero);
-                v.setAnio(anio);
-                v.setIdDesarrolladora(idDesarrolladora);
+            Videojuego v = videojuegos.obtener(id);
+            if (v != null) {
+                // se valida sobre una copia: si falla algo, el videojuego queda como estaba
+                Videojuego copia = copiar(v);
+                copia.setTitulo(titulo);
+                copia.setGenero(genero);
+                copia.setAnio(anio);
+                copia.setIdDesarrolladora(idDesarrolladora);
+                reemplazarVideojuego(v, copia);
                 return;
             }
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.MODIFICAR_VIDEOJUEGO, inicio);
+        }
+        throw new VideojuegoNoEncontradoException("No se encontró el videojuego para modificar.");
+    }
+
+    /**
+     * Como modificarVideojuego, pero los campos a null se quedan como
+     * estaban. Se leen y se cambian bajo el mismo cerrojo, así que dos
+     * cambios parciales a la vez no se pisan. Devuelve cómo queda.
+     */
+    public Videojuego actualizarVideojuego(int id, String titulo, String genero, Integer anio, Integer idDesarrolladora)
+            throws VideojuegoNoEncontradoException {
+        long inicio = metricas.empezar(Operacion.ACTUALIZAR_VIDEOJUEGO);
+        long sello = cerrojo.writeLock();
+        try {
+            if (idDesarrolladora != null && !indiceDesarrolladoras.contiene(idDesarrolladora)) {
+                throw new IllegalArgumentException("El ID de desarrolladora no existe.");
+            }
+
+            Videojuego v = videojuegos.obtener(id);
+            if (v != null) {
+                Videojuego copia = copiar(v);
+                if (titulo != null) {
+                    copia.setTitulo(titulo);
+                }
+                if (genero != null) {
+                    copia.setGenero(genero);
+                }
+                if (anio != null) {
+                    copia.setAnio(anio);
+                }
+                if (idDesarrolladora != null) {
+                    copia.setIdDesarrolladora(idDesarrolladora);
+                }
+                reemplazarVideojuego(v, copia);
+                return copia;
+            }
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ACTUALIZAR_VIDEOJUEGO, inicio);
         }
         throw new VideojuegoNoEncontradoException("No se encontró el videojuego para modificar.");
     }
 
+    private static Videojuego copiar(Videojuego v) {
+        return new Videojuego(v.getId(), v.getTitulo(), v.getTituloBusqueda(), v.getGenero(),
+                v.getGeneroBusqueda(), v.getAnio(), v.getIdDesarrolladora());
+    }
+
+    // pone la copia ya validada en lugar de v; se llama con el cerrojo de escritura tomado
+    private void reemplazarVideojuego(Videojuego v, Videojuego copia) {
+        desindexarCampos(v);
+        compartirGenero(copia);
+        videojuegos.actualizar(copia);
+        indexarCampos(copia);
+        apuntarVideojuego(copia);
+    }
+
     public void eliminarVideojuego(int id) throws VideojuegoNoEncontradoException {
-        for (int i = 0; i < videojuegos.size(); i++) {
-            if (videojuegos.get(i).getId() == id) {
-                videojuegos.remove(i);
+        long inicio = metricas.empezar(Operacion.ELIMINAR_VIDEOJUEGO);
+        long sello = cerrojo.writeLock();
+        try {
+            Videojuego v = videojuegos.quitar(id);
+            if (v != null) {
+                desindexarCampos(v);
+                idsVideojuegos.quitar(id);
+                apuntarBajaVideojuego(id);
                 return;
             }
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ELIMINAR_VIDEOJUEGO, inicio);
         }
         throw new VideojuegoNoEncontradoException("No se encontró el videojuego para eliminar.");
     }
 
+    // foto fija: no se puede modificar y no cambia con las operaciones posteriores.
+    // Es O(1) con AlmacenObjetos; AlmacenColumnar tiene que crear todos los objetos
     public List<Videojuego> listarTodosLosVideojuegos() {
-        return new ArrayList<>(videojuegos);
+        long inicio = metricas.empezar(Operacion.LISTAR_VIDEOJUEGOS);
+        long sello = cerrojo.readLock();
+        try {
+            return videojuegos.listar();
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.LISTAR_VIDEOJUEGOS, inicio);
+        }
     }
 
     //  mostrar el nombre real de la desarrolladora
     public String obtenerNombreDesarrolladora(int idDesarrolladora) {
-        for (Desarrolladora d : desarrolladoras) {
-            if (d.getId() == idDesarrolladora) {
-                return d.getNombre();
+        long inicio = metricas.empezar(Operacion.OBTENER_NOMBRE_DESARROLLADORA);
+        Desarrolladora d;
+        long sello = cerrojo.readLock();
+        try {
+            d = indiceDesarrolladoras.obtener(idDesarrolladora);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.OBTENER_NOMBRE_DESARROLLADORA, inicio);
+        }
+        if (d != null) {
+            return d.getNombre();
+        }
+        return nombreDesconocida(idDesarrolladora);
+    }
+
+    // nombres de las desarrolladoras de todos los videojuegos, en el mismo orden,
+    // resueltos de una vez con un solo bloqueo en lugar de uno por fila
+    public String[] obtenerNombresDesarrolladoras(List<Videojuego> videojuegos) {
+        long inicio = metricas.empezar(Operacion.OBTENER_NOMBRES_DESARROLLADORAS);
+        String[] nombres = new String[videojuegos.size()];
+        int idAnterior = 0;
+        String nombreAnterior = null;
+        long sello = cerrojo.readLock();
+        try {
+            for (int i = 0; i < nombres.length; i++) {
+                int id = videojuegos.get(i).getIdDesarrolladora();
+                // los resultados suelen traer seguidos los de la misma desarrolladora
+                if (nombreAnterior == null || id != idAnterior) {
+                    Desarrolladora d = indiceDesarrolladoras.obtener(id);
+                    idAnterior = id;
+                    nombreAnterior = d != null ? d.getNombre() : nombreDesconocida(id);
+                }
+                nombres[i] = nombreAnterior;
             }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.OBTENER_NOMBRES_DESARROLLADORAS, inicio);
         }
+        return nombres;
+    }
+
+    private static String nombreDesconocida(int idDesarrolladora) {
         return "Desconocida ID: " + idDesarrolladora;
     }
-}
\ No newline at end of file
+
+    // ========== OPERACIONES MASIVAS ==========
+    // Cada una devuelve cuántos videojuegos cambió; los métodos contar* dan
+    // el mismo número antes de aplicarla, para pedir confirmación.
+
+    public int eliminarVideojuegosDeDesarrolladora(int idDesarrolladora) throws DesarrolladoraNoEncontradaException {
+        long inicio = metricas.empezar(Operacion.ELIMINAR_VIDEOJUEGOS_DE_DESARROLLADORA);
+        long sello = cerrojo.writeLock();
+        try {
+            if (!indiceDesarrolladoras.contiene(idDesarrolladora)) {
+                throw new DesarrolladoraNoEncontradaException("No se encontró ninguna desarrolladora con ID: " + idDesarrolladora);
+            }
+            ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(idDesarrolladora);
+            if (ids == null) {
+                return 0;
+            }
+            List<Videojuego> quitados = quitarVideojuegos(ConjuntoEnteros.deOrdenados(ids.aArray()));
+            apuntarBajasVideojuegos(quitados);
+            return quitados.size();
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ELIMINAR_VIDEOJUEGOS_DE_DESARROLLADORA, inicio);
+        }
+    }
+
+    public int contarVideojuegosAnterioresA(int anio) {
+        long inicio = metricas.empezar(Operacion.CONTAR_ANTERIORES_A);
+        long sello = cerrojo.readLock();
+        try {
+            // no hay años anteriores al mínimo; así anio - 1 tampoco desborda con Integer.MIN_VALUE
+            if (anio <= ANIO_MINIMO) {
+                return 0;
+            }
+            return indiceAnios.contar(ANIO_MINIMO, anio - 1);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.CONTAR_ANTERIORES_A, inicio);
+        }
+    }
+
+    // borra los videojuegos lanzados antes de ese año (el año no se incluye)
+    public int eliminarVideojuegosAnterioresA(int anio) {
+        long inicio = metricas.empezar(Operacion.ELIMINAR_ANTERIORES_A);
+        long sello = cerrojo.writeLock();
+        try {
+            if (anio <= ANIO_MINIMO) {
+                return 0;
+            }
+            int[] ids = indiceAnios.buscar(ANIO_MINIMO, anio - 1);
+            if (ids.length == 0) {
+                return 0;
+            }
+            // el índice los devuelve por año
+            Arrays.sort(ids);
+            List<Videojuego> quitados = quitarVideojuegos(ConjuntoEnteros.deOrdenados(ids));
+            apuntarBajasVideojuegos(quitados);
+            return quitados.size();
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.ELIMINAR_ANTERIORES_A, inicio);
+        }
+    }
+
+    // videojuegos cuyo género contiene el texto, igual que en buscarVideojuegosPorGenero
+    public int contarVideojuegosPorGenero(String genero) {
+        long inicio = metricas.empezar(Operacion.CONTAR_POR_GENERO);
+        String busqueda = TextoBusqueda.normalizar(genero);
+        long sello = cerrojo.readLock();
+        try {
+            return diccionarioGeneros.buscar(busqueda).cardinalidad();
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.CONTAR_POR_GENERO, inicio);
+        }
+    }
+
+    /**
+     * Cambia a generoNuevo el género de todos los videojuegos cuyo género
+     * contiene el texto buscado (la misma coincidencia que la búsqueda por
+     * género). Solo cambia el diccionario de géneros; los demás índices no
+     * dependen del género.
+     */
+    public int cambiarGeneroDeVideojuegos(String genero, String generoNuevo) {
+        long inicio = metricas.empezar(Operacion.CAMBIAR_GENERO);
+        String busqueda = TextoBusqueda.normalizar(genero);
+        long sello = cerrojo.writeLock();
+        try {
+            if (generoNuevo == null || generoNuevo.isEmpty()) {
+                throw new IllegalArgumentException("El género no puede estar vacío.");
+            }
+            int[] ids = diccionarioGeneros.buscar(busqueda).aArray();
+            if (ids.length == 0) {
+                // sin coincidencias no se da de alta el género nuevo en el diccionario
+                return 0;
+            }
+            int codigoNuevo = diccionarioGeneros.codificar(generoNuevo);
+            String nuevo = diccionarioGeneros.genero(codigoNuevo);
+            String nuevoBusqueda = diccionarioGeneros.generoBusqueda(codigoNuevo);
+            List<Videojuego> cambiados = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Videojuego v = videojuegos.obtener(id);
+                if (v.getGenero().equals(nuevo)) {
+                    continue;
+                }
+                // copia con el género nuevo, igual que en modificarVideojuego
+                Videojuego copia = new Videojuego(id, v.getTitulo(), v.getTituloBusqueda(), nuevo, nuevoBusqueda,
+                        v.getAnio(), v.getIdDesarrolladora());
+                diccionarioGeneros.quitar(v.getGenero(), id);
+                diccionarioGeneros.añadir(codigoNuevo, id);
+                videojuegos.actualizar(copia);
+                cambiados.add(copia);
+            }
+            apuntarVideojuegos(cambiados);
+            return cambiados.size();
+        } finally {
+            cerrojo.unlockWrite(sello);
+            metricas.registrar(Operacion.CAMBIAR_GENERO, inicio);
+        }
+    }
+
+    // ========== IMPORTACIÓN MASIVA ==========
+    // Los CSV externos no llevan ID, se asignan al importar:
+    //   videojuegos:     titulo,genero,anio,idDesarrolladora
+    //   desarrolladoras: nombre,pais
+
+    public ResultadoImportacion importarVideojuegos(Path archivo) throws IOException {
+        long inicio = metricas.empezar(Operacion.IMPORTAR_VIDEOJUEGOS);
+        // el archivo se lee fuera del cerrojo; el try empieza aquí para contar también las importaciones fallidas
+        try {
+            // las claves foráneas se comprueban contra una copia ordenada de los IDs de desarrolladora
+            int[] idsValidos;
+            long sello = cerrojo.readLock();
+            try {
+                idsValidos = idsDesarrolladoras.aArray();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+            int anioMaximo = anioMaximo();
+            BloqueIds ids = new BloqueIds(siguienteIdVideojuego);
+            Lote<Videojuego> lote = leerLote(archivo, 4, registro -> {
+                String titulo = registro.texto(0);
+                String genero = registro.texto(1);
+                int anio = registro.entero(2);
+                int idDesarrolladora = registro.entero(3);
+                comprobarCampos(titulo, genero, anio, anioMaximo);
+                if (Arrays.binarySearch(idsValidos, idDesarrolladora) < 0) {
+                    throw new IllegalArgumentException("El ID de desarrolladora " + idDesarrolladora + " no existe.");
+                }
+                return new Videojuego(ids.siguiente(), titulo, genero, anio, idDesarrolladora);
+            });
+            ids.devolverSobrantes();
+
+            List<Videojuego> insertados = new ArrayList<>(lote.filas.size());
+            sello = cerrojo.writeLock();
+            try {
+                for (int i = 0; i < lote.filas.size(); i++) {
+                    Videojuego v = lote.filas.get(i);
+                    // la desarrolladora pudo borrarse mientras se leía el archivo
+                    if (!indiceDesarrolladoras.contiene(v.getIdDesarrolladora())) {
+                        lote.rechazar(lote.lineas[i], "El ID de desarrolladora " + v.getIdDesarrolladora() + " no existe.");
+                        continue;
+                    }
+                    insertarVideojuego(v);
+                    insertados.add(v);
+                }
+                apuntarVideojuegos(insertados);
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            return new ResultadoImportacion(insertados.size(), lote.rechazadas);
+        } finally {
+            metricas.registrar(Operacion.IMPORTAR_VIDEOJUEGOS, inicio);
+        }
+    }
+
+    public ResultadoImportacion importarDesarrolladoras(Path archivo) throws IOException {
+        long inicio = metricas.empezar(Operacion.IMPORTAR_DESARROLLADORAS);
+        try {
+            BloqueIds ids = new BloqueIds(siguienteIdDesarrolladora);
+            Lote<Desarrolladora> lote = leerLote(archivo, 2, registro -> {
+                String nombre = registro.texto(0);
+                String pais = registro.texto(1);
+                comprobarCampos(nombre, pais);
+                return new Desarrolladora(ids.siguiente(), nombre, pais);
+            });
+            ids.devolverSobrantes();
+
+            long sello = cerrojo.writeLock();
+            try {
+                for (Desarrolladora d : lote.filas) {
+                    indexarDesarrolladora(d);
+                }
+                apuntarDesarrolladoras(lote.filas);
+            } finally {
+                cerrojo.unlockWrite(sello);
+            }
+            return new ResultadoImportacion(lote.filas.size(), lote.rechazadas);
+        } finally {
+            metricas.registrar(Operacion.IMPORTAR_DESARROLLADORAS, inicio);
+        }
+    }
+
+    // las mismas comprobaciones que hacen los setters de las entidades
+    private static void comprobarCampos(String titulo, String genero, int anio, int anioMaximo) {
+        if (titulo == null || titulo.isEmpty()) {
+            throw new IllegalArgumentException("El título no puede estar vacío.");
+        }
+        if (genero == null || genero.isEmpty()) {
+            throw new IllegalArgumentException("El género no puede estar vacío.");
+        }
+        comprobarAnio(anio, anioMaximo);
+    }
+
+    private static void comprobarAnio(int anio, int anioMaximo) {
+        if (!anioValido(anio, anioMaximo)) {
+            throw new IllegalArgumentException("El año debe estar entre " + ANIO_MINIMO + " y " + anioMaximo + ".");
+        }
+    }
+
+    private static boolean anioValido(int anio, int anioMaximo) {
+        return anio >= ANIO_MINIMO && anio <= anioMaximo;
+    }
+
+    // el año actual + 1, como en Videojuego.setAnio
+    private static int anioMaximo() {
+        return java.time.Year.now().getValue() + 1;
+    }
+
+    private static void comprobarCampos(String nombre, String pais) {
+        if (nombre == null || nombre.isEmpty()) {
+            throw new IllegalArgumentException("El nombre no puede estar vacío.");
+        }
+        if (pais == null || pais.isEmpty()) {
+            throw new IllegalArgumentException("El país no puede estar vacío.");
+        }
+    }
+
+    // filas leídas de un CSV externo con su número de línea, y las rechazadas
+    private static final class Lote<T> {
+        final List<T> filas = new ArrayList<>();
+        long[] lineas = new long[64];
+        final List<String> rechazadas = new ArrayList<>();
+
+        void añadir(T fila, long linea) {
+            if (filas.size() == lineas.length) {
+                lineas = Arrays.copyOf(lineas, lineas.length * 2);
+            }
+            lineas[filas.size()] = linea;
+            filas.add(fila);
+        }
+
+        void rechazar(long linea, String motivo) {
+            rechazadas.add("Línea " + linea + ": " + motivo);
+        }
+    }
+
+    // una sola pasada por el archivo; cada fila se valida y se convierte nada más leerla
+    private static <T> Lote<T> leerLote(Path archivo, int numCampos, LectorCSV.Convertidor<T> convertidor)
+            throws IOException {
+        Lote<T> lote = new Lote<>();
+        new LectorCSV().leer(archivo, registro -> {
+            if (registro.estaRoto()) {
+                lote.rechazar(registro.numeroLinea(), "comillas sin cerrar.");
+                return;
+            }
+            if (registro.numCampos() != numCampos) {
+                lote.rechazar(registro.numeroLinea(), "se esperaban " + numCampos + " campos y hay " + registro.numCampos() + ".");
+                return;
+            }
+            try {
+                lote.añadir(convertidor.convertir(registro), registro.numeroLinea());
+            } catch (NumberFormatException e) {
+                lote.rechazar(registro.numeroLinea(), "número no válido.");
+            } catch (IllegalArgumentException e) {
+                lote.rechazar(registro.numeroLinea(), e.getMessage());
+            }
+        });
+        return lote;
+    }
+
+    /**
+     * Reparte IDs de un contador compartido reservándolos de BLOQUE_IDS en
+     * BLOQUE_IDS, así la importación no toca el contador en cada fila. Los
+     * que sobran del último bloque se devuelven si nadie ha reservado otros
+     * después; si no, quedan como un hueco en la numeración.
+     */
+    private static final class BloqueIds {
+        private final AtomicInteger contador;
+        private int siguiente;
+        private int fin;
+
+        BloqueIds(AtomicInteger contador) {
+            this.contador = contador;
+        }
+
+        int siguiente() {
+            if (siguiente == fin) {
+                siguiente = contador.getAndAdd(BLOQUE_IDS);
+                fin = siguiente + BLOQUE_IDS;
+            }
+            return siguiente++;
+        }
+
+        void devolverSobrantes() {
+            if (siguiente < fin) {
+                contador.compareAndSet(fin, siguiente);
+            }
+        }
+    }
+
+    // ========== PAGINACIÓN ==========
+    // Las páginas van ordenadas por ID y empiezan después del cursor
+    // (Pagina.INICIO para la primera). Solo se crean los objetos de la página.
+
+    public Pagina<Desarrolladora> listarDesarrolladoras(int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_DESARROLLADORAS);
+        long sello = cerrojo.readLock();
+        try {
+            comprobarLimite(limite);
+            List<Desarrolladora> elementos = new ArrayList<>();
+            for (int i = idsDesarrolladoras.posicionDespuesDe(despuesDeId); i < idsDesarrolladoras.tamanio(); i++) {
+                if (elementos.size() == limite) {
+                    return new Pagina<>(elementos, elementos.get(limite - 1).getId(), true);
+                }
+                elementos.add(indiceDesarrolladoras.obtener(idsDesarrolladoras.obtener(i)));
+            }
+            return new Pagina<>(elementos, elementos.isEmpty() ? despuesDeId : elementos.get(elementos.size() - 1).getId(), false);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_DESARROLLADORAS, inicio);
+        }
+    }
+
+    public Pagina<Videojuego> listarVideojuegos(int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_VIDEOJUEGOS);
+        long sello = cerrojo.readLock();
+        try {
+            comprobarLimite(limite);
+            return paginar(idsVideojuegos, despuesDeId, limite, v -> true);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_VIDEOJUEGOS, inicio);
+        }
+    }
+
+    public Pagina<Videojuego> buscarVideojuegosPorTitulo(String titulo, int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_POR_TITULO);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        String busqueda = TextoBusqueda.normalizar(titulo);
+        Predicate<Videojuego> coincide = v -> v.getTituloBusqueda().contains(busqueda);
+        Pagina<Videojuego> pagina;
+        long sello = cerrojo.readLock();
+        try {
+            comprobarLimite(limite);
+            int[] candidatos = indiceTitulos.candidatos(busqueda);
+            if (candidatos == null) {
+                // consulta demasiado corta para el índice: se recorren los IDs desde el cursor
+                pagina = paginar(idsVideojuegos, despuesDeId, limite, coincide);
+            } else {
+                pagina = paginar(candidatos, despuesDeId, limite, coincide);
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_POR_TITULO, inicio);
+        }
+        evento.terminar(Operacion.PAGINA_POR_TITULO, busqueda.length(), pagina.getElementos().size());
+        return pagina;
+    }
+
+    public Pagina<Videojuego> buscarVideojuegosPorGenero(String genero, int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_POR_GENERO);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        String busqueda = TextoBusqueda.normalizar(genero);
+        Pagina<Videojuego> pagina;
+        long sello = cerrojo.readLock();
+        try {
+            comprobarLimite(limite);
+            pagina = paginar(diccionarioGeneros.buscar(busqueda).aArray(), despuesDeId, limite, v -> true);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_POR_GENERO, inicio);
+        }
+        evento.terminar(Operacion.PAGINA_POR_GENERO, busqueda.length(), pagina.getElementos().size());
+        return pagina;
+    }
+
+    public Pagina<Videojuego> buscarVideojuegosPorRangoAnio(int desde, int hasta, int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_POR_RANGO_ANIO);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        Pagina<Videojuego> pagina;
+        long sello = cerrojo.readLock();
+        try {
+            comprobarLimite(limite);
+            if (desde > hasta) {
+                throw new IllegalArgumentException("El año inicial no puede ser mayor que el año final.");
+            }
+            // el índice los devuelve por año; para paginar por clave se ordenan por ID
+            int[] ids = indiceAnios.buscar(desde, hasta);
+            Arrays.sort(ids);
+            pagina = paginar(ids, despuesDeId, limite, v -> true);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_POR_RANGO_ANIO, inicio);
+        }
+        evento.terminar(Operacion.PAGINA_POR_RANGO_ANIO, 0, pagina.getElementos().size());
+        return pagina;
+    }
+
+    public Pagina<Videojuego> buscarVideojuegosPorDesarrolladora(String nombreDesarrolladora, int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_POR_DESARROLLADORA);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        String busqueda = TextoBusqueda.normalizar(nombreDesarrolladora);
+        Pagina<Videojuego> pagina;
+        long sello = cerrojo.readLock();
+        try {
+            comprobarLimite(limite);
+            pagina = paginar(idsDeDesarrolladoras(busqueda), despuesDeId, limite, v -> true);
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_POR_DESARROLLADORA, inicio);
+        }
+        evento.terminar(Operacion.PAGINA_POR_DESARROLLADORA, busqueda.length(), pagina.getElementos().size());
+        return pagina;
+    }
+
+    private static void comprobarLimite(int limite) {
+        if (limite < 1) {
+            throw new IllegalArgumentException("El tamaño de página debe ser al menos 1.");
+        }
+    }
+
+    // IDs de los videojuegos de las desarrolladoras cuyo nombre coincide, en orden
+    private int[] idsDeDesarrolladoras(String busqueda) {
+        ConjuntoEnteros ids = new ConjuntoEnteros();
+        for (Desarrolladora d : desarrolladorasPorNombre(busqueda)) {
+            ConjuntoEnteros deEsta = videojuegosPorDesarrolladora.obtener(d.getId());
+            if (deEsta == null) {
+                continue;
+            }
+            for (int i = 0; i < deEsta.tamanio(); i++) {
+                ids.añadir(deEsta.obtener(i));
+            }
+        }
+        return ids.aArray();
+    }
+
+    private Pagina<Videojuego> paginar(ConjuntoEnteros ids, int despuesDeId, int limite, Predicate<Videojuego> acepta) {
+        List<Videojuego> elementos = new ArrayList<>();
+        for (int i = ids.posicionDespuesDe(despuesDeId); i < ids.tamanio(); i++) {
+            if (añadirAPagina(elementos, ids.obtener(i), limite, acepta)) {
+                return new Pagina<>(elementos, elementos.get(limite - 1).getId(), true);
+            }
+        }
+        return new Pagina<>(elementos, elementos.isEmpty() ? despuesDeId : elementos.get(elementos.size() - 1).getId(), false);
+    }
+
+    private Pagina<Videojuego> paginar(int[] ids, int despuesDeId, int limite, Predicate<Videojuego> acepta) {
+        int inicio = Arrays.binarySearch(ids, despuesDeId);
+        inicio = inicio >= 0 ? inicio + 1 : -inicio - 1;
+        List<Videojuego> elementos = new ArrayList<>();
+        for (int i = inicio; i < ids.length; i++) {
+            if (añadirAPagina(elementos, ids[i], limite, acepta)) {
+                return new Pagina<>(elementos, elementos.get(limite - 1).getId(), true);
+            }
+        }
+        return new Pagina<>(elementos, elementos.isEmpty() ? despuesDeId : elementos.get(elementos.size() - 1).getId(), false);
+    }
+
+    // devuelve true si la página ya estaba llena y este videojuego sería el primero de la siguiente
+    private boolean añadirAPagina(List<Videojuego> elementos, int id, int limite, Predicate<Videojuego> acepta) {
+        Videojuego v = videojuegos.obtener(id);
+        if (v == null || !acepta.test(v)) {
+            return false;
+        }
+        if (elementos.size() == limite) {
+            return true;
+        }
+        elementos.add(v);
+        return false;
+    }
+
+    // ========== STREAMS ==========
+    // Los IDs candidatos se calculan al llamar; cada videojuego se lee al
+    // recorrer el Stream, así que refleja los cambios hechos entre medias.
+
+    public Stream<Videojuego> streamVideojuegos() {
+        long inicio = metricas.empezar(Operacion.STREAM_VIDEOJUEGOS);
+        long sello = cerrojo.readLock();
+        try {
+            // la lista es una foto fija, se puede recorrer sin cerrojo
+            return videojuegos.listar().stream();
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.STREAM_VIDEOJUEGOS, inicio);
+        }
+    }
+
+    public Stream<Videojuego> streamVideojuegosPorTitulo(String titulo) {
+        long inicio = metricas.empezar(Operacion.STREAM_POR_TITULO);
+        String busqueda = TextoBusqueda.normalizar(titulo);
+        Predicate<Videojuego> coincide = v -> v.getTituloBusqueda().contains(busqueda);
+        int[] candidatos;
+        List<Videojuego> todos = null;
+        long sello = cerrojo.readLock();
+        try {
+            candidatos = indiceTitulos.candidatos(busqueda);
+            if (candidatos == null) {
+                // consulta demasiado corta para el índice: se filtra la foto fija de todos
+                todos = videojuegos.listar();
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.STREAM_POR_TITULO, inicio);
+        }
+        if (candidatos == null) {
+            return todos.stream().filter(coincide);
+        }
+        return streamDeIds(candidatos).filter(coincide);
+    }
+
+    public Stream<Videojuego> streamVideojuegosPorGenero(String genero) {
+        long inicio = metricas.empezar(Operacion.STREAM_POR_GENERO);
+        String busqueda = TextoBusqueda.normalizar(genero);
+        long sello = cerrojo.readLock();
+        try {
+            return streamDeIds(diccionarioGeneros.buscar(busqueda).aArray());
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.STREAM_POR_GENERO, inicio);
+        }
+    }
+
+    public Stream<Videojuego> streamVideojuegosPorRangoAnio(int desde, int hasta) {
+        long inicio = metricas.empezar(Operacion.STREAM_POR_RANGO_ANIO);
+        long sello = cerrojo.readLock();
+        try {
+            if (desde > hasta) {
+                throw new IllegalArgumentException("El año inicial no puede ser mayor que el año final.");
+            }
+            return streamDeIds(indiceAnios.buscar(desde, hasta));
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.STREAM_POR_RANGO_ANIO, inicio);
+        }
+    }
+
+    public Stream<Videojuego> streamVideojuegosPorDesarrolladora(String nombreDesarrolladora) {
+        long inicio = metricas.empezar(Operacion.STREAM_POR_DESARROLLADORA);
+        String busqueda = TextoBusqueda.normalizar(nombreDesarrolladora);
+        long sello = cerrojo.readLock();
+        try {
+            return streamDeIds(idsDeDesarrolladoras(busqueda));
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.STREAM_POR_DESARROLLADORA, inicio);
+        }
+    }
+
+    // los borrados mientras se recorre el Stream se saltan
+    private Stream<Videojuego> streamDeIds(int[] ids) {
+        return Arrays.stream(ids).mapToObj(this::leerVideojuego).filter(Objects::nonNull);
+    }
+
+    private Videojuego leerVideojuego(int id) {
+        long sello = cerrojo.readLock();
+        try {
+            return videojuegos.obtener(id);
+        } finally {
+            cerrojo.unlockRead(sello);
+        }
+    }
+
+    // ========== CONSULTAS COMPUESTAS ==========
+    // El plan se hace con los índices del momento, bajo el mismo cerrojo de
+    // lectura con el que se ejecuta.
+
+    public List<Videojuego> buscarVideojuegos(Consulta consulta) {
+        long inicio = metricas.empezar(Operacion.BUSCAR_CONSULTA);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        List<Videojuego> resultados = new ArrayList<>();
+        long sello = cerrojo.readLock();
+        try {
+            comprobarConsulta(consulta);
+            PlanConsulta plan = consulta.planificar(indicesConsulta);
+            int[] candidatos = plan.candidatos();
+            if (candidatos == null) {
+                // ningún índice descarta lo bastante: recorrido de las columnas
+                for (int id : videojuegos.filtrar(plan)) {
+                    resultados.add(videojuegos.obtener(id));
+                }
+            } else {
+                for (int id : candidatos) {
+                    Videojuego v = videojuegos.obtener(id);
+                    if (v != null && plan.acepta(v)) {
+                        resultados.add(v);
+                    }
+                }
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.BUSCAR_CONSULTA, inicio);
+        }
+        evento.terminar(Operacion.BUSCAR_CONSULTA, 0, resultados.size());
+        return resultados;
+    }
+
+    public Pagina<Videojuego> buscarVideojuegos(Consulta consulta, int despuesDeId, int limite) {
+        long inicio = metricas.empezar(Operacion.PAGINA_CONSULTA);
+        EventoBusqueda evento = new EventoBusqueda();
+        evento.begin();
+        Pagina<Videojuego> pagina;
+        long sello = cerrojo.readLock();
+        try {
+            comprobarConsulta(consulta);
+            comprobarLimite(limite);
+            PlanConsulta plan = consulta.planificar(indicesConsulta);
+            int[] candidatos = plan.candidatos();
+            if (candidatos == null) {
+                pagina = paginar(idsVideojuegos, despuesDeId, limite, plan::acepta);
+            } else {
+                pagina = paginar(candidatos, despuesDeId, limite, plan::acepta);
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.PAGINA_CONSULTA, inicio);
+        }
+        evento.terminar(Operacion.PAGINA_CONSULTA, 0, pagina.getElementos().size());
+        return pagina;
+    }
+
+    // el plan solo guarda textos y conjuntos propios, así que puede filtrar sin cerrojo
+    public Stream<Videojuego> streamVideojuegos(Consulta consulta) {
+        long inicio = metricas.empezar(Operacion.STREAM_CONSULTA);
+        PlanConsulta plan;
+        int[] candidatos;
+        List<Videojuego> todos = null;
+        long sello = cerrojo.readLock();
+        try {
+            comprobarConsulta(consulta);
+            plan = consulta.planificar(indicesConsulta);
+            candidatos = plan.candidatos();
+            if (candidatos == null) {
+                todos = videojuegos.listar();
+            }
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.STREAM_CONSULTA, inicio);
+        }
+        if (candidatos == null) {
+            return todos.stream().filter(plan::acepta);
+        }
+        return streamDeIds(candidatos).filter(plan::acepta);
+    }
+
+    // el plan que seguiría buscarVideojuegos ahora mismo, sin ejecutarlo
+    public String explicarConsulta(Consulta consulta) {
+        long inicio = metricas.empezar(Operacion.EXPLICAR_CONSULTA);
+        long sello = cerrojo.readLock();
+        try {
+            comprobarConsulta(consulta);
+            return consulta.planificar(indicesConsulta).explicar();
+        } finally {
+            cerrojo.unlockRead(sello);
+            metricas.registrar(Operacion.EXPLICAR_CONSULTA, inicio);
+        }
+    }
+
+    private static void comprobarConsulta(Consulta consulta) {
+        if (consulta == null) {
+            throw new IllegalArgumentException("La consulta no puede ser nula.");
+        }
+    }
+
+    // los índices tal como los usa PlanConsulta; se llama siempre con el cerrojo de lectura tomado
+    private final class AccesoIndices implements IndicesConsulta {
+
+        @Override
+        public int totalVideojuegos() {
+            return videojuegos.tamanio();
+        }
+
+        @Override
+        public boolean existeVideojuego(int id) {
+            return videojuegos.contiene(id);
+        }
+
+        @Override
+        public int maximoCandidatosTitulo(String busqueda) {
+            return indiceTitulos.maximoCandidatos(busqueda);
+        }
+
+        @Override
+        public int[] candidatosTitulo(String busqueda) {
+            return indiceTitulos.candidatos(busqueda);
+        }
+
+        @Override
+        public int contarGenero(String busqueda) {
+            return diccionarioGeneros.contar(busqueda);
+        }
+
+        @Override
+        public int[] videojuegosDeGenero(String busqueda) {
+            return diccionarioGeneros.buscar(busqueda).aArray();
+        }
+
+        @Override
+        public int contarAnios(int desde, int hasta) {
+            return indiceAnios.contar(desde, hasta);
+        }
+
+        @Override
+        public int[] videojuegosEntreAnios(int desde, int hasta) {
+            // el índice los devuelve por año
+            int[] ids = indiceAnios.buscar(desde, hasta);
+            Arrays.sort(ids);
+            return ids;
+        }
+
+        @Override
+        public int contarVideojuegosDe(int idDesarrolladora) {
+            ConjuntoEnteros ids = videojuegosPorDesarrolladora.obtener(idDesarrolladora);
+            return ids == null ? 0 : ids.tamanio();
+        }
+
+        @Override
+        public int[] videojuegosDe(ConjuntoEnteros idsDesarrolladoras) {
+            int tamanio = 0;
+            for (int i = 0; i < idsDesarrolladoras.tamanio(); i++) {
+                tamanio += contarVideojuegosDe(idsDesarrolladoras.obtener(i));
+            }
+            int[] resultado = new int[tamanio];
+            int n = 0;
+            for (int i = 0; i < idsDesarrolladoras.tamanio(); i++) {
+                ConjuntoEnteros deEsta = videojuegosPorDesarrolladora.obtener(idsDesarrolladoras.obtener(i));
+                if (deEsta == null) {
+                    continue;
+                }
+                for (int j = 0; j < deEsta.tamanio(); j++) {
+                    resultado[n++] = deEsta.obtener(j);
+                }
+            }
+            // cada videojuego es de una sola desarrolladora: no hay repetidos
+            Arrays.sort(resultado);
+            return resultado;
+        }
+
+        @Override
+        public List<Desarrolladora> desarrolladorasPorNombre(String busqueda) {
+            return GestorDatos.this.desarrolladorasPorNombre(busqueda);
+        }
+
+        @Override
+        public List<Desarrolladora> desarrolladorasPorPais(String busqueda) {
+            // el país no tiene índice, pero hay muchas menos desarrolladoras que videojuegos
+            List<Desarrolladora> resultados = new ArrayList<>();
+            for (Desarrolladora d : desarrolladoras) {
+                if (d.getPaisBusqueda().contains(busqueda)) {
+                    resultados.add(d);
+                }
+            }
+            return resultados;
+        }
+    }
+
+    // ========== MÉTRICAS ==========
+
+    // lo que se publica por JMX; cada lectura toma un momento el cerrojo de lectura
+    private final class Estado implements EstadoGestorMXBean {
+
+        @Override
+        public int getVideojuegos() {
+            long sello = cerrojo.readLock();
+            try {
+                return videojuegos.tamanio();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public int getDesarrolladoras() {
+            long sello = cerrojo.readLock();
+            try {
+                return desarrolladoras.size();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public int getDesarrolladorasConVideojuegos() {
+            long sello = cerrojo.readLock();
+            try {
+                return videojuegosPorDesarrolladora.tamanio();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public int getGeneros() {
+            long sello = cerrojo.readLock();
+            try {
+                return diccionarioGeneros.tamanio();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public int getTrigramasTitulos() {
+            long sello = cerrojo.readLock();
+            try {
+                return indiceTitulos.tamanio();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public int getTrigramasNombres() {
+            long sello = cerrojo.readLock();
+            try {
+                return indiceNombres.tamanio();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public long getRegistrosDiario() {
+            long sello = cerrojo.readLock();
+            try {
+                return diario.registros();
+            } finally {
+                cerrojo.unlockRead(sello);
+            }
+        }
+
+        @Override
+        public String getAlmacen() {
+            return videojuegos.getClass().getSimpleName();
+        }
+
+        @Override
+        public String getDirectorio() {
+            return directorio.toAbsolutePath().toString();
+        }
+
+        @Override
+        public double getUltimoGuardadoMillis() {
+            return metricas.getUltimoGuardadoMillis();
+        }
+
+        @Override
+        public long getSegundosDesdeUltimoGuardado() {
+            return metricas.getSegundosDesdeUltimoGuardado();
+        }
+
+        @Override
+        public long getGuardadosFallidos() {
+            return metricas.getGuardadosFallidos();
+        }
+
+        @Override
+        public void reiniciarMetricas() {
+            metricas.reiniciar();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package Gestion;
+
+import Entidades.Desarrolladora;
+import Indices.ConjuntoEnteros;
+import java.util.List;
+
+
+/**
+ * Lo que necesita una Consulta de los índices de GestorDatos para hacer su
+ * plan: cuántos videojuegos devolvería cada índice (sin recorrer filas) y
+ * los IDs en sí cuando el plan decide usarlo.
+ *
+ * Todos los métodos se llaman con el cerrojo de lectura de GestorDatos
+ * tomado. Los textos llegan ya normalizados y las listas de IDs se
+ * devuelven en orden ascendente.
+ */
+
+interface IndicesConsulta {
+
+    int totalVideojuegos();
+
+    boolean existeVideojuego(int id);
+
+    // cota superior de los candidatos por título, -1 si el texto es demasiado corto para el índice
+    int maximoCandidatosTitulo(String busqueda);
+
+    // candidatos por título (hay que verificarlos), null si el texto es demasiado corto
+    int[] candidatosTitulo(String busqueda);
+
+    int contarGenero(String busqueda);
+
+    int[] videojuegosDeGenero(String busqueda);
+
+    int contarAnios(int desde, int hasta);
+
+    int[] videojuegosEntreAnios(int desde, int hasta);
+
+    int contarVideojuegosDe(int idDesarrolladora);
+
+    int[] videojuegosDe(ConjuntoEnteros idsDesarrolladoras);
+
+    List<Desarrolladora> desarrolladorasPorNombre(String busqueda);
+
+    List<Desarrolladora> desarrolladorasPorPais(String busqueda);
+}
@@ -0,0 +1,113 @@
+package Gestion;
+
+import Metricas.MedidorOperacion;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+
+/**
+ * Métricas de un GestorDatos: un MedidorOperacion por cada Operacion y los
+ * datos del último guardado. Registrar una llamada no toma cerrojos.
+ *
+ * publicar() las registra en el servidor de MBeans de la plataforma, donde
+ * las ve jconsole, VisualVM o cualquier monitorización por JMX:
+ *
+ *   ProyectoAD:type=GestorDatos                  estado (EstadoGestorMXBean)
+ *   ProyectoAD:type=Operacion,name=<método>      latencias de esa operación
+ *
+ * Si ya había otro gestor publicado con esos nombres se sustituye: el
+ * programa usa uno solo, y así uno que se vuelve a crear (en las pruebas de
+ * carga, por ejemplo) no deja al anterior retenido por el servidor de MBeans.
+ */
+
+final class MetricasGestor {
+
+    static final String DOMINIO = "ProyectoAD";
+
+    private final MedidorOperacion[] medidores;
+    // nanosegundos; -1 mientras no haya terminado ningún guardado
+    private volatile long duracionUltimoGuardado = -1;
+    // System.nanoTime() del último guardado correcto
+    private volatile long finUltimoGuardado;
+    private volatile boolean hayGuardadoCorrecto;
+    private final LongAdder guardadosFallidos = new LongAdder();
+
+
+    MetricasGestor() {
+        Operacion[] operaciones = Operacion.values();
+        medidores = new MedidorOperacion[operaciones.length];
+        for (Operacion o : operaciones) {
+            medidores[o.ordinal()] = new MedidorOperacion(o.getNombre(), o.getMuestreo());
+        }
+    }
+
+    // se llama al empezar la operación y lo que devuelve se pasa a registrar al terminar
+    long empezar(Operacion operacion) {
+        return medidores[operacion.ordinal()].empezar();
+    }
+
+    void registrar(Operacion operacion, long inicio) {
+        medidores[operacion.ordinal()].registrar(inicio);
+    }
+
+    // lo llama el hilo de guardado al terminar de escribir los archivos; inicio es su System.nanoTime()
+    void registrarGuardado(long inicio, boolean correcto) {
+        long fin = System.nanoTime();
+        registrar(Operacion.ESCRIBIR_GUARDADO, inicio);
+        duracionUltimoGuardado = fin - inicio;
+        if (correcto) {
+            finUltimoGuardado = fin;
+            hayGuardadoCorrecto = true;
+        } else {
+            guardadosFallidos.increment();
+        }
+    }
+
+    double getUltimoGuardadoMillis() {
+        long duracion = duracionUltimoGuardado;
+        return duracion < 0 ? -1 : duracion / 1_000_000.0;
+    }
+
+    long getSegundosDesdeUltimoGuardado() {
+        if (!hayGuardadoCorrecto) {
+            return -1;
+        }
+        return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - finUltimoGuardado);
+    }
+
+    long getGuardadosFallidos() {
+        return guardadosFallidos.sum();
+    }
+
+    void reiniciar() {
+        for (MedidorOperacion m : medidores) {
+            m.reiniciar();
+        }
+    }
+
+    // los fallos se avisan por la salida de error: sin JMX el gestor funciona igual
+    void publicar(EstadoGestorMXBean estado) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            synchronized (MetricasGestor.class) {
+                sustituir(servidor, new ObjectName(DOMINIO + ":type=GestorDatos"), estado);
+                for (MedidorOperacion m : medidores) {
+                    sustituir(servidor, new ObjectName(DOMINIO + ":type=Operacion,name=" + m.getNombre()), m);
+                }
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("No se pudieron publicar las métricas por JMX: " + e.getMessage());
+        }
+    }
+
+    private static void sustituir(MBeanServer servidor, ObjectName nombre, Object mbean) throws JMException {
+        if (servidor.isRegistered(nombre)) {
+            servidor.unregisterMBean(nombre);
+        }
+        servidor.registerMBean(mbean, nombre);
+    }
+}
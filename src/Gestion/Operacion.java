@@ -0,0 +1,94 @@
+package Gestion;
+
+
+/**
+ * Operaciones de GestorDatos que se miden, con el nombre con el que se
+ * publican por JMX (el del método; las versiones paginadas llevan además
+ * un sufijo para distinguirlas de la lista completa).
+ *
+ * Las que no dependen del tamaño del catálogo (leer por ID, devolver la
+ * foto fija de una lista) tardan menos que leer el reloj dos veces, así que
+ * de ellas solo se mide una llamada de cada MUESTREO_BARATAS.
+ */
+
+enum Operacion {
+    CARGAR_DATOS("cargarDatos"),
+    GUARDAR_DATOS("guardarDatos"),
+    GUARDAR_EN_SEGUNDO_PLANO("guardarDatosEnSegundoPlano"),
+    // lo que tarda el hilo de guardado en escribir los archivos, también en los automáticos
+    ESCRIBIR_GUARDADO("escrituraGuardado"),
+
+    AGREGAR_DESARROLLADORA("agregarDesarrolladora"),
+    OBTENER_DESARROLLADORA("obtenerDesarrolladoraPorId", true),
+    BUSCAR_DESARROLLADORAS_POR_NOMBRE("buscarDesarrolladorasPorNombre"),
+    MODIFICAR_DESARROLLADORA("modificarDesarrolladora"),
+    ACTUALIZAR_DESARROLLADORA("actualizarDesarrolladora"),
+    ELIMINAR_DESARROLLADORA("eliminarDesarrolladora"),
+    ELIMINAR_DESARROLLADORA_EN_CASCADA("eliminarDesarrolladoraEnCascada"),
+    CONTAR_VIDEOJUEGOS_DE_DESARROLLADORA("contarVideojuegosDeDesarrolladora", true),
+    LISTAR_DESARROLLADORAS("listarTodasLasDesarrolladoras", true),
+
+    AGREGAR_VIDEOJUEGO("agregarVideojuego"),
+    OBTENER_VIDEOJUEGO("obtenerVideojuegoPorId", true),
+    BUSCAR_POR_TITULO("buscarVideojuegosPorTitulo"),
+    BUSCAR_POR_GENERO("buscarVideojuegosPorGenero"),
+    BUSCAR_POR_RANGO_ANIO("buscarVideojuegosPorRangoAnio"),
+    BUSCAR_POR_DESARROLLADORA("buscarVideojuegosPorDesarrolladora"),
+    MODIFICAR_VIDEOJUEGO("modificarVideojuego"),
+    ACTUALIZAR_VIDEOJUEGO("actualizarVideojuego"),
+    ELIMINAR_VIDEOJUEGO("eliminarVideojuego"),
+    LISTAR_VIDEOJUEGOS("listarTodosLosVideojuegos", true),
+    OBTENER_NOMBRE_DESARROLLADORA("obtenerNombreDesarrolladora", true),
+    OBTENER_NOMBRES_DESARROLLADORAS("obtenerNombresDesarrolladoras"),
+
+    ELIMINAR_VIDEOJUEGOS_DE_DESARROLLADORA("eliminarVideojuegosDeDesarrolladora"),
+    CONTAR_ANTERIORES_A("contarVideojuegosAnterioresA"),
+    ELIMINAR_ANTERIORES_A("eliminarVideojuegosAnterioresA"),
+    CONTAR_POR_GENERO("contarVideojuegosPorGenero"),
+    CAMBIAR_GENERO("cambiarGeneroDeVideojuegos"),
+
+    IMPORTAR_VIDEOJUEGOS("importarVideojuegos"),
+    IMPORTAR_DESARROLLADORAS("importarDesarrolladoras"),
+
+    PAGINA_DESARROLLADORAS("listarDesarrolladoras"),
+    PAGINA_VIDEOJUEGOS("listarVideojuegos"),
+    PAGINA_POR_TITULO("buscarVideojuegosPorTituloPaginado"),
+    PAGINA_POR_GENERO("buscarVideojuegosPorGeneroPaginado"),
+    PAGINA_POR_RANGO_ANIO("buscarVideojuegosPorRangoAnioPaginado"),
+    PAGINA_POR_DESARROLLADORA("buscarVideojuegosPorDesarrolladoraPaginado"),
+
+    // solo se mide el cálculo de los candidatos, no el recorrido del Stream
+    STREAM_VIDEOJUEGOS("streamVideojuegos", true),
+    STREAM_POR_TITULO("streamVideojuegosPorTitulo"),
+    STREAM_POR_GENERO("streamVideojuegosPorGenero"),
+    STREAM_POR_RANGO_ANIO("streamVideojuegosPorRangoAnio"),
+    STREAM_POR_DESARROLLADORA("streamVideojuegosPorDesarrolladora"),
+
+    BUSCAR_CONSULTA("buscarVideojuegos"),
+    PAGINA_CONSULTA("buscarVideojuegosPaginado"),
+    STREAM_CONSULTA("streamVideojuegosConConsulta"),
+    EXPLICAR_CONSULTA("explicarConsulta");
+
+    private static final int MUESTREO_BARATAS = 16;
+
+    private final String nombre;
+    private final boolean barata;
+
+    Operacion(String nombre) {
+        this(nombre, false);
+    }
+
+    Operacion(String nombre, boolean barata) {
+        this.nombre = nombre;
+        this.barata = barata;
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    // de cuántas llamadas se mide una
+    int getMuestreo() {
+        return barata ? MUESTREO_BARATAS : 1;
+    }
+}
@@ -0,0 +1,48 @@
+package Gestion;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Una página de resultados ordenados por ID.
+ *
+ * Para pedir la página siguiente se pasa getCursorSiguiente() como
+ * "despuesDeId": la consulta continúa a partir de ese ID (paginación por
+ * clave), así que no se salta ni se repite ningún resultado aunque entre
+ * página y página se añadan o borren filas anteriores.
+ */
+
+public final class Pagina<T> {
+
+    // cursor para pedir la primera página
+    public static final int INICIO = Integer.MIN_VALUE;
+
+    private final List<T> elementos;
+    private final int cursorSiguiente;
+    private final boolean haySiguiente;
+
+
+    Pagina(List<T> elementos, int cursorSiguiente, boolean haySiguiente) {
+        this.elementos = Collections.unmodifiableList(elementos);
+        this.cursorSiguiente = cursorSiguiente;
+        this.haySiguiente = haySiguiente;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    // ID del último elemento de la página
+    public int getCursorSiguiente() {
+        return cursorSiguiente;
+    }
+
+    public boolean haySiguiente() {
+        return haySiguiente;
+    }
+
+    public boolean estaVacia() {
+        return elementos.isEmpty();
+    }
+}
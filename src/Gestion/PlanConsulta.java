@@ -0,0 +1,254 @@
+package Gestion;
+
+import Entidades.Videojuego;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.Supplier;
+
+
+/**
+ * Plan de ejecución de una Consulta, hecho con los índices del momento.
+ *
+ * Cada nodo estima cuántos videojuegos pueden cumplirlo como mucho (con los
+ * tamaños de los índices, sin recorrer filas), da los IDs candidatos de su
+ * índice cuando se le piden y comprueba una fila con sus campos, sin crear
+ * el objeto Videojuego.
+ *
+ * En un "y" solo se piden los candidatos al criterio más selectivo; los
+ * demás se comprueban fila a fila, de más a menos selectivo para descartar
+ * cuanto antes; si algún criterio no lo cumple nadie, ni se miran los
+ * demás. En un "o" se unen los candidatos de todas las ramas y se prueban
+ * de la más a la menos probable.
+ *
+ * Si el mejor índice devuelve más de la mitad del catálogo, o en un "o"
+ * alguna rama no tiene índice, se recorren todas las filas: sale más barato
+ * que leerlas una a una por ID.
+ */
+
+abstract class PlanConsulta implements AlmacenVideojuegos.FiltroFila {
+
+    private final String descripcion;
+    // como mucho cuántos videojuegos pueden cumplirlo
+    final int estimacion;
+    // videojuegos del catálogo al hacer el plan
+    final int total;
+
+
+    PlanConsulta(String descripcion, int estimacion, int total) {
+        this.descripcion = descripcion;
+        this.estimacion = estimacion;
+        this.total = total;
+    }
+
+    // true si candidatos() saca los IDs de algún índice, false si hay que recorrer todas las filas
+    abstract boolean usaIndice();
+
+    /**
+     * IDs que pueden cumplirlo, en orden ascendente, o null si conviene
+     * recorrer todas las filas. Puede dar de más: cada uno se comprueba
+     * después con acepta. Se llama con el cerrojo de lectura tomado.
+     */
+    abstract int[] candidatos();
+
+    final boolean acepta(Videojuego v) {
+        return acepta(v.getId(), v.getTituloBusqueda(), v.getGeneroBusqueda(), v.getAnio(), v.getIdDesarrolladora());
+    }
+
+    // un índice que devuelve más de la mitad del catálogo no ahorra nada frente a recorrerlo
+    final boolean compensaIndice() {
+        return estimacion <= total / 2;
+    }
+
+    // el plan en texto, una línea por criterio con su estimación
+    final String explicar() {
+        StringBuilder texto = new StringBuilder();
+        if (usaIndice()) {
+            texto.append("Acceso por índice: como mucho ").append(estimacion)
+                    .append(" de ").append(total).append(" videojuegos\n");
+        } else {
+            texto.append("Recorrido completo de los ").append(total).append(" videojuegos\n");
+        }
+        explicar(texto, "  ", usaIndice());
+        return texto.toString();
+    }
+
+    // 'conductor' marca los nodos de los que salen los candidatos
+    void explicar(StringBuilder texto, String sangria, boolean conductor) {
+        texto.append(sangria).append(descripcion).append("  [").append(estimacion).append(']');
+        if (conductor) {
+            texto.append("  <- candidatos");
+        }
+        texto.append('\n');
+    }
+
+    // un criterio simple; ids es null si no tiene índice que usar
+    static final class Hoja extends PlanConsulta {
+
+        private final Supplier<int[]> ids;
+        private final AlmacenVideojuegos.FiltroFila filtro;
+
+        Hoja(String descripcion, int estimacion, int total, Supplier<int[]> ids, AlmacenVideojuegos.FiltroFila filtro) {
+            super(descripcion, estimacion, total);
+            this.ids = ids;
+            this.filtro = filtro;
+        }
+
+        @Override
+        boolean usaIndice() {
+            return ids != null && compensaIndice();
+        }
+
+        @Override
+        int[] candidatos() {
+            return usaIndice() ? ids.get() : null;
+        }
+
+        @Override
+        public boolean acepta(int id, String tituloBusqueda, String generoBusqueda, int anio, int idDesarrolladora) {
+            return filtro.acepta(id, tituloBusqueda, generoBusqueda, anio, idDesarrolladora);
+        }
+    }
+
+    // se cumplen todos: los candidatos del más selectivo, filtrados por los demás
+    static final class Y extends PlanConsulta {
+
+        // de menor a mayor estimación
+        private final PlanConsulta[] hijos;
+
+        Y(String descripcion, PlanConsulta[] hijos, int total) {
+            super(descripcion, minimo(hijos), total);
+            this.hijos = hijos.clone();
+            // estable: a igual estimación se respeta el orden en que se escribieron
+            Arrays.sort(this.hijos, Comparator.comparingInt(h -> h.estimacion));
+        }
+
+        private static int minimo(PlanConsulta[] hijos) {
+            int minimo = Integer.MAX_VALUE;
+            for (PlanConsulta h : hijos) {
+                minimo = Math.min(minimo, h.estimacion);
+            }
+            return minimo;
+        }
+
+        @Override
+        boolean usaIndice() {
+            return estimacion == 0 || hijos[0].usaIndice();
+        }
+
+        @Override
+        int[] candidatos() {
+            if (estimacion == 0) {
+                // algún criterio no lo cumple nadie: no hace falta mirar los demás
+                return new int[0];
+            }
+            return hijos[0].candidatos();
+        }
+
+        @Override
+        public boolean acepta(int id, String tituloBusqueda, String generoBusqueda, int anio, int idDesarrolladora) {
+            for (PlanConsulta h : hijos) {
+                if (!h.acepta(id, tituloBusqueda, generoBusqueda, anio, idDesarrolladora)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void explicar(StringBuilder texto, String sangria, boolean conductor) {
+            super.explicar(texto, sangria, false);
+            for (int i = 0; i < hijos.length; i++) {
+                hijos[i].explicar(texto, sangria + "  ", conductor && estimacion > 0 && i == 0);
+            }
+        }
+    }
+
+    // se cumple alguno: la unión de los candidatos de todos
+    static final class O extends PlanConsulta {
+
+        // de mayor a menor estimación, para acertar cuanto antes
+        private final PlanConsulta[] hijos;
+
+        O(String descripcion, PlanConsulta[] hijos, int total) {
+            super(descripcion, suma(hijos, total), total);
+            this.hijos = hijos.clone();
+            Arrays.sort(this.hijos, Comparator.comparingInt((PlanConsulta h) -> h.estimacion).reversed());
+        }
+
+        private static int suma(PlanConsulta[] hijos, int total) {
+            long suma = 0;
+            for (PlanConsulta h : hijos) {
+                suma += h.estimacion;
+            }
+            return (int) Math.min(suma, total);
+        }
+
+        @Override
+        boolean usaIndice() {
+            if (!compensaIndice()) {
+                return false;
+            }
+            for (PlanConsulta h : hijos) {
+                if (!h.usaIndice()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int[] candidatos() {
+            if (!usaIndice()) {
+                return null;
+            }
+            int[] union = new int[0];
+            for (PlanConsulta h : hijos) {
+                union = unir(union, h.candidatos());
+            }
+            return union;
+        }
+
+        // mezcla dos listas ordenadas sin repetir IDs
+        private static int[] unir(int[] a, int[] b) {
+            int[] resultado = new int[a.length + b.length];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < a.length && j < b.length) {
+                if (a[i] < b[j]) {
+                    resultado[n++] = a[i++];
+                } else if (a[i] > b[j]) {
+                    resultado[n++] = b[j++];
+                } else {
+                    resultado[n++] = a[i++];
+                    j++;
+                }
+            }
+            while (i < a.length) {
+                resultado[n++] = a[i++];
+            }
+            while (j < b.length) {
+                resultado[n++] = b[j++];
+            }
+            return Arrays.copyOf(resultado, n);
+        }
+
+        @Override
+        public boolean acepta(int id, String tituloBusqueda, String generoBusqueda, int anio, int idDesarrolladora) {
+            for (PlanConsulta h : hijos) {
+                if (h.acepta(id, tituloBusqueda, generoBusqueda, anio, idDesarrolladora)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void explicar(StringBuilder texto, String sangria, boolean conductor) {
+            super.explicar(texto, sangria, false);
+            for (PlanConsulta h : hijos) {
+                h.explicar(texto, sangria + "  ", conductor);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package Gestion;
+
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Resultado de una importación masiva desde un CSV externo: cuántas filas se
+ * añadieron y las que se rechazaron, cada una con su número de línea y el
+ * motivo.
+ */
+
+public final class ResultadoImportacion {
+
+    private final int importadas;
+    private final List<String> rechazadas;
+
+
+    ResultadoImportacion(int importadas, List<String> rechazadas) {
+        this.importadas = importadas;
+        this.rechazadas = Collections.unmodifiableList(rechazadas);
+    }
+
+    public int getImportadas() {
+        return importadas;
+    }
+
+    // "Línea N: motivo" por cada fila que no se importó
+    public List<String> getRechazadas() {
+        return rechazadas;
+    }
+}
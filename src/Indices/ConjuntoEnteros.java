@@ -0,0 +1,123 @@
+package Indices;
+
+import java.util.Arrays;
+
+
+/**
+ * Conjunto de enteros guardado como un int[] ordenado y sin repetidos.
+ *
+ * Se usa para las listas de IDs de los índices. Como los IDs nuevos siempre
+ * son mayores que los existentes, añadir suele ser una escritura al final;
+ * la pertenencia se comprueba con búsqueda binaria.
+ */
+
+public class ConjuntoEnteros {
+
+    private static final int[] VACIO = new int[0];
+
+    private int[] elementos;
+    private int tamanio;
+
+
+    public ConjuntoEnteros() {
+        this.elementos = VACIO;
+        this.tamanio = 0;
+    }
+
+    // conjunto con esos valores, que deben venir en orden ascendente y sin repetidos
+    public static ConjuntoEnteros deOrdenados(int[] valores) {
+        ConjuntoEnteros conjunto = new ConjuntoEnteros();
+        conjunto.elementos = valores.clone();
+        conjunto.tamanio = valores.length;
+        return conjunto;
+    }
+
+    // devuelve false si el valor ya estaba
+    public boolean añadir(int valor) {
+        if (tamanio == 0 || elementos[tamanio - 1] < valor) {
+            asegurarCapacidad(tamanio + 1);
+            elementos[tamanio++] = valor;
+            return true;
+        }
+        int pos = Arrays.binarySearch(elementos, 0, tamanio, valor);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        asegurarCapacidad(tamanio + 1);
+        System.arraycopy(elementos, pos, elementos, pos + 1, tamanio - pos);
+        elementos[pos] = valor;
+        tamanio++;
+        return true;
+    }
+
+    // devuelve false si el valor no estaba
+    public boolean quitar(int valor) {
+        int pos = Arrays.binarySearch(elementos, 0, tamanio, valor);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(elementos, pos + 1, elementos, pos, tamanio - pos - 1);
+        tamanio--;
+        return true;
+    }
+
+    // quita de una vez todos los elementos del otro conjunto, en una sola pasada
+    public void quitarTodos(ConjuntoEnteros otros) {
+        int escritos = 0;
+        int j = 0;
+        for (int i = 0; i < tamanio; i++) {
+            int valor = elementos[i];
+            while (j < otros.tamanio && otros.elementos[j] < valor) {
+                j++;
+            }
+            if (j < otros.tamanio && otros.elementos[j] == valor) {
+                continue;
+            }
+            elementos[escritos++] = valor;
+        }
+        tamanio = escritos;
+    }
+
+    public boolean contiene(int valor) {
+        return Arrays.binarySearch(elementos, 0, tamanio, valor) >= 0;
+    }
+
+    public int obtener(int posicion) {
+        if (posicion < 0 || posicion >= tamanio) {
+            throw new IndexOutOfBoundsException("Posición fuera del conjunto: " + posicion);
+        }
+        return elementos[posicion];
+    }
+
+    // posición del primer elemento mayor que el valor (o tamanio si no hay ninguno)
+    public int posicionDespuesDe(int valor) {
+        int pos = Arrays.binarySearch(elementos, 0, tamanio, valor);
+        return pos >= 0 ? pos + 1 : -pos - 1;
+    }
+
+    public void limpiar() {
+        elementos = VACIO;
+        tamanio = 0;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public boolean estaVacio() {
+        return tamanio == 0;
+    }
+
+    // copia de los elementos en orden ascendente
+    public int[] aArray() {
+        return Arrays.copyOf(elementos, tamanio);
+    }
+
+    private void asegurarCapacidad(int minimo) {
+        if (elementos.length < minimo) {
+            int nuevaCapacidad = Math.max(4, Math.max(minimo, elementos.length + (elementos.length >> 1)));
+            elementos = Arrays.copyOf(elementos, nuevaCapacidad);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package Indices;
+
+import Entidades.TextoBusqueda;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Diccionario de géneros: asigna a cada género distinto un código entero y
+ * guarda una única instancia del texto (y de su clave normalizada) que
+ * comparten todos los videojuegos de ese género.
+ *
+ * Para cada código mantiene un mapa de bits con los IDs de sus videojuegos,
+ * de forma que filtrar por género es comparar la consulta con las pocas
+ * entradas del diccionario y unir sus mapas de bits.
+ */
+
+public class DiccionarioGeneros {
+
+    private final Map<String, Integer> codigos;
+    private final List<String> generos;
+    private final List<String> generosBusqueda;
+    private final List<MapaBits> videojuegos;
+
+
+    public DiccionarioGeneros() {
+        this.codigos = new HashMap<>();
+        this.generos = new ArrayList<>();
+        this.generosBusqueda = new ArrayList<>();
+        this.videojuegos = new ArrayList<>();
+    }
+
+    // devuelve el código del género, creándolo si no existía
+    public int codificar(String genero) {
+        Integer codigo = codigos.get(genero);
+        if (codigo != null) {
+            return codigo;
+        }
+        int nuevo = generos.size();
+        codigos.put(genero, nuevo);
+        generos.add(genero);
+        generosBusqueda.add(TextoBusqueda.normalizar(genero));
+        videojuegos.add(new MapaBits());
+        return nuevo;
+    }
+
+    // código del género o -1 si no está en el diccionario
+    public int codigo(String genero) {
+        Integer codigo = codigos.get(genero);
+        return codigo == null ? -1 : codigo;
+    }
+
+    public String genero(int codigo) {
+        return generos.get(codigo);
+    }
+
+    public String generoBusqueda(int codigo) {
+        return generosBusqueda.get(codigo);
+    }
+
+    public void añadir(int codigo, int idVideojuego) {
+        videojuegos.get(codigo).añadir(idVideojuego);
+    }
+
+    public void quitar(String genero, int idVideojuego) {
+        int codigo = codigo(genero);
+        if (codigo >= 0) {
+            videojuegos.get(codigo).quitar(idVideojuego);
+        }
+    }
+
+    /**
+     * Une los mapas de bits de todos los géneros cuya clave normalizada
+     * contiene la consulta (que debe llegar ya normalizada).
+     */
+    public MapaBits buscar(String consultaNormalizada) {
+        MapaBits resultado = new MapaBits();
+        for (int codigo = 0; codigo < generos.size(); codigo++) {
+            MapaBits ids = videojuegos.get(codigo);
+            if (!ids.estaVacio() && generosBusqueda.get(codigo).contains(consultaNormalizada)) {
+                resultado.unir(ids);
+            }
+        }
+        return resultado;
+    }
+
+    // cuántos videojuegos devolvería buscar(consultaNormalizada), sin unir los mapas
+    public int contar(String consultaNormalizada) {
+        int total = 0;
+        for (int codigo = 0; codigo < generos.size(); codigo++) {
+            if (generosBusqueda.get(codigo).contains(consultaNormalizada)) {
+                total += videojuegos.get(codigo).cardinalidad();
+            }
+        }
+        return total;
+    }
+
+    public int tamanio() {
+        return generos.size();
+    }
+
+    public void limpiar() {
+        codigos.clear();
+        generos.clear();
+        generosBusqueda.clear();
+        videojuegos.clear();
+    }
+}
@@ -0,0 +1,194 @@
+package Indices;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice de videojuegos por año de lanzamiento.
+ *
+ * Como el año válido está acotado (1950 hasta el año actual + 1) se usa un
+ * array denso de cubos, uno por año, con los IDs ordenados de cada año. Una
+ * consulta por rango solo recorre los cubos del rango, así que cuesta lo que
+ * ocupa el resultado. El array solo se amplía si el programa sigue abierto
+ * cuando cambia el año.
+ *
+ * Un CSV editado a mano puede traer años fuera de esos límites; esos van a
+ * un mapa ordenado aparte, con un cubo por cada año que aparece, para que un
+ * año disparatado no obligue a reservar un array enorme.
+ */
+
+public class IndiceAnios {
+
+    private static final int ANIO_MINIMO = 1950;
+
+    private ConjuntoEnteros[] cubos;
+    // año que corresponde al cubo 0
+    private int base;
+    // años fuera de los cubos, normalmente ninguno
+    private final NavigableMap<Integer, ConjuntoEnteros> fueraDeRango = new TreeMap<>();
+    private int tamanio;
+
+
+    public IndiceAnios() {
+        reiniciar();
+    }
+
+    public void añadir(int anio, int id) {
+        ConjuntoEnteros ids;
+        if (enCubos(anio) || cambioDeAnio(anio)) {
+            ids = cubos[anio - base];
+            if (ids == null) {
+                ids = new ConjuntoEnteros();
+                cubos[anio - base] = ids;
+            }
+        } else {
+            ids = fueraDeRango.computeIfAbsent(anio, a -> new ConjuntoEnteros());
+        }
+        if (ids.añadir(id)) {
+            tamanio++;
+        }
+    }
+
+    public void quitar(int anio, int id) {
+        if (enCubos(anio)) {
+            ConjuntoEnteros ids = cubos[anio - base];
+            if (ids != null && ids.quitar(id)) {
+                tamanio--;
+            }
+            return;
+        }
+        ConjuntoEnteros ids = fueraDeRango.get(anio);
+        if (ids != null && ids.quitar(id)) {
+            tamanio--;
+            if (ids.estaVacio()) {
+                fueraDeRango.remove(anio);
+            }
+        }
+    }
+
+    // número de videojuegos con año entre desde y hasta (ambos incluidos)
+    public int contar(int desde, int hasta) {
+        int primero = primerCubo(desde);
+        int ultimo = ultimoCubo(hasta);
+        int total = 0;
+        for (int i = primero; i <= ultimo; i++) {
+            if (cubos[i] != null) {
+                total += cubos[i].tamanio();
+            }
+        }
+        for (ConjuntoEnteros ids : fuera(desde, hasta).values()) {
+            total += ids.tamanio();
+        }
+        return total;
+    }
+
+    // IDs con año entre desde y hasta, ordenados por año y después por ID
+    public int[] buscar(int desde, int hasta) {
+        int[] resultado = new int[contar(desde, hasta)];
+        NavigableMap<Integer, ConjuntoEnteros> fuera = fuera(desde, hasta);
+        // los años fuera de los cubos quedan antes o después de todos ellos
+        int n = 0;
+        for (Map.Entry<Integer, ConjuntoEnteros> anio : fuera.entrySet()) {
+            if (anio.getKey() < base) {
+                n = copiar(anio.getValue(), resultado, n);
+            }
+        }
+        int primero = primerCubo(desde);
+        int ultimo = ultimoCubo(hasta);
+        for (int i = primero; i <= ultimo; i++) {
+            if (cubos[i] != null) {
+                n = copiar(cubos[i], resultado, n);
+            }
+        }
+        for (Map.Entry<Integer, ConjuntoEnteros> anio : fuera.entrySet()) {
+            if (anio.getKey() >= base) {
+                n = copiar(anio.getValue(), resultado, n);
+            }
+        }
+        return resultado;
+    }
+
+    // quita de una vez todos esos IDs, con una pasada por cada cubo
+    public void quitarVarios(ConjuntoEnteros ids) {
+        for (ConjuntoEnteros cubo : cubos) {
+            if (cubo != null) {
+                int antes = cubo.tamanio();
+                cubo.quitarTodos(ids);
+                tamanio -= antes - cubo.tamanio();
+            }
+        }
+        fueraDeRango.values().removeIf(cubo -> {
+            int antes = cubo.tamanio();
+            cubo.quitarTodos(ids);
+            tamanio -= antes - cubo.tamanio();
+            return cubo.estaVacio();
+        });
+    }
+
+    private static int copiar(ConjuntoEnteros ids, int[] destino, int desde) {
+        int n = desde;
+        for (int j = 0; j < ids.tamanio(); j++) {
+            destino[n++] = ids.obtener(j);
+        }
+        return n;
+    }
+
+    private boolean enCubos(int anio) {
+        return anio >= base && anio - base < cubos.length;
+    }
+
+    // años fuera de los cubos que caen en el rango
+    private NavigableMap<Integer, ConjuntoEnteros> fuera(int desde, int hasta) {
+        if (fueraDeRango.isEmpty() || desde > hasta) {
+            return Collections.emptyNavigableMap();
+        }
+        return fueraDeRango.subMap(desde, true, hasta, true);
+    }
+
+    // en long para que desde = Integer.MIN_VALUE o hasta = Integer.MAX_VALUE no desborden
+    private int primerCubo(int desde) {
+        return (int) Math.max((long) desde - base, 0);
+    }
+
+    private int ultimoCubo(int hasta) {
+        return (int) Math.min((long) hasta - base, cubos.length - 1);
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public void limpiar() {
+        reiniciar();
+    }
+
+    private void reiniciar() {
+        this.base = ANIO_MINIMO;
+        this.cubos = new ConjuntoEnteros[anioMaximo() + 1 - ANIO_MINIMO];
+        this.fueraDeRango.clear();
+        this.tamanio = 0;
+    }
+
+    // el año ha cambiado con el programa abierto: se añaden cubos hasta el nuevo año máximo
+    private boolean cambioDeAnio(int anio) {
+        if (anio < base || anio > anioMaximo()) {
+            return false;
+        }
+        ConjuntoEnteros[] nuevos = new ConjuntoEnteros[anio - base + 1];
+        System.arraycopy(cubos, 0, nuevos, 0, cubos.length);
+        cubos = nuevos;
+        // los años que ahora entran en los cubos dejan el mapa
+        for (Map.Entry<Integer, ConjuntoEnteros> fuera : fueraDeRango.subMap(base, true, anio, true).entrySet()) {
+            cubos[fuera.getKey() - base] = fuera.getValue();
+        }
+        fueraDeRango.subMap(base, true, anio, true).clear();
+        return true;
+    }
+
+    // el año actual + 1, el mismo límite que admite GestorDatos
+    private static int anioMaximo() {
+        return java.time.Year.now().getValue() + 1;
+    }
+}
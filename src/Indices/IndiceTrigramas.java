@@ -0,0 +1,181 @@
+package Indices;
+
+import java.util.Arrays;
+
+
+/**
+ * Índice invertido de trigramas para búsquedas parciales (tipo "contains").
+ *
+ * Cada texto se descompone en sus grupos de 3 caracteres consecutivos y para
+ * cada trigrama se guarda la lista ordenada de IDs que lo contienen. Una
+ * consulta intersecta las listas de sus trigramas y devuelve los IDs
+ * candidatos, que el llamador debe verificar con el texto real.
+ *
+ * Los trigramas se empaquetan en un int (10 bits por carácter). Dos trigramas
+ * distintos pueden compartir clave, pero eso solo añade candidatos de más,
+ * nunca pierde resultados, porque la verificación final los descarta.
+ *
+ * Los textos deben llegar ya normalizados (por ejemplo en minúsculas).
+ */
+
+public class IndiceTrigramas {
+
+    private static final int LONGITUD = 3;
+
+    private final MapaEnteros<ConjuntoEnteros> listas;
+
+
+    public IndiceTrigramas() {
+        this.listas = new MapaEnteros<>();
+    }
+
+    public void añadir(int id, String texto) {
+        if (texto == null) {
+            return;
+        }
+        for (int i = 0; i + LONGITUD <= texto.length(); i++) {
+            int clave = clave(texto, i);
+            ConjuntoEnteros ids = listas.obtener(clave);
+            if (ids == null) {
+                ids = new ConjuntoEnteros();
+                listas.poner(clave, ids);
+            }
+            ids.añadir(id);
+        }
+    }
+
+    public void quitar(int id, String texto) {
+        if (texto == null) {
+            return;
+        }
+        for (int i = 0; i + LONGITUD <= texto.length(); i++) {
+            int clave = clave(texto, i);
+            ConjuntoEnteros ids = listas.obtener(clave);
+            if (ids != null) {
+                ids.quitar(id);
+                if (ids.estaVacio()) {
+                    listas.quitar(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * Quita de una vez varios IDs, dados sus textos. Cada lista afectada se
+     * recorre una sola vez aunque pierda muchos IDs, en lugar de desplazarla
+     * una vez por cada ID.
+     */
+    public void quitarVarios(ConjuntoEnteros ids, Iterable<String> textos) {
+        // claves de todos los textos, ordenadas para tratar cada una una sola vez
+        int[] claves = new int[64];
+        int n = 0;
+        for (String texto : textos) {
+            if (texto == null) {
+                continue;
+            }
+            for (int i = 0; i + LONGITUD <= texto.length(); i++) {
+                if (n == claves.length) {
+                    claves = Arrays.copyOf(claves, n * 2);
+                }
+                claves[n++] = clave(texto, i);
+            }
+        }
+        Arrays.sort(claves, 0, n);
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && claves[i] == claves[i - 1]) {
+                continue;
+            }
+            int clave = claves[i];
+            ConjuntoEnteros lista = listas.obtener(clave);
+            if (lista != null) {
+                lista.quitarTodos(ids);
+                if (lista.estaVacio()) {
+                    listas.quitar(clave);
+                }
+            }
+        }
+    }
+
+    public void limpiar() {
+        listas.limpiar();
+    }
+
+    // true si la consulta es lo bastante larga para usar el índice
+    public static boolean esIndexable(String consulta) {
+        return consulta != null && consulta.length() >= LONGITUD;
+    }
+
+    /**
+     * Devuelve los IDs candidatos en orden ascendente, o null si la consulta
+     * es demasiado corta y hay que recorrer todos los registros.
+     */
+    public int[] candidatos(String consulta) {
+        if (!esIndexable(consulta)) {
+            return null;
+        }
+        int n = consulta.length() - LONGITUD + 1;
+        ConjuntoEnteros[] necesarias = new ConjuntoEnteros[n];
+        for (int i = 0; i < n; i++) {
+            ConjuntoEnteros ids = listas.obtener(clave(consulta, i));
+            if (ids == null) {
+                // algún trigrama no aparece en ningún texto
+                return new int[0];
+            }
+            necesarias[i] = ids;
+        }
+        // se empieza por la lista más corta para que la intersección sea mínima
+        Arrays.sort(necesarias, (a, b) -> Integer.compare(a.tamanio(), b.tamanio()));
+        int[] resultado = necesarias[0].aArray();
+        int tamanio = resultado.length;
+        for (int i = 1; i < n && tamanio > 0; i++) {
+            if (necesarias[i] == necesarias[i - 1]) {
+                continue;
+            }
+            tamanio = intersectar(resultado, tamanio, necesarias[i]);
+        }
+        return Arrays.copyOf(resultado, tamanio);
+    }
+
+    /**
+     * Cota superior de lo que devolvería candidatos(consulta), sin
+     * intersectar nada: el tamaño de la lista más corta de sus trigramas.
+     * Devuelve -1 si la consulta es demasiado corta para el índice.
+     */
+    public int maximoCandidatos(String consulta) {
+        if (!esIndexable(consulta)) {
+            return -1;
+        }
+        int minimo = Integer.MAX_VALUE;
+        for (int i = 0; i + LONGITUD <= consulta.length(); i++) {
+            ConjuntoEnteros ids = listas.obtener(clave(consulta, i));
+            if (ids == null) {
+                return 0;
+            }
+            minimo = Math.min(minimo, ids.tamanio());
+        }
+        return minimo;
+    }
+
+    // deja en 'ids' solo los que también están en 'otra', devuelve el nuevo tamaño.
+    // 'ids' es la lista más corta, así que se busca cada uno por búsqueda binaria
+    private static int intersectar(int[] ids, int tamanio, ConjuntoEnteros otra) {
+        int escritos = 0;
+        for (int i = 0; i < tamanio; i++) {
+            if (otra.contiene(ids[i])) {
+                ids[escritos++] = ids[i];
+            }
+        }
+        return escritos;
+    }
+
+    private static int clave(String texto, int desde) {
+        return ((texto.charAt(desde) & 0x3FF) << 20)
+                | ((texto.charAt(desde + 1) & 0x3FF) << 10)
+                | (texto.charAt(desde + 2) & 0x3FF);
+    }
+
+    // número de trigramas distintos con al menos un ID
+    public int tamanio() {
+        return listas.tamanio();
+    }
+}
@@ -0,0 +1,266 @@
+package Indices;
+
+import java.util.Arrays;
+
+
+/**
+ * Mapa de bits comprimido para conjuntos de IDs.
+ *
+ * Los IDs se agrupan en bloques de 65536 según sus 16 bits altos. Cada bloque
+ * se guarda como un array ordenado de los 16 bits bajos mientras tiene pocos
+ * elementos y pasa a un mapa de bits de 8 KB cuando se llena, igual que los
+ * "roaring bitmaps". Así un género con pocos videojuegos ocupa unos pocos
+ * bytes y uno con millones no ocupa más de un bit por ID.
+ */
+
+public class MapaBits {
+
+    // a partir de este tamaño un bloque ocupa menos como mapa de bits
+    private static final int MAXIMO_ARRAY = 4096;
+    private static final int PALABRAS_BITS = 1024;
+
+    private char[] claves;
+    private Object[] bloques;
+    private int numBloques;
+
+
+    public MapaBits() {
+        this.claves = new char[4];
+        this.bloques = new Object[4];
+        this.numBloques = 0;
+    }
+
+    public boolean añadir(int id) {
+        char alta = (char) (id >>> 16);
+        char baja = (char) id;
+        int i = buscarBloque(alta);
+        if (i < 0) {
+            i = -i - 1;
+            insertarBloque(i, alta, new Bloque());
+        }
+        return ((Bloque) bloques[i]).añadir(baja);
+    }
+
+    public boolean quitar(int id) {
+        int i = buscarBloque((char) (id >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        Bloque b = (Bloque) bloques[i];
+        boolean quitado = b.quitar((char) id);
+        if (b.cardinalidad == 0) {
+            System.arraycopy(claves, i + 1, claves, i, numBloques - i - 1);
+            System.arraycopy(bloques, i + 1, bloques, i, numBloques - i - 1);
+            bloques[--numBloques] = null;
+        }
+        return quitado;
+    }
+
+    public boolean contiene(int id) {
+        int i = buscarBloque((char) (id >>> 16));
+        return i >= 0 && ((Bloque) bloques[i]).contiene((char) id);
+    }
+
+    public int cardinalidad() {
+        int total = 0;
+        for (int i = 0; i < numBloques; i++) {
+            total += ((Bloque) bloques[i]).cardinalidad;
+        }
+        return total;
+    }
+
+    public boolean estaVacio() {
+        return numBloques == 0;
+    }
+
+    // une en este mapa todos los IDs de 'otro'
+    public void unir(MapaBits otro) {
+        for (int j = 0; j < otro.numBloques; j++) {
+            char alta = otro.claves[j];
+            Bloque suyo = (Bloque) otro.bloques[j];
+            int i = buscarBloque(alta);
+            if (i < 0) {
+                insertarBloque(-i - 1, alta, suyo.copiar());
+            } else {
+                ((Bloque) bloques[i]).unir(suyo);
+            }
+        }
+    }
+
+    public MapaBits copiar() {
+        MapaBits copia = new MapaBits();
+        copia.claves = Arrays.copyOf(claves, Math.max(4, numBloques));
+        copia.bloques = new Object[copia.claves.length];
+        for (int i = 0; i < numBloques; i++) {
+            copia.bloques[i] = ((Bloque) bloques[i]).copiar();
+        }
+        copia.numBloques = numBloques;
+        return copia;
+    }
+
+    // IDs en orden ascendente
+    public int[] aArray() {
+        int[] resultado = new int[cardinalidad()];
+        int n = 0;
+        for (int i = 0; i < numBloques; i++) {
+            n = ((Bloque) bloques[i]).volcar(claves[i] << 16, resultado, n);
+        }
+        return resultado;
+    }
+
+    private int buscarBloque(char alta) {
+        return Arrays.binarySearch(claves, 0, numBloques, alta);
+    }
+
+    private void insertarBloque(int pos, char alta, Bloque bloque) {
+        if (numBloques == claves.length) {
+            claves = Arrays.copyOf(claves, numBloques * 2);
+            bloques = Arrays.copyOf(bloques, numBloques * 2);
+        }
+        System.arraycopy(claves, pos, claves, pos + 1, numBloques - pos);
+        System.arraycopy(bloques, pos, bloques, pos + 1, numBloques - pos);
+        claves[pos] = alta;
+        bloques[pos] = bloque;
+        numBloques++;
+    }
+
+
+    // bloque de 65536 IDs: array ordenado (valores != null) o mapa de bits (bits != null)
+    private static final class Bloque {
+        private char[] valores = new char[4];
+        private long[] bits;
+        private int cardinalidad;
+
+        boolean contiene(char v) {
+            if (bits != null) {
+                return (bits[v >>> 6] & (1L << v)) != 0;
+            }
+            return Arrays.binarySearch(valores, 0, cardinalidad, v) >= 0;
+        }
+
+        boolean añadir(char v) {
+            if (bits != null) {
+                long antes = bits[v >>> 6];
+                bits[v >>> 6] = antes | (1L << v);
+                if (antes == bits[v >>> 6]) {
+                    return false;
+                }
+                cardinalidad++;
+                return true;
+            }
+            int pos;
+            if (cardinalidad == 0 || valores[cardinalidad - 1] < v) {
+                pos = cardinalidad;
+            } else {
+                pos = Arrays.binarySearch(valores, 0, cardinalidad, v);
+                if (pos >= 0) {
+                    return false;
+                }
+                pos = -pos - 1;
+            }
+            if (cardinalidad == MAXIMO_ARRAY) {
+                aBits();
+                return añadir(v);
+            }
+            if (cardinalidad == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(MAXIMO_ARRAY, cardinalidad * 2));
+            }
+            System.arraycopy(valores, pos, valores, pos + 1, cardinalidad - pos);
+            valores[pos] = v;
+            cardinalidad++;
+            return true;
+        }
+
+        boolean quitar(char v) {
+            if (bits != null) {
+                long antes = bits[v >>> 6];
+                bits[v >>> 6] = antes & ~(1L << v);
+                if (antes == bits[v >>> 6]) {
+                    return false;
+                }
+                cardinalidad--;
+                if (cardinalidad < MAXIMO_ARRAY / 2) {
+                    aArrayOrdenado();
+                }
+                return true;
+            }
+            int pos = Arrays.binarySearch(valores, 0, cardinalidad, v);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(valores, pos + 1, valores, pos, cardinalidad - pos - 1);
+            cardinalidad--;
+            return true;
+        }
+
+        void unir(Bloque otro) {
+            if (otro.bits != null) {
+                if (bits == null) {
+                    aBits();
+                }
+                int total = 0;
+                for (int i = 0; i < PALABRAS_BITS; i++) {
+                    bits[i] |= otro.bits[i];
+                    total += Long.bitCount(bits[i]);
+                }
+                cardinalidad = total;
+                return;
+            }
+            for (int i = 0; i < otro.cardinalidad; i++) {
+                añadir(otro.valores[i]);
+            }
+        }
+
+        Bloque copiar() {
+            Bloque copia = new Bloque();
+            copia.cardinalidad = cardinalidad;
+            if (bits != null) {
+                copia.valores = null;
+                copia.bits = bits.clone();
+            } else {
+                copia.valores = Arrays.copyOf(valores, Math.max(4, cardinalidad));
+            }
+            return copia;
+        }
+
+        int volcar(int base, int[] destino, int n) {
+            if (bits == null) {
+                for (int i = 0; i < cardinalidad; i++) {
+                    destino[n++] = base | valores[i];
+                }
+                return n;
+            }
+            for (int i = 0; i < PALABRAS_BITS; i++) {
+                long palabra = bits[i];
+                while (palabra != 0) {
+                    destino[n++] = base | (i << 6) | Long.numberOfTrailingZeros(palabra);
+                    palabra &= palabra - 1;
+                }
+            }
+            return n;
+        }
+
+        private void aBits() {
+            bits = new long[PALABRAS_BITS];
+            for (int i = 0; i < cardinalidad; i++) {
+                char v = valores[i];
+                bits[v >>> 6] |= 1L << v;
+            }
+            valores = null;
+        }
+
+        private void aArrayOrdenado() {
+            char[] nuevos = new char[Math.max(4, cardinalidad)];
+            int n = 0;
+            for (int i = 0; i < PALABRAS_BITS; i++) {
+                long palabra = bits[i];
+                while (palabra != 0) {
+                    nuevos[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+            valores = nuevos;
+            bits = null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package Indices;
+
+
+/**
+ * Variante de MapaEnteros en la que también los valores son int, para
+ * índices de ID a posición (fila) sin convertir nada a Integer.
+ *
+ * Usa el mismo direccionamiento abierto con sondeo lineal y borrado por
+ * desplazamiento hacia atrás. Las búsquedas sin resultado devuelven
+ * NO_ENCONTRADO.
+ */
+
+public class MapaEnteroEntero {
+
+    public static final int NO_ENCONTRADO = -1;
+
+    private static final int CAPACIDAD_INICIAL = 16;
+    // se amplía la tabla cuando supera este porcentaje de ocupación
+    private static final float FACTOR_CARGA = 0.6f;
+
+    private int[] claves;
+    private int[] valores;
+    private boolean[] usadas;
+    private int tamanio;
+    private int umbral;
+    private int mascara;
+
+
+    public MapaEnteroEntero() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public MapaEnteroEntero(int capacidadEsperada) {
+        inicializar(capacidadTabla(capacidadEsperada));
+    }
+
+    private void inicializar(int capacidad) {
+        this.claves = new int[capacidad];
+        this.valores = new int[capacidad];
+        this.usadas = new boolean[capacidad];
+        this.mascara = capacidad - 1;
+        this.umbral = (int) (capacidad * FACTOR_CARGA);
+        this.tamanio = 0;
+    }
+
+    // potencia de 2 suficiente para guardar n elementos sin superar el factor de carga
+    private static int capacidadTabla(int n) {
+        int necesaria = (int) Math.ceil(Math.max(n, 1) / FACTOR_CARGA);
+        int capacidad = CAPACIDAD_INICIAL;
+        while (capacidad < necesaria) {
+            capacidad <<= 1;
+        }
+        return capacidad;
+    }
+
+    // mezcla los bits del ID para que IDs consecutivos no formen grupos largos
+    private int posicionInicial(int clave) {
+        int h = clave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    private int buscarCasilla(int clave) {
+        int i = posicionInicial(clave);
+        while (usadas[i]) {
+            if (claves[i] == clave) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    public int obtener(int clave) {
+        int i = buscarCasilla(clave);
+        return i < 0 ? NO_ENCONTRADO : valores[i];
+    }
+
+    public boolean contiene(int clave) {
+        return buscarCasilla(clave) >= 0;
+    }
+
+    // añade o sustituye el valor de la clave y devuelve el anterior (o NO_ENCONTRADO)
+    public int poner(int clave, int valor) {
+        int i = posicionInicial(clave);
+        while (usadas[i]) {
+            if (claves[i] == clave) {
+                int anterior = valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        usadas[i] = true;
+        if (++tamanio > umbral) {
+            ampliar();
+        }
+        return NO_ENCONTRADO;
+    }
+
+    // elimina la clave y devuelve su valor (o NO_ENCONTRADO si no estaba)
+    public int quitar(int clave) {
+        int i = buscarCasilla(clave);
+        if (i < 0) {
+            return NO_ENCONTRADO;
+        }
+        int anterior = valores[i];
+        // desplazamiento hacia atrás: se rellenan los huecos del grupo
+        int hueco = i;
+        int j = (i + 1) & mascara;
+        while (usadas[j]) {
+            int ideal = posicionInicial(claves[j]);
+            // se mueve si su posición ideal no está entre el hueco y j (circularmente)
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                claves[hueco] = claves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        usadas[hueco] = false;
+        tamanio--;
+        return anterior;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public void limpiar() {
+        inicializar(CAPACIDAD_INICIAL);
+    }
+
+    private void ampliar() {
+        int[] clavesAntiguas = claves;
+        int[] valoresAntiguos = valores;
+        boolean[] usadasAntiguas = usadas;
+        inicializar(claves.length << 1);
+        for (int i = 0; i < clavesAntiguas.length; i++) {
+            if (usadasAntiguas[i]) {
+                int j = posicionInicial(clavesAntiguas[i]);
+                while (usadas[j]) {
+                    j = (j + 1) & mascara;
+                }
+                claves[j] = clavesAntiguas[i];
+                valores[j] = valoresAntiguos[i];
+                usadas[j] = true;
+                tamanio++;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package Indices;
+
+
+/**
+ * Mapa de claves int a valores con direccionamiento abierto (sondeo lineal).
+ *
+ * Se usa como índice de clave primaria: las claves se guardan en un int[]
+ * sin convertirlas a Integer, así que buscar un ID cuesta lo mismo con
+ * 10 filas que con 10 millones.
+ *
+ * Al borrar se desplazan hacia atrás los elementos del mismo grupo, por lo
+ * que no quedan lápidas y las búsquedas no se degradan con el tiempo.
+ */
+
+public class MapaEnteros<V> {
+
+    private static final int CAPACIDAD_INICIAL = 16;
+    // se amplía la tabla cuando supera este porcentaje de ocupación
+    private static final float FACTOR_CARGA = 0.6f;
+
+    private int[] claves;
+    private Object[] valores;
+    private int tamanio;
+    private int umbral;
+    private int mascara;
+
+
+    public MapaEnteros() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    public MapaEnteros(int capacidadEsperada) {
+        inicializar(capacidadTabla(capacidadEsperada));
+    }
+
+    private void inicializar(int capacidad) {
+        this.claves = new int[capacidad];
+        this.valores = new Object[capacidad];
+        this.mascara = capacidad - 1;
+        this.umbral = (int) (capacidad * FACTOR_CARGA);
+        this.tamanio = 0;
+    }
+
+    // potencia de 2 suficiente para guardar n elementos sin superar el factor de carga
+    private static int capacidadTabla(int n) {
+        int necesaria = (int) Math.ceil(Math.max(n, 1) / FACTOR_CARGA);
+        int capacidad = CAPACIDAD_INICIAL;
+        while (capacidad < necesaria) {
+            capacidad <<= 1;
+        }
+        return capacidad;
+    }
+
+    // mezcla los bits del ID para que IDs consecutivos no formen grupos largos
+    private int posicionInicial(int clave) {
+        int h = clave * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+
+    // una casilla libre se reconoce porque su valor es null
+    private int buscarCasilla(int clave) {
+        int i = posicionInicial(clave);
+        while (valores[i] != null) {
+            if (claves[i] == clave) {
+                return i;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V obtener(int clave) {
+        int i = buscarCasilla(clave);
+        return i < 0 ? null : (V) valores[i];
+    }
+
+    public boolean contiene(int clave) {
+        return buscarCasilla(clave) >= 0;
+    }
+
+    // añade o sustituye el valor de la clave y devuelve el anterior (o null)
+    @SuppressWarnings("unchecked")
+    public V poner(int clave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("El índice no admite valores nulos.");
+        }
+        int i = posicionInicial(clave);
+        while (valores[i] != null) {
+            if (claves[i] == clave) {
+                V anterior = (V) valores[i];
+                valores[i] = valor;
+                return anterior;
+            }
+            i = (i + 1) & mascara;
+        }
+        claves[i] = clave;
+        valores[i] = valor;
+        if (++tamanio > umbral) {
+            ampliar();
+        }
+        return null;
+    }
+
+    // elimina la clave y devuelve su valor (o null si no estaba)
+    @SuppressWarnings("unchecked")
+    public V quitar(int clave) {
+        int i = buscarCasilla(clave);
+        if (i < 0) {
+            return null;
+        }
+        V anterior = (V) valores[i];
+        // desplazamiento hacia atrás: se rellenan los huecos del grupo
+        int hueco = i;
+        int j = (i + 1) & mascara;
+        while (valores[j] != null) {
+            int ideal = posicionInicial(claves[j]);
+            // se mueve si su posición ideal no está entre el hueco y j (circularmente)
+            if (((j - ideal) & mascara) >= ((j - hueco) & mascara)) {
+                claves[hueco] = claves[j];
+                valores[hueco] = valores[j];
+                hueco = j;
+            }
+            j = (j + 1) & mascara;
+        }
+        valores[hueco] = null;
+        tamanio--;
+        return anterior;
+    }
+
+    public int tamanio() {
+        return tamanio;
+    }
+
+    public void limpiar() {
+        inicializar(CAPACIDAD_INICIAL);
+    }
+
+    private void ampliar() {
+        int[] clavesAntiguas = claves;
+        Object[] valoresAntiguos = valores;
+        inicializar(claves.length << 1);
+        for (int i = 0; i < clavesAntiguas.length; i++) {
+            if (valoresAntiguos[i] != null) {
+                int j = posicionInicial(clavesAntiguas[i]);
+                while (valores[j] != null) {
+                    j = (j + 1) & mascara;
+                }
+                claves[j] = clavesAntiguas[i];
+                valores[j] = valoresAntiguos[i];
+                tamanio++;
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package Indices;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+
+/**
+ * Lista inmutable y persistente: añadir o sustituir un elemento devuelve una
+ * lista nueva y la anterior sigue igual, así que una lista obtenida en un
+ * momento dado es una foto fija aunque después haya más cambios.
+ *
+ * Es un árbol de 32 ramas con los últimos elementos aparte (la "cola"), como
+ * el vector de Clojure. Acceder, añadir y sustituir cuestan O(log32 n), que en
+ * la práctica son 4 o 5 saltos, y las versiones comparten todos los nodos que
+ * no cambian. Solo se puede quitar el último; para quitar otro se pone el
+ * último en su lugar, así que el orden de los elementos cambia.
+ *
+ * Al añadir, si la casilla siguiente de la cola está libre se ocupa en lugar
+ * de copiar la cola: las versiones anteriores no leen más allá de su tamaño.
+ * La casilla se reclama con compareAndSet para que dos versiones que crecen a
+ * la vez desde la misma no se pisen.
+ */
+
+public final class VectorPersistente<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int ANCHO = 1 << BITS;
+    private static final int MASCARA = ANCHO - 1;
+    private static final Object[] SIN_COLA = new Object[0];
+    private static final VarHandle CASILLA = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VectorPersistente<?> VACIO = new VectorPersistente<>(0, BITS, new Object[ANCHO], SIN_COLA);
+
+    private final int tamanio;
+    // bits que hay que desplazar el índice en la raíz
+    private final int desplazamiento;
+    private final Object[] raiz;
+    private final Object[] cola;
+
+
+    private VectorPersistente(int tamanio, int desplazamiento, Object[] raiz, Object[] cola) {
+        this.tamanio = tamanio;
+        this.desplazamiento = desplazamiento;
+        this.raiz = raiz;
+        this.cola = cola;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> VectorPersistente<T> vacio() {
+        return (VectorPersistente<T>) VACIO;
+    }
+
+    // primera posición que está en la cola
+    private int inicioCola() {
+        return tamanio < ANCHO ? 0 : ((tamanio - 1) >>> BITS) << BITS;
+    }
+
+    // hoja del árbol (o la cola) que contiene la posición
+    private Object[] hoja(int posicion) {
+        if (posicion >= inicioCola()) {
+            return cola;
+        }
+        Object[] nodo = raiz;
+        for (int nivel = desplazamiento; nivel > 0; nivel -= BITS) {
+            nodo = (Object[]) nodo[(posicion >>> nivel) & MASCARA];
+        }
+        return nodo;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int posicion) {
+        Objects.checkIndex(posicion, tamanio);
+        return (T) hoja(posicion)[posicion & MASCARA];
+    }
+
+    @Override
+    public int size() {
+        return tamanio;
+    }
+
+    // devuelve una lista con el elemento añadido al final
+    public VectorPersistente<T> añadir(T elemento) {
+        Objects.requireNonNull(elemento, "No se admiten elementos nulos.");
+        int enCola = tamanio - inicioCola();
+        if (enCola < ANCHO) {
+            Object[] nuevaCola;
+            if (cola.length == ANCHO && CASILLA.compareAndSet(cola, enCola, null, elemento)) {
+                nuevaCola = cola;
+            } else {
+                nuevaCola = new Object[ANCHO];
+                System.arraycopy(cola, 0, nuevaCola, 0, enCola);
+                nuevaCola[enCola] = elemento;
+            }
+            return new VectorPersistente<>(tamanio + 1, desplazamiento, raiz, nuevaCola);
+        }
+        // la cola está llena: pasa a ser una hoja del árbol
+        Object[] nuevaRaiz;
+        int nuevoDesplazamiento = desplazamiento;
+        if ((tamanio >>> BITS) > (1 << desplazamiento)) {
+            // la raíz está llena: el árbol crece un nivel
+            nuevaRaiz = new Object[ANCHO];
+            nuevaRaiz[0] = raiz;
+            nuevaRaiz[1] = camino(desplazamiento, cola);
+            nuevoDesplazamiento += BITS;
+        } else {
+            nuevaRaiz = empujarCola(desplazamiento, raiz, cola);
+        }
+        Object[] nuevaCola = new Object[ANCHO];
+        nuevaCola[0] = elemento;
+        return new VectorPersistente<>(tamanio + 1, nuevoDesplazamiento, nuevaRaiz, nuevaCola);
+    }
+
+    private Object[] empujarCola(int nivel, Object[] padre, Object[] hoja) {
+        int indice = ((tamanio - 1) >>> nivel) & MASCARA;
+        Object[] copia = padre.clone();
+        if (nivel == BITS) {
+            copia[indice] = hoja;
+        } else {
+            Object[] hijo = (Object[]) padre[indice];
+            copia[indice] = hijo != null ? empujarCola(nivel - BITS, hijo, hoja) : camino(nivel - BITS, hoja);
+        }
+        return copia;
+    }
+
+    // rama nueva desde un nivel hasta la hoja
+    private static Object[] camino(int nivel, Object[] hoja) {
+        if (nivel == 0) {
+            return hoja;
+        }
+        Object[] nodo = new Object[ANCHO];
+        nodo[0] = camino(nivel - BITS, hoja);
+        return nodo;
+    }
+
+    // devuelve una lista con el elemento de esa posición sustituido
+    public VectorPersistente<T> poner(int posicion, T elemento) {
+        Objects.checkIndex(posicion, tamanio);
+        Objects.requireNonNull(elemento, "No se admiten elementos nulos.");
+        if (posicion >= inicioCola()) {
+            Object[] nuevaCola = new Object[ANCHO];
+            System.arraycopy(cola, 0, nuevaCola, 0, tamanio - inicioCola());
+            nuevaCola[posicion & MASCARA] = elemento;
+            return new VectorPersistente<>(tamanio, desplazamiento, raiz, nuevaCola);
+        }
+        return new VectorPersistente<>(tamanio, desplazamiento, sustituir(desplazamiento, raiz, posicion, elemento), cola);
+    }
+
+    private static Object[] sustituir(int nivel, Object[] nodo, int posicion, Object elemento) {
+        Object[] copia = nodo.clone();
+        if (nivel == 0) {
+            copia[posicion & MASCARA] = elemento;
+        } else {
+            int indice = (posicion >>> nivel) & MASCARA;
+            copia[indice] = sustituir(nivel - BITS, (Object[]) nodo[indice], posicion, elemento);
+        }
+        return copia;
+    }
+
+    // devuelve una lista sin el último elemento
+    public VectorPersistente<T> quitarUltimo() {
+        if (tamanio == 0) {
+            throw new IllegalStateException("La lista está vacía.");
+        }
+        if (tamanio == 1) {
+            return vacio();
+        }
+        int enCola = tamanio - inicioCola();
+        if (enCola > 1) {
+            // se copia la cola para no dejar el elemento quitado en la de esta versión nueva
+            Object[] nuevaCola = new Object[ANCHO];
+            System.arraycopy(cola, 0, nuevaCola, 0, enCola - 1);
+            return new VectorPersistente<>(tamanio - 1, desplazamiento, raiz, nuevaCola);
+        }
+        // la cola se queda vacía: la última hoja del árbol pasa a ser la cola
+        Object[] nuevaCola = hoja(tamanio - 2);
+        Object[] nuevaRaiz = quitarHoja(desplazamiento, raiz);
+        int nuevoDesplazamiento = desplazamiento;
+        if (nuevaRaiz == null) {
+            nuevaRaiz = new Object[ANCHO];
+        } else if (desplazamiento > BITS && nuevaRaiz[1] == null) {
+            // la raíz se ha quedado con una sola rama: el árbol baja un nivel
+            nuevaRaiz = (Object[]) nuevaRaiz[0];
+            nuevoDesplazamiento -= BITS;
+        }
+        return new VectorPersistente<>(tamanio - 1, nuevoDesplazamiento, nuevaRaiz, nuevaCola);
+    }
+
+    // copia del nodo sin su última hoja, o null si se queda vacío
+    private Object[] quitarHoja(int nivel, Object[] nodo) {
+        int indice = ((tamanio - 2) >>> nivel) & MASCARA;
+        if (nivel > BITS) {
+            Object[] hijo = quitarHoja(nivel - BITS, (Object[]) nodo[indice]);
+            if (hijo == null && indice == 0) {
+                return null;
+            }
+            Object[] copia = nodo.clone();
+            copia[indice] = hijo;
+            return copia;
+        }
+        if (indice == 0) {
+            return null;
+        }
+        Object[] copia = nodo.clone();
+        copia[indice] = null;
+        return copia;
+    }
+
+    /**
+     * Devuelve una lista sin el elemento de esa posición, en O(log32 n): el
+     * último elemento pasa a ocupar su lugar. Quien guarde posiciones debe
+     * apuntar la nueva del que era el último.
+     */
+    public VectorPersistente<T> quitarIntercambiando(int posicion) {
+        Objects.checkIndex(posicion, tamanio);
+        VectorPersistente<T> sinUltimo = quitarUltimo();
+        if (posicion == tamanio - 1) {
+            return sinUltimo;
+        }
+        return sinUltimo.poner(posicion, get(tamanio - 1));
+    }
+
+    // recorre las hojas de 32 en 32 en lugar de bajar por el árbol en cada elemento
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int posicion;
+            private Object[] hojaActual = tamanio > 0 ? hoja(0) : SIN_COLA;
+
+            @Override
+            public boolean hasNext() {
+                return posicion < tamanio;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (posicion >= tamanio) {
+                    throw new NoSuchElementException();
+                }
+                if (posicion > 0 && (posicion & MASCARA) == 0) {
+                    hojaActual = hoja(posicion);
+                }
+                return (T) hojaActual[posicion++ & MASCARA];
+            }
+        };
+    }
+}
@@ -2,6 +2,19 @@
 import Gestion.GestorDatos;
 import Menus.MenuDesarrolladoras;
 import Menus.MenuVideojuegos;
+import Menus.ModoLotes;
+import Servidor.ServidorHTTP;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
@@ -16,12 +29,34 @@ import java.util.Scanner;
  * Contiene el menú principal y gestiona la ejecución completa del sistema.
  *
  * Al finalizar, guarda los datos en los archivos CSV.
+ *
+ * Con "--servidor [puerto]" no se muestra el menú: se arranca el servidor
+ * HTTP/JSON y los datos se guardan al detener el proceso.
+ *
+ * Con "--lotes [archivo]" se ejecutan las órdenes del archivo (o de la
+ * entrada estándar si no se indica) sin menús; ver Menus.ModoLotes. El
+ * programa termina con código 1 si alguna orden falló.
  */
 
 public class Main {
 
+    // búfer de la salida del modo por lotes: se vuelca a la consola en bloques grandes
+    private static final int TAMANIO_SALIDA_LOTES = 1 << 16;
+
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--servidor")) {
+            int puerto = args.length > 1 ? leerPuerto(args[1]) : ServidorHTTP.PUERTO_POR_DEFECTO;
+            iniciarServidor(new GestorDatos(), puerto);
+            return;
+        }
         GestorDatos gestor = new GestorDatos();
+        if (args.length > 0 && args[0].equals("--lotes")) {
+            int errores = ejecutarLotes(gestor, args.length > 1 ? args[1] : null);
+            if (errores != 0) {
+                System.exit(1);
+            }
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
 
         int opcion;
@@ -51,11 +86,75 @@ public class Main {
             }
         } while (opcion != 0);
 
-        gestor.guardarDatos();
+        boolean guardado = gestor.guardarDatos();
         scanner.close();
-        System.out.println("Datos guardados correctamente. ¡Hasta pronto!");
+        if (guardado) {
+            System.out.println("Datos guardados correctamente. ¡Hasta pronto!");
+        } else {
+            System.out.println("No se pudieron guardar los CSV; los cambios se recuperarán del diario al volver a arrancar.");
+        }
+    }
+
+
+    // antes de cargar los datos, para no hacer esperar a quien se equivocó al escribirlo
+    private static int leerPuerto(String texto) {
+        try {
+            int puerto = Integer.parseInt(texto);
+            if (puerto >= 0 && puerto <= 65535) {
+                return puerto;
+            }
+        } catch (NumberFormatException e) {
+            // se trata igual que un número fuera de rango
+        }
+        System.err.println("Puerto no válido: " + texto);
+        System.err.println("Uso: --servidor [puerto]   (puerto entre 0 y 65535, por defecto "
+                + ServidorHTTP.PUERTO_POR_DEFECTO + "; 0 elige uno libre)");
+        System.exit(1);
+        return -1;
+    }
+
+    private static void iniciarServidor(GestorDatos gestor, int puerto) {
+        ServidorHTTP servidor;
+        try {
+            servidor = new ServidorHTTP(gestor, puerto);
+        } catch (IOException e) {
+            System.err.println("No se pudo abrir el puerto " + puerto + ": " + e.getMessage());
+            return;
+        }
+        // al parar el proceso (Ctrl+C) se deja de aceptar peticiones y se guardan los datos
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener();
+            if (gestor.guardarDatos()) {
+                System.out.println("Servidor detenido. Datos guardados correctamente.");
+            } else {
+                System.out.println("No se pudieron guardar los CSV; los cambios se recuperarán del diario al volver a arrancar.");
+            }
+        }));
+        servidor.iniciar();
+        System.out.println("Servidor escuchando en http://localhost:" + servidor.getPuerto() + " (Ctrl+C para detener)");
     }
 
+    // devuelve cuántas órdenes fallaron (o 1 si no se pudo leer el archivo)
+    private static int ejecutarLotes(GestorDatos gestor, String archivo) {
+        Writer salida = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), TAMANIO_SALIDA_LOTES);
+        int errores;
+        try (BufferedReader entrada = archivo == null
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(archivo), StandardCharsets.UTF_8)) {
+            errores = new ModoLotes(gestor, salida).ejecutar(entrada);
+        } catch (IOException e) {
+            System.err.println("Error al ejecutar las órdenes: " + e.getMessage());
+            return 1;
+        }
+        if (!gestor.guardarDatos()) {
+            System.err.println("No se pudieron guardar los CSV; los cambios se recuperarán del diario al volver a arrancar.");
+        }
+        if (errores != 0) {
+            System.err.println(errores + " órdenes fallaron.");
+        }
+        return errores;
+    }
 
     private static int leerEntero(Scanner scanner, String mensaje) {
         while (true) {
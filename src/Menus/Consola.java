@@ -0,0 +1,90 @@
+package Menus;
+
+import Gestion.Pagina;
+import Gestion.ResultadoImportacion;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Scanner;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+
+/**
+ * Partes de la interacción por consola que comparten los dos menús: el
+ * recorrido de un listado por páginas y el resumen de una importación.
+ */
+
+final class Consola {
+
+    private static final int MAX_RECHAZADAS_MOSTRADAS = 20;
+    private static final int ANCHO_SEPARADOR = 70;
+
+    private Consola() {
+    }
+
+    /**
+     * Muestra la primera página y pregunta si se pasa a la siguiente, se
+     * vuelve a la anterior o se sale. 'consulta' devuelve la página que
+     * empieza en un cursor e 'imprimir' escribe sus elementos.
+     */
+    static <T> void paginar(Scanner scanner, IntFunction<Pagina<T>> consulta, Consumer<List<T>> imprimir,
+            String titulo, String sinResultados) {
+        // cursores con los que empezó cada página ya vista, para poder retroceder
+        Deque<Integer> anteriores = new ArrayDeque<>();
+        int cursor = Pagina.INICIO;
+        while (true) {
+            Pagina<T> pagina = consulta.apply(cursor);
+            if (pagina.estaVacia() && anteriores.isEmpty()) {
+                System.out.println("\n" + sinResultados);
+                esperarEnter(scanner);
+                return;
+            }
+            System.out.println("\n" + titulo + " (página " + (anteriores.size() + 1) + "):");
+            System.out.println("-".repeat(ANCHO_SEPARADOR));
+            imprimir.accept(pagina.getElementos());
+            System.out.println("-".repeat(ANCHO_SEPARADOR));
+
+            StringBuilder opciones = new StringBuilder();
+            if (pagina.haySiguiente()) {
+                opciones.append("s = siguiente, ");
+            }
+            if (!anteriores.isEmpty()) {
+                opciones.append("a = anterior, ");
+            }
+            System.out.print(opciones + "ENTER = volver: ");
+            String respuesta = scanner.nextLine().trim().toLowerCase();
+            if (respuesta.equals("s") && pagina.haySiguiente()) {
+                anteriores.push(cursor);
+                cursor = pagina.getCursorSiguiente();
+            } else if (respuesta.equals("a") && !anteriores.isEmpty()) {
+                cursor = anteriores.pop();
+            } else if (respuesta.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    // filas importadas y, si las hay, las primeras rechazadas con su motivo
+    static void mostrarImportacion(ResultadoImportacion resultado) {
+        System.out.println("Filas importadas: " + resultado.getImportadas());
+        List<String> rechazadas = resultado.getRechazadas();
+        if (rechazadas.isEmpty()) {
+            return;
+        }
+        System.out.println("Filas rechazadas: " + rechazadas.size());
+        System.out.println("-".repeat(ANCHO_SEPARADOR));
+        for (int i = 0; i < Math.min(rechazadas.size(), MAX_RECHAZADAS_MOSTRADAS); i++) {
+            System.out.println(rechazadas.get(i));
+        }
+        if (rechazadas.size() > MAX_RECHAZADAS_MOSTRADAS) {
+            System.out.println("... y " + (rechazadas.size() - MAX_RECHAZADAS_MOSTRADAS) + " más.");
+        }
+        System.out.println("-".repeat(ANCHO_SEPARADOR));
+    }
+
+    static void esperarEnter(Scanner scanner) {
+        System.out.print("\nPresione ENTER para continuar...");
+        scanner.nextLine();
+    }
+}
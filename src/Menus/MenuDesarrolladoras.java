@@ -3,6 +3,9 @@ package Menus;
 
 import Excepciones.DesarrolladoraNoEncontradaException;
 import Gestion.GestorDatos;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import Entidades.Desarrolladora;
 import java.util.*;
 
@@ -16,6 +19,8 @@ import java.util.*;
 
 public class MenuDesarrolladoras {
 
+    private static final int TAMANIO_PAGINA = 20;
+
     private final GestorDatos gestor;
     private final Scanner scanner;
 
@@ -36,9 +41,10 @@ public class MenuDesarrolladoras {
             System.out.println("4. Buscar desarrolladora por ID");
             System.out.println("5. Modificar una desarrolladora");
             System.out.println("6. Eliminar una desarrolladora");
+            System.out.println("7. Importar desarrolladoras desde un CSV");
             System.out.println("0. Volver al menú principal");
             System.out.println("*".repeat(50));
-            opcion = leerEntero("Seleccione una opción 0-6: ");
+            opcion = leerEntero("Seleccione una opción 0-7: ");
 
             switch (opcion) {
                 case 1:
@@ -59,28 +65,23 @@ public class MenuDesarrolladoras {
                 case 6:
                     eliminar();
                     break;
+                case 7:
+                    importar();
+                    break;
                 case 0:
                     System.out.println("Volviendo al menú principal...");
                     break;
                 default:
-                    System.out.println("Opción no válida. Introduzca una opción 1 - 6.");
+                    System.out.println("Opción no válida. Introduzca una opción 1 - 7.");
             }
         } while (opcion != 0);
     }
 
+    // se muestran por páginas, ordenadas por ID
     private void listarTodas() {
-        List<Desarrolladora> lista = gestor.listarTodasLasDesarrolladoras();
-        if (lista.isEmpty()) {
-            System.out.println("\nNo hay ninguna desarrolladora registrada.");
-        } else {
-            System.out.println("\nDesarrolladoras disponibles:");
-            System.out.println("-".repeat(62));
-            for (Desarrolladora desarrolladora : lista) {
-                System.out.println(desarrolladora);
-            }
-            System.out.println("-".repeat(62));
-        }
-        esperarEnter();
+        Consola.paginar(scanner, cursor -> gestor.listarDesarrolladoras(cursor, TAMANIO_PAGINA),
+                pagina -> pagina.forEach(System.out::println),
+                "Desarrolladoras disponibles", "No hay ninguna desarrolladora registrada.");
     }
 
     private void añadirNueva() {
@@ -185,6 +186,18 @@ public class MenuDesarrolladoras {
             System.out.print("¿Está seguro? Introduzca si / no: ");
             String confirmacion = scanner.nextLine().toLowerCase();
             if (confirmacion.equals("si")) {
+                int asociados = gestor.contarVideojuegosDeDesarrolladora(id);
+                if (asociados > 0) {
+                    System.out.println("La desarrolladora tiene " + asociados + " videojuego(s) asociado(s).");
+                    System.out.print("¿Eliminar también sus videojuegos? Introduzca si / no: ");
+                    String cascada = scanner.nextLine().toLowerCase();
+                    if (cascada.equals("si")) {
+                        int borrados = gestor.eliminarDesarrolladoraEnCascada(id);
+                        System.out.println("Desarrolladora eliminada junto con " + borrados + " videojuego(s).");
+                        esperarEnter();
+                        return;
+                    }
+                }
                 gestor.eliminarDesarrolladora(id);
                 System.out.println("Desarrolladora eliminada correctamente.");
             } else {
@@ -209,9 +222,24 @@ public class MenuDesarrolladoras {
         }
     }
 
+    private void importar() {
+        System.out.println("\n--- Importar desarrolladoras desde un CSV ---");
+        System.out.println("Formato de cada línea: nombre,pais (sin cabecera)");
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        System.out.println("Ruta del archivo: ");
+        String ruta = scanner.nextLine().trim();
+        if (esVolver(ruta) || ruta.isEmpty()) return;
+
+        try {
+            Consola.mostrarImportacion(gestor.importarDesarrolladoras(Paths.get(ruta)));
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Error: no se pudo leer el archivo: " + e.getMessage());
+        }
+        esperarEnter();
+    }
+
     private void esperarEnter() {
-        System.out.print("\nPresione ENTER para continuar...");
-        scanner.nextLine();
+        Consola.esperarEnter(scanner);
     }
 
     private boolean esVolver(String entrada) {
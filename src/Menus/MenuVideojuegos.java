@@ -1,28 +1,41 @@
 
 package Menus;
 
+import Excepciones.DesarrolladoraNoEncontradaException;
 import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.Consulta;
 import Gestion.GestorDatos;
+import Gestion.Pagina;
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import Entidades.Desarrolladora;
 import Entidades.Videojuego;
 import java.util.*;
+import java.util.function.IntFunction;
 
 /**
  * Menú interactivo para gestionar videojuegos.
  *
- * Incluye búsquedas parametrizadas y la búsqueda combinada por desarrolladora.
+ * Incluye búsquedas parametrizadas, la búsqueda combinada por desarrolladora
+ * y una búsqueda avanzada que junta varios criterios en una sola Consulta.
  *
- * Todas las búsquedas muestran todos los resultados y permiten volver atrás.
+ * El listado y las búsquedas muestran los resultados por páginas, ordenados
+ * por ID, y permiten avanzar, retroceder o volver atrás.
  */
 
 public class MenuVideojuegos {
 
+    private static final int TAMANIO_PAGINA = 20;
+
     private final GestorDatos gestor;
     private final Scanner scanner;
+    private final RenderizadorVideojuegos renderizador;
 
     public MenuVideojuegos(GestorDatos gestor, Scanner scanner) {
         this.gestor = gestor;
         this.scanner = scanner;
+        this.renderizador = new RenderizadorVideojuegos(gestor);
     }
 
     public void mostrarMenu() {
@@ -37,11 +50,15 @@ public class MenuVideojuegos {
             System.out.println("4. Buscar videojuegos por género");
             System.out.println("5. Buscar videojuegos por nombre de desarrolladora");
             System.out.println("6. Buscar videojuego por ID");
-            System.out.println("7. Modificar un videojuego");
-            System.out.println("8. Eliminar un videojuego");
+            System.out.println("7. Buscar videojuegos por rango de años");
+            System.out.println("8. Modificar un videojuego");
+            System.out.println("9. Eliminar un videojuego");
+            System.out.println("10. Importar videojuegos desde un CSV");
+            System.out.println("11. Operaciones masivas");
+            System.out.println("12. Búsqueda avanzada (varios criterios)");
             System.out.println("0. Volver al menú principal");
             System.out.println("*".repeat(50));
-            opcion = leerEntero("Seleccione una opción 0-8: ");
+            opcion = leerEntero("Seleccione una opción 0-12: ");
 
             switch (opcion) {
                 case 1:
@@ -63,11 +80,23 @@ public class MenuVideojuegos {
                     buscarPorId();
                     break;
                 case 7:
-                    modificar();
+                    buscarPorRangoAnios();
                     break;
                 case 8:
+                    modificar();
+                    break;
+                case 9:
                     eliminar();
                     break;
+                case 10:
+                    importar();
+                    break;
+                case 11:
+                    operacionesMasivas();
+                    break;
+                case 12:
+                    busquedaAvanzada();
+                    break;
                 case 0:
                     System.out.println("Volviendo al menú principal...");
                     break;
@@ -78,19 +107,13 @@ public class MenuVideojuegos {
     }
 
     private void listarTodos() {
-        List<Videojuego> lista = gestor.listarTodosLosVideojuegos();
-        if (lista.isEmpty()) {
+        if (gestor.listarVideojuegos(Pagina.INICIO, 1).estaVacia()) {
             System.out.println("\nNo hay ningún videojuego registrado.");
-        } else {
-            System.out.println("\nVideojuegos disponibles:");
-            System.out.println("-".repeat(126));
-            for (Videojuego v : lista) {
-                String nombreDesa = gestor.obtenerNombreDesarrolladora(v.getIdDesarrolladora());
-                System.out.println(v + " | Desarrolladora: " + nombreDesa);
-            }
-            System.out.println("-".repeat(126));
+            esperarEnter();
+            return;
         }
-        esperarEnter();
+        System.out.println("\nVideojuegos disponibles:");
+        mostrarPaginado(cursor -> gestor.listarVideojuegos(cursor, TAMANIO_PAGINA));
     }
 
     private void añadirNuevo() {
@@ -170,9 +193,7 @@ public class MenuVideojuegos {
         String busqueda = leerString();
         if (esVolver(busqueda)) return;
 
-        List<Videojuego> resultados = gestor.buscarVideojuegosPorTitulo(busqueda);
-        mostrarResultadosVideojuegos(resultados);
-        esperarEnter();
+        mostrarPaginado(cursor -> gestor.buscarVideojuegosPorTitulo(busqueda, cursor, TAMANIO_PAGINA));
     }
 
     private void buscarPorGenero() {
@@ -182,9 +203,7 @@ public class MenuVideojuegos {
         String busqueda = leerString();
         if (esVolver(busqueda)) return;
 
-        List<Videojuego> resultados = gestor.buscarVideojuegosPorGenero(busqueda);
-        mostrarResultadosVideojuegos(resultados);
-        esperarEnter();
+        mostrarPaginado(cursor -> gestor.buscarVideojuegosPorGenero(busqueda, cursor, TAMANIO_PAGINA));
     }
 
     private void buscarPorDesarrolladora() {
@@ -194,9 +213,7 @@ public class MenuVideojuegos {
         String busqueda = leerString();
         if (esVolver(busqueda)) return;
 
-        List<Videojuego> resultados = gestor.buscarVideojuegosPorDesarrolladora(busqueda);
-        mostrarResultadosVideojuegos(resultados);
-        esperarEnter();
+        mostrarPaginado(cursor -> gestor.buscarVideojuegosPorDesarrolladora(busqueda, cursor, TAMANIO_PAGINA));
     }
 
     private void buscarPorId() {
@@ -216,6 +233,87 @@ public class MenuVideojuegos {
         esperarEnter();
     }
 
+    private void buscarPorRangoAnios() {
+        System.out.println("\n--- Buscar videojuegos por rango de años ---");
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        int desde = leerEntero("Desde el año: ");
+        if (desde == 0) return;
+        int hasta = leerEntero("Hasta el año: ");
+        if (hasta == 0) return;
+
+        if (desde > hasta) {
+            System.out.println("Error: El año inicial no puede ser mayor que el año final.");
+            esperarEnter();
+            return;
+        }
+        mostrarPaginado(cursor -> gestor.buscarVideojuegosPorRangoAnio(desde, hasta, cursor, TAMANIO_PAGINA));
+    }
+
+    private void busquedaAvanzada() {
+        System.out.println("\n--- Búsqueda avanzada ---");
+        System.out.println("Deje vacío un criterio para no usarlo.");
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        List<Consulta> criterios = new ArrayList<>();
+
+        System.out.println("Título contiene: ");
+        String titulo = leerString();
+        if (esVolver(titulo)) return;
+        if (!titulo.isEmpty()) criterios.add(Consulta.titulo(titulo));
+
+        System.out.println("Género contiene: ");
+        String genero = leerString();
+        if (esVolver(genero)) return;
+        if (!genero.isEmpty()) criterios.add(Consulta.genero(genero));
+
+        Integer desde = leerEnteroOpcional("Desde el año: ");
+        if (desde != null && desde == 0) return;
+        Integer hasta = leerEnteroOpcional("Hasta el año: ");
+        if (hasta != null && hasta == 0) return;
+        if (desde != null || hasta != null) {
+            int inicioRango = desde != null ? desde : Integer.MIN_VALUE;
+            int finRango = hasta != null ? hasta : Integer.MAX_VALUE;
+            if (inicioRango > finRango) {
+                System.out.println("Error: El año inicial no puede ser mayor que el año final.");
+                esperarEnter();
+                return;
+            }
+            criterios.add(Consulta.anios(inicioRango, finRango));
+        }
+
+        System.out.println("Nombre de la desarrolladora contiene: ");
+        String nombre = leerString();
+        if (esVolver(nombre)) return;
+        if (!nombre.isEmpty()) criterios.add(Consulta.nombreDesarrolladora(nombre));
+
+        System.out.println("País de la desarrolladora contiene: ");
+        String pais = leerString();
+        if (esVolver(pais)) return;
+        if (!pais.isEmpty()) criterios.add(Consulta.paisDesarrolladora(pais));
+
+        Integer idDesarrolladora = leerEnteroOpcional("ID de la desarrolladora: ");
+        if (idDesarrolladora != null && idDesarrolladora == 0) return;
+        if (idDesarrolladora != null) criterios.add(Consulta.idDesarrolladora(idDesarrolladora));
+
+        if (criterios.isEmpty()) {
+            System.out.println("No ha indicado ningún criterio.");
+            esperarEnter();
+            return;
+        }
+        Consulta[] array = criterios.toArray(new Consulta[0]);
+        Consulta consulta = Consulta.y(array);
+        if (criterios.size() > 1) {
+            System.out.print("¿Deben cumplirse todos los criterios o basta con uno? Introduzca --> todos / uno: ");
+            if (scanner.nextLine().trim().toLowerCase().equals("uno")) {
+                consulta = Consulta.o(array);
+            }
+        }
+
+        System.out.println("\nConsulta: " + consulta);
+        System.out.print(gestor.explicarConsulta(consulta));
+        Consulta elegida = consulta;
+        mostrarPaginado(cursor -> gestor.buscarVideojuegos(elegida, cursor, TAMANIO_PAGINA));
+    }
+
     private void modificar() {
         System.out.println("\n        --- Modificar videojuego ---");
         System.out.println("--------------------------------------------------");
@@ -337,23 +435,135 @@ public class MenuVideojuegos {
         esperarEnter();
     }
 
+    private void importar() {
+        System.out.println("\n--- Importar videojuegos desde un CSV ---");
+        System.out.println("Formato de cada línea: titulo,genero,año,idDesarrolladora (sin cabecera)");
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        System.out.println("Ruta del archivo: ");
+        String ruta = scanner.nextLine().trim();
+        if (esVolver(ruta) || ruta.isEmpty()) return;
+
+        try {
+            Consola.mostrarImportacion(gestor.importarVideojuegos(Paths.get(ruta)));
+        } catch (InvalidPathException | IOException e) {
+            System.out.println("Error: no se pudo leer el archivo: " + e.getMessage());
+        }
+        esperarEnter();
+    }
+
+    private void operacionesMasivas() {
+        System.out.println("\n--- Operaciones masivas ---");
+        System.out.println("1. Eliminar todos los videojuegos de una desarrolladora");
+        System.out.println("2. Cambiar el género de todos los videojuegos de un género");
+        System.out.println("3. Eliminar todos los videojuegos anteriores a un año");
+        System.out.println("0. Volver");
+        int opcion = leerEntero("Seleccione una opción 0-3: ");
+        switch (opcion) {
+            case 1:
+                eliminarDeDesarrolladora();
+                break;
+            case 2:
+                cambiarGenero();
+                break;
+            case 3:
+                eliminarAnterioresA();
+                break;
+            case 0:
+                return;
+            default:
+                System.out.println("Opción no válida.");
+        }
+        esperarEnter();
+    }
+
+    private void eliminarDeDesarrolladora() {
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        int idDesarrolladora = leerEntero("ID de la desarrolladora: ");
+        if (idDesarrolladora == 0) return;
+
+        int afectados = gestor.contarVideojuegosDeDesarrolladora(idDesarrolladora);
+        if (afectados == 0) {
+            System.out.println("Esa desarrolladora no tiene videojuegos.");
+            return;
+        }
+        String nombreDesa = gestor.obtenerNombreDesarrolladora(idDesarrolladora);
+        if (!confirmar("Se eliminarán " + afectados + " videojuegos de " + nombreDesa + ".")) return;
+        try {
+            int borrados = gestor.eliminarVideojuegosDeDesarrolladora(idDesarrolladora);
+            System.out.println("Videojuegos eliminados: " + borrados);
+        } catch (DesarrolladoraNoEncontradaException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void cambiarGenero() {
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        System.out.println("Introduzca parte del género actual,\nse buscarán coincidencias: ");
+        String genero = leerString();
+        if (esVolver(genero)) return;
+
+        int afectados = gestor.contarVideojuegosPorGenero(genero);
+        if (afectados == 0) {
+            System.out.println("No hay videojuegos con ese género.");
+            return;
+        }
+        System.out.println("Nuevo género: ");
+        String generoNuevo = leerString();
+        if (esVolver(generoNuevo)) return;
+
+        if (!confirmar("Se cambiará el género de " + afectados + " videojuegos a '" + generoNuevo + "'.")) return;
+        try {
+            int cambiados = gestor.cambiarGeneroDeVideojuegos(genero, generoNuevo);
+            System.out.println("Videojuegos modificados: " + cambiados);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+        }
+    }
+
+    private void eliminarAnterioresA() {
+        System.out.println("Para volver al menú anterior, introduzca 0 ---->");
+        int anio = leerEntero("Eliminar los videojuegos lanzados antes del año: ");
+        if (anio == 0) return;
+
+        int afectados = gestor.contarVideojuegosAnterioresA(anio);
+        if (afectados == 0) {
+            System.out.println("No hay videojuegos anteriores a " + anio + ".");
+            return;
+        }
+        if (!confirmar("Se eliminarán " + afectados + " videojuegos anteriores a " + anio + ".")) return;
+        int borrados = gestor.eliminarVideojuegosAnterioresA(anio);
+        System.out.println("Videojuegos eliminados: " + borrados);
+    }
+
+    private boolean confirmar(String aviso) {
+        System.out.println(aviso);
+        System.out.print("¿Está seguro? Introduzca --> si / no: ");
+        if (scanner.nextLine().toLowerCase().equals("si")) {
+            return true;
+        }
+        System.out.println("Operación cancelada.");
+        return false;
+    }
+
     private void mostrarResultadosVideojuegos(List<Videojuego> resultados) {
         if (resultados.isEmpty()) {
             System.out.println("No se encontraron videojuegos que coincidan con su búsqueda.");
         } else {
             System.out.println("\nResultados encontrados (" + resultados.size() + "):");
             System.out.println("-".repeat(70));
-            for (Videojuego v : resultados) {
-                String nombreDesa = gestor.obtenerNombreDesarrolladora(v.getIdDesarrolladora());
-                System.out.println(v + " | Desarrolladora: " + nombreDesa);
-            }
+            renderizador.imprimir(resultados, System.out);
             System.out.println("-".repeat(70));
         }
     }
 
+    // muestra una página y pregunta si se pasa a la siguiente o se vuelve a la anterior
+    private void mostrarPaginado(IntFunction<Pagina<Videojuego>> consulta) {
+        Consola.paginar(scanner, consulta, pagina -> renderizador.imprimir(pagina, System.out),
+                "Resultados", "No se encontraron videojuegos que coincidan con su búsqueda.");
+    }
+
     private void esperarEnter() {
-        System.out.print("\nPresione ENTER para continuar...");
-        scanner.nextLine();
+        Consola.esperarEnter(scanner);
     }
 
     private boolean esVolver(String entrada) {
@@ -376,6 +586,22 @@ public class MenuVideojuegos {
         }
     }
 
+    // null si se deja vacío
+    private Integer leerEnteroOpcional(String mensaje) {
+        while (true) {
+            System.out.print(mensaje);
+            String entrada = scanner.nextLine().trim();
+            if (entrada.isEmpty()) {
+                return null;
+            }
+            try {
+                return Integer.parseInt(entrada);
+            } catch (NumberFormatException e) {
+                System.out.println("Entrada no válida. Por favor, introduzca un número entero.");
+            }
+        }
+    }
+
     private String leerString() {
         while (true) {
             String entrada = scanner.nextLine();
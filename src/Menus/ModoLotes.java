@@ -0,0 +1,354 @@
+package Menus;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import Excepciones.DesarrolladoraNoEncontradaException;
+import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.GestorDatos;
+import Gestion.ResultadoImportacion;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modo por lotes: ejecuta órdenes leídas de un archivo o de la entrada
+ * estándar, una por línea, sin menús ni pausas. Pensado para tareas
+ * programadas con muchas operaciones seguidas.
+ *
+ * Toda la salida pasa por un único Writer con búfer grande, así que no se
+ * vuelca a la consola en cada línea. Si una orden falla se escribe
+ * "ERROR línea N: motivo" y se sigue con la siguiente.
+ *
+ * Órdenes (los textos con espacios van entre comillas; "-" deja un campo
+ * como estaba al modificar; las líneas que empiezan por # se ignoran):
+ *
+ *   listar videojuegos | desarrolladoras
+ *   añadir videojuego <titulo> <genero> <año> <idDesarrolladora>
+ *   añadir desarrolladora <nombre> <pais>
+ *   buscar titulo | genero | desarrolladora <texto>
+ *   buscar años <desde> <hasta>
+ *   buscar videojuego | desarrolladora <id>
+ *   buscar nombre <texto>                       (desarrolladoras)
+ *   modificar videojuego <id> <titulo> <genero> <año> <idDesarrolladora>
+ *   modificar desarrolladora <id> <nombre> <pais>
+ *   eliminar videojuego <id>
+ *   eliminar desarrolladora <id> [cascada]
+ *   importar videojuegos | desarrolladoras <ruta>
+ *   guardar
+ */
+
+public class ModoLotes {
+
+    private static final String MANTENER = "-";
+
+    private final GestorDatos gestor;
+    private final Writer salida;
+    private final RenderizadorVideojuegos renderizador;
+    private long numeroLinea;
+    private int errores;
+
+    public ModoLotes(GestorDatos gestor, Writer salida) {
+        this.gestor = gestor;
+        this.salida = salida;
+        this.renderizador = new RenderizadorVideojuegos(gestor);
+    }
+
+    // ejecuta todas las órdenes y devuelve cuántas fallaron
+    public int ejecutar(BufferedReader entrada) throws IOException {
+        String linea;
+        while ((linea = entrada.readLine()) != null) {
+            numeroLinea++;
+            List<String> partes;
+            try {
+                partes = separar(linea);
+            } catch (IllegalArgumentException e) {
+                error(e.getMessage());
+                continue;
+            }
+            if (partes.isEmpty() || partes.get(0).startsWith("#")) {
+                continue;
+            }
+            try {
+                ejecutar(partes);
+            } catch (VideojuegoNoEncontradoException | DesarrolladoraNoEncontradaException | IllegalArgumentException e) {
+                error(e.getMessage());
+            }
+        }
+        salida.flush();
+        return errores;
+    }
+
+    private void ejecutar(List<String> partes)
+            throws IOException, VideojuegoNoEncontradoException, DesarrolladoraNoEncontradaException {
+        String orden = partes.get(0).toLowerCase();
+        switch (orden) {
+            case "listar":
+                listar(partes);
+                break;
+            case "añadir":
+            case "anadir":
+                añadir(partes);
+                break;
+            case "buscar":
+                buscar(partes);
+                break;
+            case "modificar":
+                modificar(partes);
+                break;
+            case "eliminar":
+                eliminar(partes);
+                break;
+            case "importar":
+                importar(partes);
+                break;
+            case "guardar":
+                comprobarArgumentos(partes, 1);
+                if (gestor.guardarDatos()) {
+                    escribir("Datos guardados.");
+                } else {
+                    error("No se pudieron guardar los CSV.");
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Orden desconocida: " + partes.get(0));
+        }
+    }
+
+    private void listar(List<String> partes) throws IOException {
+        comprobarArgumentos(partes, 2);
+        String que = partes.get(1).toLowerCase();
+        if (que.equals("videojuegos")) {
+            escribirVideojuegos(gestor.listarTodosLosVideojuegos());
+        } else if (que.equals("desarrolladoras")) {
+            escribirDesarrolladoras(gestor.listarTodasLasDesarrolladoras());
+        } else {
+            throw new IllegalArgumentException("Se puede listar videojuegos o desarrolladoras.");
+        }
+    }
+
+    private void añadir(List<String> partes) throws IOException {
+        String que = argumento(partes, 1).toLowerCase();
+        if (que.equals("videojuego")) {
+            comprobarArgumentos(partes, 6);
+            Videojuego v = gestor.agregarVideojuego(partes.get(2), partes.get(3),
+                    entero(partes.get(4)), entero(partes.get(5)));
+            escribir("Añadido: " + v);
+        } else if (que.equals("desarrolladora")) {
+            comprobarArgumentos(partes, 4);
+            Desarrolladora d = gestor.agregarDesarrolladora(partes.get(2), partes.get(3));
+            escribir("Añadida: " + d);
+        } else {
+            throw new IllegalArgumentException("Se puede añadir un videojuego o una desarrolladora.");
+        }
+    }
+
+    private void buscar(List<String> partes)
+            throws IOException, VideojuegoNoEncontradoException, DesarrolladoraNoEncontradaException {
+        String por = argumento(partes, 1).toLowerCase();
+        switch (por) {
+            case "titulo":
+            case "título":
+                comprobarArgumentos(partes, 3);
+                escribirVideojuegos(gestor.buscarVideojuegosPorTitulo(partes.get(2)));
+                break;
+            case "genero":
+            case "género":
+                comprobarArgumentos(partes, 3);
+                escribirVideojuegos(gestor.buscarVideojuegosPorGenero(partes.get(2)));
+                break;
+            case "desarrolladora":
+                // con un número es la búsqueda por ID, con texto la combinada por nombre
+                comprobarArgumentos(partes, 3);
+                if (partes.get(2).matches("\\d+")) {
+                    escribir(gestor.obtenerDesarrolladoraPorId(entero(partes.get(2))).toString());
+                } else {
+                    escribirVideojuegos(gestor.buscarVideojuegosPorDesarrolladora(partes.get(2)));
+                }
+                break;
+            case "años":
+            case "anios":
+                comprobarArgumentos(partes, 4);
+                escribirVideojuegos(gestor.buscarVideojuegosPorRangoAnio(entero(partes.get(2)), entero(partes.get(3))));
+                break;
+            case "videojuego":
+                comprobarArgumentos(partes, 3);
+                Videojuego v = gestor.obtenerVideojuegoPorId(entero(partes.get(2)));
+                escribir(v + " | Desarrolladora: " + gestor.obtenerNombreDesarrolladora(v.getIdDesarrolladora()));
+                break;
+            case "nombre":
+                comprobarArgumentos(partes, 3);
+                escribirDesarrolladoras(gestor.buscarDesarrolladorasPorNombre(partes.get(2)));
+                break;
+            default:
+                throw new IllegalArgumentException("Búsqueda desconocida: " + partes.get(1));
+        }
+    }
+
+    private void modificar(List<String> partes)
+            throws IOException, VideojuegoNoEncontradoException, DesarrolladoraNoEncontradaException {
+        String que = argumento(partes, 1).toLowerCase();
+        if (que.equals("videojuego")) {
+            comprobarArgumentos(partes, 7);
+            int id = entero(partes.get(2));
+            Videojuego actual = gestor.obtenerVideojuegoPorId(id);
+            gestor.modificarVideojuego(id,
+                    campo(partes.get(3), actual.getTitulo()),
+                    campo(partes.get(4), actual.getGenero()),
+                    partes.get(5).equals(MANTENER) ? actual.getAnio() : entero(partes.get(5)),
+                    partes.get(6).equals(MANTENER) ? actual.getIdDesarrolladora() : entero(partes.get(6)));
+            escribir("Modificado: " + gestor.obtenerVideojuegoPorId(id));
+        } else if (que.equals("desarrolladora")) {
+            comprobarArgumentos(partes, 5);
+            int id = entero(partes.get(2));
+            Desarrolladora actual = gestor.obtenerDesarrolladoraPorId(id);
+            gestor.modificarDesarrolladora(id, campo(partes.get(3), actual.getNombre()), campo(partes.get(4), actual.getPais()));
+            escribir("Modificada: " + gestor.obtenerDesarrolladoraPorId(id));
+        } else {
+            throw new IllegalArgumentException("Se puede modificar un videojuego o una desarrolladora.");
+        }
+    }
+
+    private void eliminar(List<String> partes)
+            throws IOException, VideojuegoNoEncontradoException, DesarrolladoraNoEncontradaException {
+        String que = argumento(partes, 1).toLowerCase();
+        if (que.equals("videojuego")) {
+            comprobarArgumentos(partes, 3);
+            int id = entero(partes.get(2));
+            gestor.eliminarVideojuego(id);
+            escribir("Eliminado el videojuego " + id);
+        } else if (que.equals("desarrolladora")) {
+            int id = entero(argumento(partes, 2));
+            if (partes.size() == 4 && partes.get(3).equalsIgnoreCase("cascada")) {
+                int borrados = gestor.eliminarDesarrolladoraEnCascada(id);
+                escribir("Eliminada la desarrolladora " + id + " y " + borrados + " videojuegos");
+            } else {
+                comprobarArgumentos(partes, 3);
+                gestor.eliminarDesarrolladora(id);
+                escribir("Eliminada la desarrolladora " + id);
+            }
+        } else {
+            throw new IllegalArgumentException("Se puede eliminar un videojuego o una desarrolladora.");
+        }
+    }
+
+    private void importar(List<String> partes) throws IOException {
+        comprobarArgumentos(partes, 3);
+        String que = partes.get(1).toLowerCase();
+        ResultadoImportacion resultado;
+        try {
+            if (que.equals("videojuegos")) {
+                resultado = gestor.importarVideojuegos(Paths.get(partes.get(2)));
+            } else if (que.equals("desarrolladoras")) {
+                resultado = gestor.importarDesarrolladoras(Paths.get(partes.get(2)));
+            } else {
+                throw new IllegalArgumentException("Se pueden importar videojuegos o desarrolladoras.");
+            }
+        } catch (InvalidPathException | IOException e) {
+            error("No se pudo leer el archivo: " + e.getMessage());
+            return;
+        }
+        escribir("Importadas: " + resultado.getImportadas() + ", rechazadas: " + resultado.getRechazadas().size());
+        for (String rechazada : resultado.getRechazadas()) {
+            escribir("  " + rechazada);
+        }
+    }
+
+    // ========== SALIDA ==========
+
+    private void escribirVideojuegos(List<Videojuego> videojuegos) throws IOException {
+        renderizador.escribir(videojuegos, salida);
+        escribir("(" + videojuegos.size() + " videojuegos)");
+    }
+
+    private void escribirDesarrolladoras(List<Desarrolladora> desarrolladoras) throws IOException {
+        for (Desarrolladora d : desarrolladoras) {
+            salida.write(d.toString());
+            salida.write('\n');
+        }
+        escribir("(" + desarrolladoras.size() + " desarrolladoras)");
+    }
+
+    private void escribir(String linea) throws IOException {
+        salida.write(linea);
+        salida.write('\n');
+    }
+
+    private void error(String motivo) throws IOException {
+        errores++;
+        escribir("ERROR línea " + numeroLinea + ": " + motivo);
+    }
+
+    // ========== ARGUMENTOS ==========
+
+    private static void comprobarArgumentos(List<String> partes, int esperados) {
+        if (partes.size() != esperados) {
+            throw new IllegalArgumentException("La orden '" + partes.get(0) + "' necesita " + (esperados - 1)
+                    + " argumentos y tiene " + (partes.size() - 1) + ".");
+        }
+    }
+
+    private static String argumento(List<String> partes, int posicion) {
+        if (partes.size() <= posicion) {
+            throw new IllegalArgumentException("Faltan argumentos en la orden '" + partes.get(0) + "'.");
+        }
+        return partes.get(posicion);
+    }
+
+    private static String campo(String valor, String actual) {
+        return valor.equals(MANTENER) ? actual : valor;
+    }
+
+    private static int entero(String valor) {
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un número entero: " + valor);
+        }
+    }
+
+    // separa la línea por espacios; "texto con espacios" cuenta como una sola parte y "" dentro es una comilla
+    static List<String> separar(String linea) {
+        List<String> partes = new ArrayList<>();
+        int i = 0;
+        int n = linea.length();
+        while (i < n) {
+            char c = linea.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            StringBuilder parte = new StringBuilder();
+            if (c == '"') {
+                i++;
+                while (true) {
+                    if (i >= n) {
+                        throw new IllegalArgumentException("Comillas sin cerrar.");
+                    }
+                    char d = linea.charAt(i);
+                    if (d == '"') {
+                        if (i + 1 < n && linea.charAt(i + 1) == '"') {
+                            parte.append('"');
+                            i += 2;
+                            continue;
+                        }
+                        i++;
+                        break;
+                    }
+                    parte.append(d);
+                    i++;
+                }
+            } else {
+                while (i < n && !Character.isWhitespace(linea.charAt(i))) {
+                    parte.append(linea.charAt(i));
+                    i++;
+                }
+            }
+            partes.add(parte.toString());
+        }
+        return partes;
+    }
+}
@@ -0,0 +1,60 @@
+package Menus;
+
+import Entidades.Videojuego;
+import Gestion.GestorDatos;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.util.List;
+
+
+/**
+ * Da formato a listados de videojuegos con el nombre de su desarrolladora.
+ *
+ * Los nombres de todo el listado se piden al gestor de una vez y las filas
+ * se montan en un StringBuilder que se reutiliza entre llamadas; después
+ * se escriben de golpe en lugar de con un println por fila.
+ */
+
+final class RenderizadorVideojuegos {
+
+    // al escribir en un Writer se vacía el texto cada vez que pasa de este tamaño
+    private static final int TAMANIO_TROZO = 1 << 16;
+
+    private final GestorDatos gestor;
+    private final StringBuilder texto = new StringBuilder(4096);
+
+    RenderizadorVideojuegos(GestorDatos gestor) {
+        this.gestor = gestor;
+    }
+
+    // todas las filas en una sola escritura a la consola
+    void imprimir(List<Videojuego> videojuegos, PrintStream destino) {
+        String[] nombres = gestor.obtenerNombresDesarrolladoras(videojuegos);
+        texto.setLength(0);
+        for (int i = 0; i < nombres.length; i++) {
+            fila(videojuegos.get(i), nombres[i]);
+        }
+        destino.append(texto);
+        destino.flush();
+    }
+
+    // para listados largos: el Writer ya tiene su búfer, aquí solo se le pasan trozos grandes
+    void escribir(List<Videojuego> videojuegos, Writer destino) throws IOException {
+        String[] nombres = gestor.obtenerNombresDesarrolladoras(videojuegos);
+        texto.setLength(0);
+        for (int i = 0; i < nombres.length; i++) {
+            fila(videojuegos.get(i), nombres[i]);
+            if (texto.length() >= TAMANIO_TROZO) {
+                destino.append(texto);
+                texto.setLength(0);
+            }
+        }
+        destino.append(texto);
+    }
+
+    private void fila(Videojuego v, String nombreDesarrolladora) {
+        v.anexarA(texto);
+        texto.append(" | Desarrolladora: ").append(nombreDesarrolladora).append('\n');
+    }
+}
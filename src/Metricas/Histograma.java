@@ -0,0 +1,149 @@
+package Metricas;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Histograma de latencias (u otros valores no negativos) con precisión
+ * relativa fija, al estilo de HdrHistogram pero mucho más simple.
+ *
+ * Los valores se reparten en cubos logarítmicos: cada potencia de 2 se
+ * divide en 32 cubos iguales, así que un percentil se conoce con un error
+ * de como mucho un 3 % (1/32) sea el valor de nanosegundos o de segundos.
+ * No crece por muchos valores que se registren: unos 8 KB más los cubos
+ * que se han usado, que con latencias reales suelen ser unas decenas.
+ *
+ * Registrar es seguro desde varios hilos a la vez y no usa cerrojos: cada
+ * cubo es un LongAdder, que reparte los incrementos simultáneos entre
+ * celdas en lugar de hacerlos competir por el mismo contador. Leer los
+ * percentiles mientras se registra da una foto aproximada.
+ */
+
+public final class Histograma {
+
+    // 2^BITS_SUBCUBO cubos por cada potencia de 2
+    private static final int BITS_SUBCUBO = 5;
+    private static final int SUBCUBOS = 1 << BITS_SUBCUBO;
+    // los valores menores que 2 * SUBCUBOS tienen un cubo cada uno
+    private static final int NUM_CUBOS = (Long.SIZE - BITS_SUBCUBO) * SUBCUBOS;
+
+    // cada cubo se crea la primera vez que cae un valor en él
+    private final AtomicReferenceArray<LongAdder> cubos = new AtomicReferenceArray<>(NUM_CUBOS);
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    public void registrar(long valor) {
+        if (valor < 0) {
+            valor = 0;
+        }
+        int i = cubo(valor);
+        LongAdder contador = cubos.get(i);
+        if (contador == null) {
+            contador = crearCubo(i);
+        }
+        contador.increment();
+        suma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    // añade a este los valores registrados en otro
+    public void sumar(Histograma otro) {
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            long n = contar(otro.cubos.get(i));
+            if (n != 0) {
+                LongAdder contador = cubos.get(i);
+                if (contador == null) {
+                    contador = crearCubo(i);
+                }
+                contador.add(n);
+            }
+        }
+        suma.add(otro.suma.sum());
+        maximo.accumulate(otro.maximo.get());
+    }
+
+    public void reiniciar() {
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            LongAdder contador = cubos.get(i);
+            if (contador != null) {
+                contador.reset();
+            }
+        }
+        suma.reset();
+        maximo.reset();
+    }
+
+    // suma de los cubos: no se lleva un contador aparte para no pagarlo en cada registro
+    public long getTotal() {
+        long n = 0;
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            n += contar(cubos.get(i));
+        }
+        return n;
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    public double getMedia() {
+        long n = getTotal();
+        return n == 0 ? 0 : (double) suma.sum() / n;
+    }
+
+    /**
+     * Valor por debajo del cual queda esa fracción de los registrados (0.99
+     * para el p99). Devuelve el límite superior del cubo, así que nunca se
+     * queda corto, y no pasa del máximo registrado.
+     */
+    public long percentil(double fraccion) {
+        if (fraccion < 0 || fraccion > 1) {
+            throw new IllegalArgumentException("El percentil debe estar entre 0 y 1: " + fraccion);
+        }
+        long n = getTotal();
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(fraccion * n));
+        long acumulado = 0;
+        for (int i = 0; i < NUM_CUBOS; i++) {
+            acumulado += contar(cubos.get(i));
+            if (acumulado >= objetivo) {
+                return Math.min(limiteSuperior(i), maximo.get());
+            }
+        }
+        return maximo.get();
+    }
+
+    // si otro hilo lo ha creado a la vez se usa el suyo
+    private LongAdder crearCubo(int i) {
+        LongAdder nuevo = new LongAdder();
+        LongAdder existente = cubos.compareAndExchange(i, null, nuevo);
+        return existente != null ? existente : nuevo;
+    }
+
+    private static long contar(LongAdder contador) {
+        return contador == null ? 0 : contador.sum();
+    }
+
+    private static int cubo(long valor) {
+        if (valor < 2 * SUBCUBOS) {
+            return (int) valor;
+        }
+        int exponente = Long.SIZE - 1 - Long.numberOfLeadingZeros(valor);
+        int subcubo = (int) (valor >>> (exponente - BITS_SUBCUBO)) & (SUBCUBOS - 1);
+        return (exponente - BITS_SUBCUBO + 1) * SUBCUBOS + subcubo;
+    }
+
+    private static long limiteSuperior(int cubo) {
+        if (cubo < 2 * SUBCUBOS) {
+            return cubo;
+        }
+        int exponente = cubo / SUBCUBOS + BITS_SUBCUBO - 1;
+        long subcubo = cubo % SUBCUBOS;
+        long inferior = (SUBCUBOS + subcubo) << (exponente - BITS_SUBCUBO);
+        return inferior + (1L << (exponente - BITS_SUBCUBO)) - 1;
+    }
+}
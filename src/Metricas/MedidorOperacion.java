@@ -0,0 +1,109 @@
+package Metricas;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Cuenta las llamadas a una operación y guarda su latencia en un Histograma.
+ *
+ * Se usa así, sin cerrojos, por frecuente que sea la operación:
+ *
+ *   long inicio = medidor.empezar();
+ *   ... operación ...
+ *   medidor.registrar(inicio);
+ *
+ * Leer el reloj cuesta más que una búsqueda por ID, así que en las
+ * operaciones muy baratas se puede medir solo una de cada "muestreo"
+ * llamadas, elegida al azar. Las llamadas se cuentan siempre todas.
+ */
+
+public final class MedidorOperacion implements MedidorOperacionMXBean {
+
+    // lo que devuelve empezar() cuando esta llamada no se mide
+    private static final long SIN_MEDIR = Long.MIN_VALUE;
+    private static final double NANOS_POR_MICRO = 1_000.0;
+
+    private final String nombre;
+    private final int muestreo;
+    private final LongAdder llamadas = new LongAdder();
+    private final Histograma latencias = new Histograma();
+
+    public MedidorOperacion(String nombre) {
+        this(nombre, 1);
+    }
+
+    // muestreo: se mide la latencia de una de cada tantas llamadas (1 para medirlas todas)
+    public MedidorOperacion(String nombre, int muestreo) {
+        if (muestreo < 1) {
+            throw new IllegalArgumentException("El muestreo debe ser al menos 1: " + muestreo);
+        }
+        this.nombre = nombre;
+        this.muestreo = muestreo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public long empezar() {
+        if (muestreo > 1 && ThreadLocalRandom.current().nextInt(muestreo) != 0) {
+            return SIN_MEDIR;
+        }
+        return System.nanoTime();
+    }
+
+    // inicio es lo que devolvió empezar()
+    public void registrar(long inicio) {
+        llamadas.increment();
+        if (inicio != SIN_MEDIR) {
+            latencias.registrar(System.nanoTime() - inicio);
+        }
+    }
+
+    @Override
+    public long getLlamadas() {
+        return llamadas.sum();
+    }
+
+    @Override
+    public int getMuestreo() {
+        return muestreo;
+    }
+
+    @Override
+    public double getMediaMicros() {
+        return latencias.getMedia() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latencias.percentil(0.50) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latencias.percentil(0.90) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latencias.percentil(0.99) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latencias.percentil(0.999) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getMaximoMicros() {
+        return latencias.getMaximo() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public void reiniciar() {
+        llamadas.reset();
+        latencias.reiniciar();
+    }
+}
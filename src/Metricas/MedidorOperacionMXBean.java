@@ -0,0 +1,32 @@
+package Metricas;
+
+
+/**
+ * Lo que se publica por JMX de cada operación medida: cuántas veces se ha
+ * llamado y cuánto han tardado las llamadas, en microsegundos. Los valores
+ * se acumulan desde el arranque o desde el último reiniciar().
+ *
+ * Si Muestreo es mayor que 1, las latencias salen de una de cada tantas
+ * llamadas elegidas al azar; Llamadas las cuenta todas.
+ */
+
+public interface MedidorOperacionMXBean {
+
+    long getLlamadas();
+
+    int getMuestreo();
+
+    double getMediaMicros();
+
+    double getP50Micros();
+
+    double getP90Micros();
+
+    double getP99Micros();
+
+    double getP999Micros();
+
+    double getMaximoMicros();
+
+    void reiniciar();
+}
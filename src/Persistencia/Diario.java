@@ -0,0 +1,277 @@
+package Persistencia;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.IntFunction;
+
+
+/**
+ * Diario de escritura anticipada (write-ahead log) de los cambios del CRUD.
+ *
+ * Cada alta, modificación o baja añade al final del archivo una línea CSV
+ * con el tipo de operación y los datos de la fila:
+ *
+ *   PV,id,titulo,genero,anio,idDesarrolladora   (poner videojuego)
+ *   QV,id                                       (quitar videojuego)
+ *   PD,id,nombre,pais                           (poner desarrolladora)
+ *   QD,id                                       (quitar desarrolladora)
+ *
+ * Las operaciones "poner" llevan la fila completa, así que reproducir el
+ * diario varias veces sobre la misma instantánea da siempre el mismo
+ * resultado. Al arrancar se cargan los CSV y se reproduce el diario encima.
+ *
+ * Para compactar, el diario se renombra a Diario.log.compactando y se abre
+ * uno nuevo; cuando los CSV nuevos están escritos se borra el renombrado.
+ * Si el programa se cae a mitad, al arrancar se reproducen los dos.
+ */
+
+public class Diario {
+
+    // recibe las operaciones al reproducir el diario
+    public interface Aplicador {
+        void ponerVideojuego(Videojuego v);
+
+        void quitarVideojuego(int id);
+
+        void ponerDesarrolladora(Desarrolladora d);
+
+        void quitarDesarrolladora(int id);
+    }
+
+    private static final String SUFIJO_COMPACTANDO = ".compactando";
+    private static final int TAMANIO_BUFFER_LOTE = 1 << 20;
+
+    private final Path ruta;
+    private final Path rutaCompactando;
+    // con sincronizar cada línea se fuerza a disco (fsync); si no, basta con que llegue al sistema operativo
+    private final boolean sincronizar;
+    private FileChannel canal;
+    private long registros;
+    // operaciones completas que reproducir encontró en disco; abrir parte de ellas
+    private long reproducidas;
+
+
+    public Diario(Path ruta, boolean sincronizar) {
+        this.ruta = ruta;
+        this.rutaCompactando = ruta.resolveSibling(ruta.getFileName() + SUFIJO_COMPACTANDO);
+        this.sincronizar = sincronizar;
+    }
+
+    /**
+     * Reproduce el diario pendiente de compactar (si quedó alguno) y el diario
+     * actual. Devuelve el número de operaciones aplicadas.
+     *
+     * Cada operación se escribe con su salto de línea de una vez, así que una
+     * línea sin él es una escritura cortada (por ejemplo, por un corte de
+     * luz): no se aplica aunque sus campos parezcan completos, porque un
+     * "QV,12" puede ser lo que queda de "QV,123". El archivo se recorta hasta
+     * la última operación completa para que lo que se escriba después no se
+     * pegue a ese resto.
+     */
+    public long reproducir(Aplicador aplicador) throws IOException {
+        long aplicadas = 0;
+        for (Path archivo : new Path[]{rutaCompactando, ruta}) {
+            if (!Files.exists(archivo)) {
+                continue;
+            }
+            long[] contador = {0};
+            // final de la última operación completa
+            long[] completo = {0};
+            // unas comillas sin cerrar solo pueden venir de una escritura cortada: de ahí al final sobra todo
+            boolean[] cortado = {false};
+            new LectorCSV().leer(archivo, registro -> {
+                if (cortado[0] || !registro.tieneFinDeLinea() || registro.estaRoto()) {
+                    cortado[0] = true;
+                    return;
+                }
+                completo[0] = registro.posicionSiguiente();
+                try {
+                    aplicar(registro, aplicador);
+                    contador[0]++;
+                } catch (RuntimeException e) {
+                    System.err.println("Operación ignorada en " + archivo.getFileName() + ": " + registro.linea());
+                }
+            });
+            recortar(archivo, completo[0]);
+            aplicadas += contador[0];
+        }
+        reproducidas = aplicadas;
+        return aplicadas;
+    }
+
+    private static void recortar(Path archivo, long completo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            if (canal.size() > completo) {
+                System.err.println("Final incompleto en " + archivo.getFileName() + ": se descartan "
+                        + (canal.size() - completo) + " bytes de una operación cortada.");
+                canal.truncate(completo);
+            }
+        }
+    }
+
+    private static void aplicar(LectorCSV.Registro registro, Aplicador aplicador) {
+        String operacion = registro.texto(0);
+        switch (operacion) {
+            case "PV":
+                comprobarCampos(registro, 6);
+                aplicador.ponerVideojuego(new Videojuego(registro.entero(1), registro.texto(2), registro.texto(3),
+                        registro.entero(4), registro.entero(5)));
+                break;
+            case "QV":
+                comprobarCampos(registro, 2);
+                aplicador.quitarVideojuego(registro.entero(1));
+                break;
+            case "PD":
+                comprobarCampos(registro, 4);
+                aplicador.ponerDesarrolladora(new Desarrolladora(registro.entero(1), registro.texto(2), registro.texto(3)));
+                break;
+            case "QD":
+                comprobarCampos(registro, 2);
+                aplicador.quitarDesarrolladora(registro.entero(1));
+                break;
+            default:
+                throw new IllegalArgumentException("Operación desconocida en el diario: " + operacion);
+        }
+    }
+
+    private static void comprobarCampos(LectorCSV.Registro registro, int esperados) {
+        if (registro.numCampos() != esperados) {
+            throw new IllegalArgumentException("Número de campos incorrecto en el diario.");
+        }
+    }
+
+    // abre el diario para añadir operaciones al final; las ya reproducidas siguen sin compactar y cuentan
+    public void abrir() throws IOException {
+        canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        registros = reproducidas;
+        reproducidas = 0;
+    }
+
+    public void registrarVideojuego(Videojuego v) throws IOException {
+        escribir("PV," + v.aTextoCSV());
+    }
+
+    public void registrarBajaVideojuego(int id) throws IOException {
+        escribir("QV," + id);
+    }
+
+    public void registrarDesarrolladora(Desarrolladora d) throws IOException {
+        escribir("PD," + d.aTextoCSV());
+    }
+
+    public void registrarBajaDesarrolladora(int id) throws IOException {
+        escribir("QD," + id);
+    }
+
+    // un lote entero (por ejemplo, una importación) con un búfer grande y un solo fsync
+    public void registrarVideojuegos(List<Videojuego> lote) throws IOException {
+        escribirLote(lote.size(), i -> "PV," + lote.get(i).aTextoCSV());
+    }
+
+    public void registrarBajasVideojuegos(int[] ids) throws IOException {
+        escribirLote(ids.length, i -> "QV," + ids[i]);
+    }
+
+    public void registrarDesarrolladoras(List<Desarrolladora> lote) throws IOException {
+        escribirLote(lote.size(), i -> "PD," + lote.get(i).aTextoCSV());
+    }
+
+    private void escribirLote(int cantidad, IntFunction<String> aLinea) throws IOException {
+        if (canal == null || cantidad == 0) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANIO_BUFFER_LOTE);
+        for (int i = 0; i < cantidad; i++) {
+            byte[] linea = (aLinea.apply(i) + "\n").getBytes(StandardCharsets.UTF_8);
+            if (linea.length > buffer.remaining()) {
+                vaciar(buffer);
+            }
+            if (linea.length > buffer.capacity()) {
+                escribirTodo(ByteBuffer.wrap(linea));
+            } else {
+                buffer.put(linea);
+            }
+        }
+        vaciar(buffer);
+        if (sincronizar) {
+            canal.force(false);
+        }
+        registros += cantidad;
+    }
+
+    private void vaciar(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        escribirTodo(buffer);
+        buffer.clear();
+    }
+
+    private void escribirTodo(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    // una sola escritura por operación, así el coste no depende del tamaño del catálogo
+    private void escribir(String linea) throws IOException {
+        if (canal == null) {
+            return;
+        }
+        escribirTodo(ByteBuffer.wrap((linea + "\n").getBytes(StandardCharsets.UTF_8)));
+        if (sincronizar) {
+            canal.force(false);
+        }
+        registros++;
+    }
+
+    // operaciones pendientes de compactar: las reproducidas al arrancar más las escritas desde
+    // entonces, o solo las escritas desde la última rotación
+    public long registros() {
+        return registros;
+    }
+
+    /**
+     * Aparta el diario actual para compactarlo y empieza uno vacío. Las
+     * operaciones siguientes van al diario nuevo. Si quedó un diario apartado
+     * de una compactación que falló, el actual se añade a su final para no
+     * perder el orden de las operaciones.
+     */
+    public void rotar() throws IOException {
+        cerrar();
+        if (Files.exists(rutaCompactando) && Files.exists(ruta)) {
+            try (FileChannel origen = FileChannel.open(ruta, StandardOpenOption.READ);
+                    FileChannel destino = FileChannel.open(rutaCompactando, StandardOpenOption.WRITE,
+                            StandardOpenOption.APPEND)) {
+                long copiados = 0;
+                while (copiados < origen.size()) {
+                    copiados += origen.transferTo(copiados, origen.size() - copiados, destino);
+                }
+                destino.force(false);
+            }
+            Files.delete(ruta);
+        } else if (Files.exists(ruta)) {
+            Files.move(ruta, rutaCompactando, StandardCopyOption.ATOMIC_MOVE);
+        }
+        abrir();
+    }
+
+    // se llama cuando la instantánea que incluye el diario apartado ya está en disco
+    public void terminarCompactacion() throws IOException {
+        Files.deleteIfExists(rutaCompactando);
+    }
+
+    public void cerrar() throws IOException {
+        if (canal != null) {
+            canal.close();
+            canal = null;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package Persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.function.Function;
+
+
+/**
+ * Escritura segura de un archivo CSV completo.
+ *
+ * Las filas se escriben en un archivo temporal junto al destino a través de
+ * un búfer grande, se fuerzan a disco (fsync) y solo entonces el temporal
+ * sustituye al original con un renombrado atómico. Si el programa se cae a
+ * mitad, el CSV anterior sigue intacto.
+ */
+
+public final class EscritorCSV {
+
+    private static final int TAMANIO_BUFFER = 1 << 20;
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+
+    private EscritorCSV() {
+    }
+
+    public static <T> void escribir(Path destino, Collection<T> filas, Function<? super T, String> aTextoCSV)
+            throws IOException {
+        Path temporal = destino.resolveSibling(destino.getFileName() + SUFIJO_TEMPORAL);
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(TAMANIO_BUFFER);
+                for (T fila : filas) {
+                    byte[] linea = (aTextoCSV.apply(fila) + "\n").getBytes(StandardCharsets.UTF_8);
+                    if (linea.length > buffer.remaining()) {
+                        vaciar(canal, buffer);
+                    }
+                    if (linea.length > buffer.capacity()) {
+                        // línea más grande que el búfer: se escribe directamente
+                        escribirTodo(canal, ByteBuffer.wrap(linea));
+                    } else {
+                        buffer.put(linea);
+                    }
+                }
+                vaciar(canal, buffer);
+                canal.force(true);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        sincronizarCarpeta(destino);
+    }
+
+    private static void vaciar(FileChannel canal, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        escribirTodo(canal, buffer);
+        buffer.clear();
+    }
+
+    private static void escribirTodo(FileChannel canal, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    // el renombrado solo es duradero cuando la carpeta llega a disco; no todos los sistemas lo permiten
+    private static void sincronizarCarpeta(Path archivo) {
+        Path carpeta = archivo.toAbsolutePath().getParent();
+        if (carpeta == null) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(carpeta, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // sin soporte (por ejemplo en Windows): el archivo ya está escrito y renombrado
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package Persistencia;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Utilidades para escribir y leer campos CSV según RFC 4180.
+ *
+ * Un campo que contiene comas, comillas o saltos de línea se escribe entre
+ * comillas dobles, y las comillas interiores se duplican. Así un título como
+ * "Hello, World" se guarda y se vuelve a leer sin romper la línea.
+ */
+
+public final class FormatoCSV {
+
+    private FormatoCSV() {
+    }
+
+    // devuelve el campo listo para escribir, entre comillas solo si hace falta
+    public static String campo(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        boolean necesitaComillas = false;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                necesitaComillas = true;
+                break;
+            }
+        }
+        if (!necesitaComillas) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    // separa una línea CSV en sus campos, respetando las comillas
+    public static String[] dividir(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        int i = 0;
+        while (i < linea.length()) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"' && actual.length() == 0) {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+            i++;
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la línea CSV.");
+        }
+        campos.add(actual.toString());
+        return campos.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,345 @@
+package Persistencia;
+
+import Entidades.Desarrolladora;
+import Entidades.TextoBusqueda;
+import Entidades.Videojuego;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Instantánea binaria del catálogo para arrancar rápido con catálogos grandes.
+ *
+ * Los CSV siguen siendo el formato de intercambio; este archivo es solo una
+ * copia que se escribe al guardar y se lee al arrancar si es más reciente que
+ * ellos. Formato (big-endian):
+ *
+ *   cabecera:        magia, versión, nº desarrolladoras, nº videojuegos, nº géneros
+ *   desarrolladoras: int[] ids, tabla de textos (nombre, país de cada una)
+ *   géneros:         tabla de textos
+ *   videojuegos:     int[] ids, short[] años, int[] ids de desarrolladora,
+ *                    int[] códigos de género, tabla de textos (título y
+ *                    título normalizado de cada uno)
+ *
+ * Cada texto de una tabla es un int con la longitud en bytes seguido de los
+ * bytes en UTF-8. Las columnas de números se leen de una vez del archivo
+ * mapeado en memoria, sin analizar texto. El título normalizado se guarda
+ * porque quitar las tildes al cargar cuesta más que leerlo.
+ */
+
+public final class InstantaneaBinaria {
+
+    private static final int MAGIA = 0x50414442; // "PADB"
+    private static final int VERSION = 1;
+    private static final int TAMANIO_BUFFER = 1 << 20;
+    // tamaño máximo de cada trozo mapeado (un MappedByteBuffer no puede pasar de 2 GB)
+    private static final int VENTANA = 1 << 30;
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+    // lo mínimo que ocupa cada fila en el archivo (un texto vacío ocupa los 4 bytes de su longitud)
+    private static final int BYTES_DESARROLLADORA = Integer.BYTES + 2 * Integer.BYTES;
+    private static final int BYTES_GENERO = Integer.BYTES;
+    private static final int BYTES_VIDEOJUEGO = 3 * Integer.BYTES + Short.BYTES + 2 * Integer.BYTES;
+
+    // lo que se lee de una instantánea
+    public static final class Contenido {
+        private final List<Desarrolladora> desarrolladoras;
+        private final List<Videojuego> videojuegos;
+
+        private Contenido(List<Desarrolladora> desarrolladoras, List<Videojuego> videojuegos) {
+            this.desarrolladoras = desarrolladoras;
+            this.videojuegos = videojuegos;
+        }
+
+        public List<Desarrolladora> getDesarrolladoras() {
+            return desarrolladoras;
+        }
+
+        public List<Videojuego> getVideojuegos() {
+            return videojuegos;
+        }
+    }
+
+    private InstantaneaBinaria() {
+    }
+
+    // ========== ESCRITURA ==========
+
+    public static void escribir(Path destino, List<Desarrolladora> desarrolladoras, List<Videojuego> videojuegos)
+            throws IOException {
+        // diccionario de géneros: cada videojuego guarda solo el código
+        Map<String, Integer> codigos = new HashMap<>();
+        List<String> generos = new ArrayList<>();
+        int[] codigosGenero = new int[videojuegos.size()];
+        for (int i = 0; i < videojuegos.size(); i++) {
+            Videojuego v = videojuegos.get(i);
+            if (v.getAnio() < Short.MIN_VALUE || v.getAnio() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Año fuera de rango para la instantánea binaria: " + v.getAnio());
+            }
+            Integer codigo = codigos.get(v.getGenero());
+            if (codigo == null) {
+                codigo = generos.size();
+                codigos.put(v.getGenero(), codigo);
+                generos.add(v.getGenero());
+            }
+            codigosGenero[i] = codigo;
+        }
+
+        Path temporal = destino.resolveSibling(destino.getFileName() + SUFIJO_TEMPORAL);
+        try {
+            try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                Salida salida = new Salida(canal);
+                salida.entero(MAGIA);
+                salida.entero(VERSION);
+                salida.entero(desarrolladoras.size());
+                salida.entero(videojuegos.size());
+                salida.entero(generos.size());
+
+                for (Desarrolladora d : desarrolladoras) {
+                    salida.entero(d.getId());
+                }
+                for (Desarrolladora d : desarrolladoras) {
+                    salida.texto(d.getNombre());
+                    salida.texto(d.getPais());
+                }
+
+                for (String genero : generos) {
+                    salida.texto(genero);
+                }
+
+                for (Videojuego v : videojuegos) {
+                    salida.entero(v.getId());
+                }
+                for (Videojuego v : videojuegos) {
+                    salida.corto((short) v.getAnio());
+                }
+                for (Videojuego v : videojuegos) {
+                    salida.entero(v.getIdDesarrolladora());
+                }
+                for (int codigo : codigosGenero) {
+                    salida.entero(codigo);
+                }
+                for (Videojuego v : videojuegos) {
+                    salida.texto(v.getTitulo());
+                    salida.texto(v.getTituloBusqueda());
+                }
+                salida.vaciar();
+                canal.force(true);
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+    }
+
+    // escritura con un búfer grande sobre el canal
+    private static final class Salida {
+        private final FileChannel canal;
+        private final ByteBuffer buffer;
+
+        Salida(FileChannel canal) {
+            this.canal = canal;
+            this.buffer = ByteBuffer.allocate(TAMANIO_BUFFER);
+        }
+
+        void entero(int valor) throws IOException {
+            reservar(Integer.BYTES);
+            buffer.putInt(valor);
+        }
+
+        void corto(short valor) throws IOException {
+            reservar(Short.BYTES);
+            buffer.putShort(valor);
+        }
+
+        void texto(String valor) throws IOException {
+            byte[] bytes = (valor == null ? "" : valor).getBytes(StandardCharsets.UTF_8);
+            entero(bytes.length);
+            if (bytes.length > buffer.capacity()) {
+                vaciar();
+                ByteBuffer grande = ByteBuffer.wrap(bytes);
+                while (grande.hasRemaining()) {
+                    canal.write(grande);
+                }
+                return;
+            }
+            reservar(bytes.length);
+            buffer.put(bytes);
+        }
+
+        private void reservar(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                vaciar();
+            }
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    // ========== LECTURA ==========
+
+    public static Contenido leer(Path origen) throws IOException {
+        try (FileChannel canal = FileChannel.open(origen, StandardOpenOption.READ)) {
+            Entrada entrada = new Entrada(canal);
+            if (entrada.entero() != MAGIA) {
+                throw new IOException("El archivo no es una instantánea del catálogo: " + origen.getFileName());
+            }
+            int version = entrada.entero();
+            if (version != VERSION) {
+                throw new IOException("Versión de instantánea no soportada: " + version);
+            }
+            int numDesarrolladoras = entrada.contador(BYTES_DESARROLLADORA);
+            int numVideojuegos = entrada.contador(BYTES_VIDEOJUEGO);
+            int numGeneros = entrada.contador(BYTES_GENERO);
+
+            int[] idsDesarrolladoras = entrada.enteros(numDesarrolladoras);
+            List<Desarrolladora> desarrolladoras = new ArrayList<>(numDesarrolladoras);
+            for (int i = 0; i < numDesarrolladoras; i++) {
+                String nombre = entrada.texto();
+                String pais = entrada.texto();
+                desarrolladoras.add(new Desarrolladora(idsDesarrolladoras[i], nombre, pais));
+            }
+
+            // cada género se normaliza una sola vez y todos sus videojuegos comparten las instancias
+            String[] generos = new String[numGeneros];
+            String[] generosBusqueda = new String[numGeneros];
+            for (int i = 0; i < numGeneros; i++) {
+                generos[i] = entrada.texto();
+                generosBusqueda[i] = TextoBusqueda.normalizar(generos[i]);
+            }
+
+            int[] ids = entrada.enteros(numVideojuegos);
+            short[] anios = entrada.cortos(numVideojuegos);
+            int[] idsDesarrolladora = entrada.enteros(numVideojuegos);
+            int[] codigosGenero = entrada.enteros(numVideojuegos);
+            List<Videojuego> videojuegos = new ArrayList<>(numVideojuegos);
+            for (int i = 0; i < numVideojuegos; i++) {
+                int codigo = codigosGenero[i];
+                if (codigo < 0 || codigo >= numGeneros) {
+                    throw new IOException("Código de género fuera de rango en la instantánea.");
+                }
+                String titulo = entrada.texto();
+                String tituloBusqueda = entrada.texto();
+                videojuegos.add(new Videojuego(ids[i], titulo, tituloBusqueda,
+                        generos[codigo], generosBusqueda[codigo], anios[i], idsDesarrolladora[i]));
+            }
+            if (entrada.posicion() != canal.size()) {
+                throw new IOException("La instantánea tiene datos de más al final.");
+            }
+            return new Contenido(desarrolladoras, videojuegos);
+        }
+    }
+
+    /**
+     * Lectura secuencial sobre el archivo mapeado por trozos. Si un dato no
+     * cabe en lo que queda del trozo actual se mapea el siguiente a partir de
+     * ahí; las columnas se copian en bloque a los arrays.
+     */
+    private static final class Entrada {
+        private final FileChannel canal;
+        private final long tamanio;
+        private MappedByteBuffer ventana;
+        private long inicioVentana;
+        // se reutiliza para copiar los bytes de cada texto
+        private byte[] auxiliar = new byte[256];
+
+        Entrada(FileChannel canal) throws IOException {
+            this.canal = canal;
+            this.tamanio = canal.size();
+            mapear(0);
+        }
+
+        private void mapear(long desde) throws IOException {
+            inicioVentana = desde;
+            ventana = canal.map(FileChannel.MapMode.READ_ONLY, desde, Math.min(VENTANA, tamanio - desde));
+        }
+
+        long posicion() {
+            return inicioVentana + ventana.position();
+        }
+
+        // se asegura de que quedan al menos esos bytes en la ventana
+        private void necesitar(int bytes) throws IOException {
+            if (ventana.remaining() >= bytes) {
+                return;
+            }
+            long posicion = posicion();
+            if (tamanio - posicion < bytes) {
+                throw new IOException("La instantánea está incompleta.");
+            }
+            mapear(posicion);
+        }
+
+        int entero() throws IOException {
+            necesitar(Integer.BYTES);
+            return ventana.getInt();
+        }
+
+        // un número de filas que no cabe en lo que queda del archivo es un archivo dañado,
+        // y así no se llega a reservar un array enorme para leerlas
+        int contador(int bytesPorFila) throws IOException {
+            int valor = entero();
+            if (valor < 0 || (long) valor * bytesPorFila > tamanio - posicion()) {
+                throw new IOException("Número de filas no válido en la instantánea: " + valor);
+            }
+            return valor;
+        }
+
+        int[] enteros(int cantidad) throws IOException {
+            int[] valores = new int[cantidad];
+            int leidos = 0;
+            while (leidos < cantidad) {
+                necesitar(Integer.BYTES);
+                int trozo = Math.min(cantidad - leidos, ventana.remaining() / Integer.BYTES);
+                ventana.asIntBuffer().get(valores, leidos, trozo);
+                ventana.position(ventana.position() + trozo * Integer.BYTES);
+                leidos += trozo;
+            }
+            return valores;
+        }
+
+        short[] cortos(int cantidad) throws IOException {
+            short[] valores = new short[cantidad];
+            int leidos = 0;
+            while (leidos < cantidad) {
+                necesitar(Short.BYTES);
+                int trozo = Math.min(cantidad - leidos, ventana.remaining() / Short.BYTES);
+                ventana.asShortBuffer().get(valores, leidos, trozo);
+                ventana.position(ventana.position() + trozo * Short.BYTES);
+                leidos += trozo;
+            }
+            return valores;
+        }
+
+        String texto() throws IOException {
+            int longitud = entero();
+            if (longitud < 0 || longitud > VENTANA) {
+                throw new IOException("Longitud de texto no válida en la instantánea: " + longitud);
+            }
+            necesitar(longitud);
+            if (auxiliar.length < longitud) {
+                auxiliar = new byte[Math.max(longitud, auxiliar.length * 2)];
+            }
+            ventana.get(auxiliar, 0, longitud);
+            return new String(auxiliar, 0, longitud, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,480 @@
+package Persistencia;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+
+/**
+ * Lector CSV de una sola pasada sobre el archivo mapeado en memoria.
+ *
+ * Recorre los bytes directamente (sin BufferedReader ni split), anota dónde
+ * empieza y acaba cada campo y solo crea Strings cuando se piden con texto().
+ * Los enteros se decodifican desde los bytes sin pasar por String.
+ *
+ * Sigue RFC 4180: campos entre comillas con comas, saltos de línea y comillas
+ * duplicadas en su interior. Acepta finales de línea \n, \r\n y \r, ignora
+ * las líneas vacías y el BOM de UTF-8 al principio del archivo. Unas comillas
+ * que no se cierran antes del final del archivo dejan roto solo su registro,
+ * que acaba en el primer salto de línea tras ellas; la lectura sigue después.
+ *
+ * Los archivos se mapean por ventanas, así que también sirve para archivos
+ * de más de 2 GB siempre que ningún registro supere el tamaño de la ventana.
+ *
+ * leerEnParalelo divide los archivos grandes en trozos que empiezan después
+ * de un salto de línea y los analiza a la vez en el ForkJoinPool común,
+ * devolviendo los resultados en el orden del archivo.
+ */
+
+public class LectorCSV {
+
+    // recibe cada registro; el objeto RegistroCSV se reutiliza entre llamadas
+    public interface Receptor {
+        void registro(Registro registro);
+    }
+
+    // convierte un registro en un objeto; si lanza una excepción la línea se ignora
+    public interface Convertidor<T> {
+        T convertir(Registro registro);
+    }
+
+    private static final int VENTANA_POR_DEFECTO = 1 << 30;
+    // por debajo de este tamaño no compensa repartir el archivo
+    private static final long TAMANIO_MINIMO_TROZO = 4L << 20;
+
+    private final int tamanioVentana;
+
+
+    public LectorCSV() {
+        this(VENTANA_POR_DEFECTO);
+    }
+
+    LectorCSV(int tamanioVentana) {
+        this.tamanioVentana = tamanioVentana;
+    }
+
+    public void leer(Path ruta, Receptor receptor) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            leer(canal, 0, canal.size(), receptor);
+        }
+    }
+
+    /**
+     * Lee los registros que empiezan entre 'desde' y 'hasta' (hasta exclusivo).
+     * 'desde' debe ser el principio de un registro. Devuelve la posición en la
+     * que acabó el último registro leído, que puede pasar de 'hasta' si un
+     * registro cruza el límite.
+     */
+    public long leer(FileChannel canal, long desde, long hasta, Receptor receptor) throws IOException {
+        long tamanioArchivo = canal.size();
+        Registro registro = new Registro();
+        long posicion = desde;
+        if (posicion == 0 && tamanioArchivo >= 3) {
+            // se salta el BOM de UTF-8 si lo hay
+            MappedByteBuffer inicio = canal.map(FileChannel.MapMode.READ_ONLY, 0, 3);
+            if ((inicio.get(0) & 0xFF) == 0xEF && (inicio.get(1) & 0xFF) == 0xBB && (inicio.get(2) & 0xFF) == 0xBF) {
+                posicion = 3;
+            }
+        }
+        while (posicion < hasta && posicion < tamanioArchivo) {
+            long longitud = Math.min(tamanioVentana, tamanioArchivo - posicion);
+            MappedByteBuffer ventana = canal.map(FileChannel.MapMode.READ_ONLY, posicion, longitud);
+            boolean esFinal = posicion + longitud == tamanioArchivo;
+            registro.inicioVentana = posicion;
+            int i = 0;
+            while (posicion + i < hasta) {
+                int fin = registro.analizar(ventana, i, (int) longitud, esFinal);
+                if (fin < 0) {
+                    break;
+                }
+                if (!registro.esVacio()) {
+                    receptor.registro(registro);
+                }
+                i = fin;
+                if (i >= longitud) {
+                    break;
+                }
+            }
+            if (i == 0) {
+                throw new IOException("Registro CSV mayor que la ventana de lectura en la línea " + registro.numeroLinea);
+            }
+            posicion += i;
+        }
+        return posicion;
+    }
+
+
+    /**
+     * Lee todo el archivo repartiéndolo en trozos que se analizan en paralelo
+     * y devuelve los objetos convertidos en el orden del archivo. Las líneas
+     * que no se pueden convertir se pasan a 'ignoradas' (también en orden).
+     *
+     * Los trozos empiezan justo después de un salto de línea. Si un salto de
+     * línea estaba dentro de un campo entre comillas, el trozo anterior no
+     * acaba donde empieza el siguiente: solo ese trozo se vuelve a leer desde
+     * donde acabó el anterior, y el resto del trabajo se aprovecha.
+     */
+    public <T> List<T> leerEnParalelo(Path ruta, Convertidor<T> convertidor, Consumer<String> ignoradas) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.READ)) {
+            long tamanio = canal.size();
+            int paralelismo = ForkJoinPool.getCommonPoolParallelism();
+            int numTrozos = (int) Math.max(1, Math.min(paralelismo * 4L, tamanio / TAMANIO_MINIMO_TROZO));
+            long[] inicios = new long[numTrozos + 1];
+            int n = 0;
+            inicios[n++] = 0;
+            for (int i = 1; i < numTrozos; i++) {
+                long inicio = siguienteLinea(canal, tamanio * i / numTrozos, tamanio);
+                if (inicio > inicios[n - 1] && inicio < tamanio) {
+                    inicios[n++] = inicio;
+                }
+            }
+            inicios[n] = tamanio;
+            List<Trozo<T>> trozos = analizarTrozos(canal, inicios, n, convertidor);
+            List<T> resultado = new ArrayList<>();
+            long fin = 0;
+            for (int i = 0; i < n; i++) {
+                Trozo<T> trozo = trozos.get(i);
+                if (fin != inicios[i]) {
+                    // el trozo empezaba dentro de un campo entre comillas del anterior
+                    trozo = new Trozo<>();
+                    trozo.fin = fin;
+                    if (fin < inicios[i + 1]) {
+                        Trozo<T> releido = trozo;
+                        trozo.fin = leer(canal, fin, inicios[i + 1], registro -> releido.añadir(registro, convertidor));
+                    }
+                }
+                resultado.addAll(trozo.objetos);
+                trozo.ignoradas.forEach(ignoradas);
+                fin = trozo.fin;
+            }
+            return resultado;
+        }
+    }
+
+    private <T> List<Trozo<T>> analizarTrozos(FileChannel canal, long[] inicios, int n, Convertidor<T> convertidor) throws IOException {
+        List<Callable<Trozo<T>>> tareas = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long desde = inicios[i];
+            long hasta = inicios[i + 1];
+            tareas.add(() -> {
+                Trozo<T> trozo = new Trozo<>();
+                trozo.fin = leer(canal, desde, hasta, registro -> trozo.añadir(registro, convertidor));
+                return trozo;
+            });
+        }
+        List<Trozo<T>> trozos = new ArrayList<>(n);
+        try {
+            for (Future<Trozo<T>> futuro : ForkJoinPool.commonPool().invokeAll(tareas)) {
+                trozos.add(futuro.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Lectura interrumpida.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error al leer el archivo en paralelo.", e.getCause());
+        }
+        return trozos;
+    }
+
+    // posición siguiente al primer '\n' a partir de 'desde' (o el final del archivo)
+    private static long siguienteLinea(FileChannel canal, long desde, long tamanio) throws IOException {
+        long posicion = desde;
+        while (posicion < tamanio) {
+            int longitud = (int) Math.min(64 * 1024, tamanio - posicion);
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, posicion, longitud);
+            for (int i = 0; i < longitud; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += longitud;
+        }
+        return tamanio;
+    }
+
+    // resultado de analizar un trozo del archivo
+    private static final class Trozo<T> {
+        private final List<T> objetos = new ArrayList<>();
+        private final List<String> ignoradas = new ArrayList<>();
+        private long fin;
+
+        void añadir(Registro registro, Convertidor<T> convertidor) {
+            if (registro.estaRoto()) {
+                ignoradas.add(registro.linea());
+                return;
+            }
+            try {
+                objetos.add(convertidor.convertir(registro));
+            } catch (RuntimeException e) {
+                ignoradas.add(registro.linea());
+            }
+        }
+    }
+
+
+    /**
+     * Un registro CSV ya separado en campos. Solo es válido durante la llamada
+     * al receptor.
+     */
+    public static final class Registro {
+        private MappedByteBuffer datos;
+        private int[] inicios = new int[8];
+        private int[] fines = new int[8];
+        // el campo tiene comillas duplicadas que hay que convertir en una sola
+        private boolean[] escapados = new boolean[8];
+        private int numCampos;
+        private long numeroLinea;
+        private int inicioRegistro;
+        private int finRegistro;
+        // posición en el archivo del principio de la ventana y del registro siguiente
+        private long inicioVentana;
+        private long siguiente;
+        // false si el registro acabó con el archivo, sin salto de línea
+        private boolean terminado;
+        // comillas sin cerrar: los campos no valen y el registro se trata como una línea suelta
+        private boolean roto;
+        private byte[] auxiliar = new byte[256];
+
+        /**
+         * Analiza el registro que empieza en 'desde' y devuelve la posición
+         * siguiente a su final de línea, o -1 si el registro no termina dentro
+         * de la ventana y la ventana no es el final del archivo.
+         */
+        int analizar(MappedByteBuffer buffer, int desde, int limite, boolean esFinal) {
+            this.datos = buffer;
+            this.numCampos = 0;
+            this.inicioRegistro = desde;
+            this.roto = false;
+            int i = desde;
+            long lineasDentro = 0;
+            while (true) {
+                // inicio de un campo
+                if (i < limite && buffer.get(i) == '"') {
+                    int inicio = i + 1;
+                    boolean escapado = false;
+                    i++;
+                    while (true) {
+                        if (i >= limite) {
+                            if (!esFinal) {
+                                return -1;
+                            }
+                            return cortarEnLinea(buffer, inicio, limite);
+                        }
+                        byte b = buffer.get(i);
+                        if (b == '"') {
+                            if (i + 1 < limite && buffer.get(i + 1) == '"') {
+                                escapado = true;
+                                i += 2;
+                                continue;
+                            }
+                            if (i + 1 >= limite && !esFinal) {
+                                return -1;
+                            }
+                            break;
+                        }
+                        if (b == '\n') {
+                            lineasDentro++;
+                        }
+                        i++;
+                    }
+                    añadirCampo(inicio, i, escapado);
+                    i++;
+                    // tras la comilla de cierre solo puede venir separador o fin de línea
+                    while (i < limite && buffer.get(i) != ',' && buffer.get(i) != '\n' && buffer.get(i) != '\r') {
+                        i++;
+                    }
+                } else {
+                    int inicio = i;
+                    while (i < limite) {
+                        byte b = buffer.get(i);
+                        if (b == ',' || b == '\n' || b == '\r') {
+                            break;
+                        }
+                        i++;
+                    }
+                    añadirCampo(inicio, i, false);
+                }
+                if (i >= limite) {
+                    if (!esFinal) {
+                        return -1;
+                    }
+                    finRegistro = i;
+                    numeroLinea += 1 + lineasDentro;
+                    terminado = false;
+                    siguiente = inicioVentana + i;
+                    return i;
+                }
+                byte separador = buffer.get(i);
+                if (separador == ',') {
+                    i++;
+                    continue;
+                }
+                finRegistro = i;
+                numeroLinea += 1 + lineasDentro;
+                if (separador == '\r') {
+                    if (i + 1 >= limite && !esFinal) {
+                        numeroLinea -= 1 + lineasDentro;
+                        return -1;
+                    }
+                    if (i + 1 < limite && buffer.get(i + 1) == '\n') {
+                        i++;
+                    }
+                }
+                terminado = true;
+                siguiente = inicioVentana + i + 1;
+                return i + 1;
+            }
+        }
+
+        // el registro roto acaba en el primer salto de línea tras la comilla, como haría
+        // un lector por líneas; lo que viene después se vuelve a leer como registros normales
+        private int cortarEnLinea(MappedByteBuffer buffer, int desde, int limite) {
+            int i = desde;
+            while (i < limite && buffer.get(i) != '\n' && buffer.get(i) != '\r') {
+                i++;
+            }
+            roto = true;
+            finRegistro = i;
+            numeroLinea++;
+            if (i >= limite) {
+                terminado = false;
+                siguiente = inicioVentana + i;
+                return i;
+            }
+            if (buffer.get(i) == '\r' && i + 1 < limite && buffer.get(i + 1) == '\n') {
+                i++;
+            }
+            terminado = true;
+            siguiente = inicioVentana + i + 1;
+            return i + 1;
+        }
+
+        private void añadirCampo(int inicio, int fin, boolean escapado) {
+            if (numCampos == inicios.length) {
+                inicios = Arrays.copyOf(inicios, numCampos * 2);
+                fines = Arrays.copyOf(fines, numCampos * 2);
+                escapados = Arrays.copyOf(escapados, numCampos * 2);
+            }
+            inicios[numCampos] = inicio;
+            fines[numCampos] = fin;
+            escapados[numCampos] = escapado;
+            numCampos++;
+        }
+
+        // línea sin ningún carácter
+        boolean esVacio() {
+            return !roto && numCampos == 1 && inicios[0] == fines[0] && finRegistro == inicioRegistro;
+        }
+
+        // true si el registro acaba en un salto de línea; false si lo corta el final del archivo
+        public boolean tieneFinDeLinea() {
+            return terminado;
+        }
+
+        // posición en el archivo justo después del registro y su salto de línea
+        public long posicionSiguiente() {
+            return siguiente;
+        }
+
+        // true si tiene unas comillas sin cerrar; sus campos no se deben usar
+        public boolean estaRoto() {
+            return roto;
+        }
+
+        public int numCampos() {
+            return numCampos;
+        }
+
+        // número de línea del archivo en la que termina el registro (empezando en 1)
+        public long numeroLinea() {
+            return numeroLinea;
+        }
+
+        public String texto(int campo) {
+            comprobarCampo(campo);
+            int longitud = fines[campo] - inicios[campo];
+            byte[] bytes = copiar(inicios[campo], longitud);
+            if (escapados[campo]) {
+                // "" dentro de comillas equivale a una comilla
+                int n = 0;
+                for (int i = 0; i < longitud; i++) {
+                    bytes[n++] = bytes[i];
+                    if (bytes[i] == '"' && i + 1 < longitud && bytes[i + 1] == '"') {
+                        i++;
+                    }
+                }
+                longitud = n;
+            }
+            return new String(bytes, 0, longitud, StandardCharsets.UTF_8);
+        }
+
+        // decodifica el campo como int directamente desde los bytes
+        public int entero(int campo) {
+            comprobarCampo(campo);
+            int i = inicios[campo];
+            int fin = fines[campo];
+            if (i == fin) {
+                throw new NumberFormatException("Campo numérico vacío en la línea " + numeroLinea);
+            }
+            boolean negativo = false;
+            byte primero = datos.get(i);
+            if (primero == '-' || primero == '+') {
+                negativo = primero == '-';
+                i++;
+                if (i == fin) {
+                    throw new NumberFormatException("Número no válido en la línea " + numeroLinea);
+                }
+            }
+            long valor = 0;
+            for (; i < fin; i++) {
+                int digito = datos.get(i) - '0';
+                if (digito < 0 || digito > 9) {
+                    throw new NumberFormatException("Número no válido en la línea " + numeroLinea + ": " + texto(campo));
+                }
+                valor = valor * 10 + digito;
+                if (valor > (long) Integer.MAX_VALUE + 1) {
+                    throw new NumberFormatException("Número fuera de rango en la línea " + numeroLinea);
+                }
+            }
+            valor = negativo ? -valor : valor;
+            if (valor > Integer.MAX_VALUE) {
+                throw new NumberFormatException("Número fuera de rango en la línea " + numeroLinea);
+            }
+            return (int) valor;
+        }
+
+        // el registro completo como texto, para los mensajes de error
+        public String linea() {
+            int longitud = finRegistro - inicioRegistro;
+            return new String(copiar(inicioRegistro, longitud), 0, longitud, StandardCharsets.UTF_8);
+        }
+
+        private byte[] copiar(int desde, int longitud) {
+            if (auxiliar.length < longitud) {
+                auxiliar = new byte[Math.max(longitud, auxiliar.length * 2)];
+            }
+            datos.get(desde, auxiliar, 0, longitud);
+            return auxiliar;
+        }
+
+        private void comprobarCampo(int campo) {
+            if (campo < 0 || campo >= numCampos) {
+                throw new IllegalArgumentException("El registro de la línea " + numeroLinea + " no tiene el campo " + campo);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package Servidor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Cliente de prueba de carga para el modo servidor.
+ *
+ * Pide una página de IDs de videojuegos y después lanza muchas consultas a
+ * la vez de GET /videojuegos/{id} con IDs al azar, cada una en su hilo
+ * virtual, durante el tiempo indicado. Al final muestra las peticiones por
+ * segundo y las latencias.
+ *
+ *   java -cp ProyectoAD.jar Servidor.ClienteCarga [url] [concurrentes] [segundos]
+ */
+
+public class ClienteCarga {
+
+    private static final String URL_POR_DEFECTO = "http://localhost:" + ServidorHTTP.PUERTO_POR_DEFECTO;
+    private static final int CONCURRENTES_POR_DEFECTO = 1000;
+    private static final int SEGUNDOS_POR_DEFECTO = 10;
+    private static final Pattern ID = Pattern.compile("\\{\"id\":(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        String base = args.length > 0 ? args[0] : URL_POR_DEFECTO;
+        int concurrentes = args.length > 1 ? Integer.parseInt(args[1]) : CONCURRENTES_POR_DEFECTO;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : SEGUNDOS_POR_DEFECTO;
+
+        HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+        int[] ids = leerIds(cliente, base);
+        if (ids.length == 0) {
+            System.err.println("El catálogo no tiene videojuegos; no hay nada que consultar.");
+            return;
+        }
+        System.out.println("Consultando " + ids.length + " IDs con " + concurrentes + " clientes durante "
+                + segundos + " s...");
+
+        LongAdder correctas = new LongAdder();
+        LongAdder fallidas = new LongAdder();
+        List<long[]> latenciasPorCliente = new ArrayList<>(concurrentes);
+        long inicio = System.nanoTime();
+        long fin = inicio + segundos * 1_000_000_000L;
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrentes; i++) {
+                long[][] latencias = {new long[1024]};
+                int[] n = {0};
+                hilos.submit(() -> {
+                    while (System.nanoTime() < fin) {
+                        int id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+                        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "/videojuegos/" + id)).build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() == 200) {
+                                correctas.increment();
+                            } else {
+                                fallidas.increment();
+                            }
+                        } catch (IOException e) {
+                            fallidas.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        if (n[0] == latencias[0].length) {
+                            latencias[0] = Arrays.copyOf(latencias[0], n[0] * 2);
+                        }
+                        latencias[0][n[0]++] = System.nanoTime() - t0;
+                    }
+                    synchronized (latenciasPorCliente) {
+                        latenciasPorCliente.add(Arrays.copyOf(latencias[0], n[0]));
+                    }
+                });
+            }
+        }
+        double transcurrido = (System.nanoTime() - inicio) / 1e9;
+
+        long[] todas = latenciasPorCliente.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long total = correctas.sum() + fallidas.sum();
+        System.out.printf("Peticiones: %d (%d con error) en %.1f s -> %.0f por segundo%n",
+                total, fallidas.sum(), transcurrido, total / transcurrido);
+        if (todas.length > 0) {
+            System.out.printf("Latencia: p50 %.2f ms, p99 %.2f ms, p99.9 %.2f ms, máx %.2f ms%n",
+                    percentil(todas, 0.50), percentil(todas, 0.99), percentil(todas, 0.999), todas[todas.length - 1] / 1e6);
+        }
+    }
+
+    // IDs de la primera página del catálogo
+    private static int[] leerIds(HttpClient cliente, String base) throws IOException, InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "/videojuegos?limite=10000")).build();
+        String cuerpo = cliente.send(peticion, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher m = ID.matcher(cuerpo);
+        List<Integer> ids = new ArrayList<>();
+        while (m.find()) {
+            ids.add(Integer.parseInt(m.group(1)));
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    // en milisegundos
+    private static double percentil(long[] ordenadas, double p) {
+        int i = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+        return ordenadas[Math.max(i, 0)] / 1e6;
+    }
+}
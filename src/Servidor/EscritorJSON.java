@@ -0,0 +1,89 @@
+package Servidor;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * Escritura de JSON directamente sobre la respuesta, sin construir antes el
+ * texto completo ni usar librerías externas. Solo sabe escribir lo que
+ * devuelve el servidor: videojuegos, desarrolladoras, páginas y errores.
+ */
+
+final class EscritorJSON {
+
+    private EscritorJSON() {
+    }
+
+    static void videojuego(Writer salida, Videojuego v) throws IOException {
+        salida.write("{\"id\":");
+        salida.write(Integer.toString(v.getId()));
+        salida.write(",\"titulo\":");
+        texto(salida, v.getTitulo());
+        salida.write(",\"genero\":");
+        texto(salida, v.getGenero());
+        salida.write(",\"anio\":");
+        salida.write(Integer.toString(v.getAnio()));
+        salida.write(",\"idDesarrolladora\":");
+        salida.write(Integer.toString(v.getIdDesarrolladora()));
+        salida.write('}');
+    }
+
+    static void desarrolladora(Writer salida, Desarrolladora d) throws IOException {
+        salida.write("{\"id\":");
+        salida.write(Integer.toString(d.getId()));
+        salida.write(",\"nombre\":");
+        texto(salida, d.getNombre());
+        salida.write(",\"pais\":");
+        texto(salida, d.getPais());
+        salida.write('}');
+    }
+
+    static void error(Writer salida, String mensaje) throws IOException {
+        salida.write("{\"error\":");
+        texto(salida, mensaje);
+        salida.write('}');
+    }
+
+    // texto entre comillas con los caracteres especiales escapados
+    static void texto(Writer salida, String valor) throws IOException {
+        if (valor == null) {
+            salida.write("null");
+            return;
+        }
+        salida.write('"');
+        int desde = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c != '"' && c != '\\' && c >= 0x20) {
+                continue;
+            }
+            // se copia de golpe el trozo sin caracteres especiales
+            salida.write(valor, desde, i - desde);
+            switch (c) {
+                case '"':
+                    salida.write("\\\"");
+                    break;
+                case '\\':
+                    salida.write("\\\\");
+                    break;
+                case '\n':
+                    salida.write("\\n");
+                    break;
+                case '\r':
+                    salida.write("\\r");
+                    break;
+                case '\t':
+                    salida.write("\\t");
+                    break;
+                default:
+                    salida.write(String.format("\\u%04x", (int) c));
+            }
+            desde = i + 1;
+        }
+        salida.write(valor, desde, valor.length() - desde);
+        salida.write('"');
+    }
+}
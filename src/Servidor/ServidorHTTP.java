@@ -0,0 +1,482 @@
+package Servidor;
+
+import Entidades.Desarrolladora;
+import Entidades.Videojuego;
+import Excepciones.DesarrolladoraNoEncontradaException;
+import Excepciones.VideojuegoNoEncontradoException;
+import Gestion.GestorDatos;
+import Gestion.Pagina;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Modo servidor: expone las operaciones de GestorDatos como una API HTTP que
+ * responde en JSON, con el servidor que trae el JDK (com.sun.net.httpserver),
+ * sin dependencias externas.
+ *
+ *   GET    /videojuegos?despues=&limite=           página ordenada por ID
+ *   GET    /videojuegos/buscar?titulo=|genero=|desarrolladora=|desde=&hasta=
+ *   GET    /videojuegos/{id}
+ *   POST   /videojuegos                             titulo, genero, anio, idDesarrolladora
+ *   PUT    /videojuegos/{id}                        los campos que cambian
+ *   DELETE /videojuegos/{id}
+ *   GET    /desarrolladoras?despues=&limite=
+ *   GET    /desarrolladoras/buscar?nombre=
+ *   GET    /desarrolladoras/{id}
+ *   POST   /desarrolladoras                         nombre, pais
+ *   PUT    /desarrolladoras/{id}                    los campos que cambian
+ *   DELETE /desarrolladoras/{id}[?cascada=si]
+ *
+ * Los datos de POST y PUT van como formulario (x-www-form-urlencoded) o en la
+ * query. Los listados y búsquedas de videojuegos se paginan igual que en los
+ * menús: la respuesta trae "cursor", que se pasa como "despues" para pedir la
+ * página siguiente. Los errores se devuelven como {"error": "..."}.
+ *
+ * Cada petición se atiende en su propio hilo virtual, así que miles de
+ * peticiones a la vez no ocupan miles de hilos del sistema; GestorDatos ya
+ * admite consultas concurrentes. Las respuestas pequeñas se envían de una
+ * vez con su longitud; las que no caben en el búfer se envían por trozos
+ * (chunked) a medida que se recorren los resultados.
+ */
+
+public class ServidorHTTP {
+
+    public static final int PUERTO_POR_DEFECTO = 8080;
+
+    private static final int LIMITE_POR_DEFECTO = 100;
+    private static final int LIMITE_MAXIMO = 10_000;
+    // conexiones pendientes de aceptar que se piden al sistema operativo
+    private static final int COLA_CONEXIONES = 1024;
+    private static final int TAMANIO_BUFFER = 16 * 1024;
+    private static final int MAXIMO_CUERPO = 64 * 1024;
+
+    // escribe el cuerpo de una respuesta
+    private interface Cuerpo {
+        void escribir(Writer salida) throws IOException;
+    }
+
+    // petición que no se puede atender, con el código HTTP que le corresponde
+    private static final class PeticionNoValida extends Exception {
+        private static final long serialVersionUID = 1L;
+        private final int estado;
+
+        PeticionNoValida(int estado, String mensaje) {
+            super(mensaje);
+            this.estado = estado;
+        }
+    }
+
+    private final GestorDatos gestor;
+    private final HttpServer servidor;
+    private final ExecutorService hilos;
+
+
+    public ServidorHTTP(GestorDatos gestor, int puerto) throws IOException {
+        // el servidor del JDK envía las cabeceras y el cuerpo en escrituras separadas; sin
+        // TCP_NODELAY el cuerpo espera al ACK retrasado del cliente (unos 40 ms por petición).
+        // Se lee una sola vez al crear el primer servidor, así que hay que fijarlo antes.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.gestor = gestor;
+        this.servidor = HttpServer.create(new InetSocketAddress(puerto), COLA_CONEXIONES);
+        this.hilos = Executors.newVirtualThreadPerTaskExecutor();
+        servidor.setExecutor(hilos);
+        servidor.createContext("/videojuegos", intercambio -> atender(intercambio, this::videojuegos));
+        servidor.createContext("/desarrolladoras", intercambio -> atender(intercambio, this::desarrolladoras));
+    }
+
+    public void iniciar() {
+        servidor.start();
+    }
+
+    // deja de aceptar peticiones y espera como mucho un segundo a las que estén en curso
+    public void detener() {
+        servidor.stop(1);
+        hilos.shutdown();
+    }
+
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    // ========== RUTAS ==========
+
+    private interface Ruta {
+        void atender(HttpExchange intercambio, String resto, Map<String, String> parametros)
+                throws IOException, PeticionNoValida, VideojuegoNoEncontradoException, DesarrolladoraNoEncontradaException;
+    }
+
+    private void atender(HttpExchange intercambio, Ruta ruta) throws IOException {
+        try {
+            String contexto = intercambio.getHttpContext().getPath();
+            String resto = intercambio.getRequestURI().getPath().substring(contexto.length());
+            if (resto.startsWith("/")) {
+                resto = resto.substring(1);
+            }
+            ruta.atender(intercambio, resto, parametros(intercambio));
+        } catch (PeticionNoValida e) {
+            responderError(intercambio, e.estado, e.getMessage());
+        } catch (VideojuegoNoEncontradoException | DesarrolladoraNoEncontradaException e) {
+            responderError(intercambio, 404, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            responderError(intercambio, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Error al atender " + intercambio.getRequestMethod() + " "
+                    + intercambio.getRequestURI() + ": " + e);
+            responderError(intercambio, 500, "Error interno del servidor.");
+        } finally {
+            intercambio.close();
+        }
+    }
+
+    private void videojuegos(HttpExchange intercambio, String resto, Map<String, String> parametros)
+            throws IOException, PeticionNoValida, VideojuegoNoEncontradoException {
+        String metodo = intercambio.getRequestMethod();
+        if (resto.isEmpty()) {
+            if (metodo.equals("GET")) {
+                int despues = entero(parametros, "despues", Pagina.INICIO);
+                int limite = limite(parametros);
+                responderPagina(intercambio, gestor.listarVideojuegos(despues, limite));
+            } else if (metodo.equals("POST")) {
+                Videojuego v = gestor.agregarVideojuego(texto(parametros, "titulo"), texto(parametros, "genero"),
+                        entero(parametros, "anio"), entero(parametros, "idDesarrolladora"));
+                responder(intercambio, 201, salida -> EscritorJSON.videojuego(salida, v));
+            } else {
+                throw metodoNoPermitido(metodo);
+            }
+            return;
+        }
+        if (resto.equals("buscar")) {
+            if (!metodo.equals("GET")) {
+                throw metodoNoPermitido(metodo);
+            }
+            responderPagina(intercambio, buscarVideojuegos(parametros));
+            return;
+        }
+
+        int id = id(resto);
+        switch (metodo) {
+            case "GET": {
+                Videojuego v = gestor.obtenerVideojuegoPorId(id);
+                responder(intercambio, 200, salida -> EscritorJSON.videojuego(salida, v));
+                break;
+            }
+            case "PUT": {
+                // los campos que no vienen se quedan como estaban
+                Videojuego v = gestor.actualizarVideojuego(id, parametros.get("titulo"), parametros.get("genero"),
+                        enteroOpcional(parametros, "anio"), enteroOpcional(parametros, "idDesarrolladora"));
+                responder(intercambio, 200, salida -> EscritorJSON.videojuego(salida, v));
+                break;
+            }
+            case "DELETE":
+                gestor.eliminarVideojuego(id);
+                intercambio.sendResponseHeaders(204, -1);
+                break;
+            default:
+                throw metodoNoPermitido(metodo);
+        }
+    }
+
+    private Pagina<Videojuego> buscarVideojuegos(Map<String, String> parametros) throws PeticionNoValida {
+        int despues = entero(parametros, "despues", Pagina.INICIO);
+        int limite = limite(parametros);
+        if (parametros.containsKey("titulo")) {
+            return gestor.buscarVideojuegosPorTitulo(parametros.get("titulo"), despues, limite);
+        }
+        if (parametros.containsKey("genero")) {
+            return gestor.buscarVideojuegosPorGenero(parametros.get("genero"), despues, limite);
+        }
+        if (parametros.containsKey("desarrolladora")) {
+            return gestor.buscarVideojuegosPorDesarrolladora(parametros.get("desarrolladora"), despues, limite);
+        }
+        if (parametros.containsKey("desde") || parametros.containsKey("hasta")) {
+            return gestor.buscarVideojuegosPorRangoAnio(entero(parametros, "desde"), entero(parametros, "hasta"),
+                    despues, limite);
+        }
+        throw new PeticionNoValida(400, "Indique titulo, genero, desarrolladora o desde y hasta.");
+    }
+
+    private void desarrolladoras(HttpExchange intercambio, String resto, Map<String, String> parametros)
+            throws IOException, PeticionNoValida, DesarrolladoraNoEncontradaException {
+        String metodo = intercambio.getRequestMethod();
+        if (resto.isEmpty()) {
+            if (metodo.equals("GET")) {
+                int despues = entero(parametros, "despues", Pagina.INICIO);
+                int limite = limite(parametros);
+                Pagina<Desarrolladora> pagina = gestor.listarDesarrolladoras(despues, limite);
+                responder(intercambio, 200, salida -> escribirPagina(salida, pagina, EscritorJSON::desarrolladora));
+            } else if (metodo.equals("POST")) {
+                Desarrolladora d = gestor.agregarDesarrolladora(texto(parametros, "nombre"), texto(parametros, "pais"));
+                responder(intercambio, 201, salida -> EscritorJSON.desarrolladora(salida, d));
+            } else {
+                throw metodoNoPermitido(metodo);
+            }
+            return;
+        }
+        if (resto.equals("buscar")) {
+            if (!metodo.equals("GET")) {
+                throw metodoNoPermitido(metodo);
+            }
+            List<Desarrolladora> resultados = gestor.buscarDesarrolladorasPorNombre(texto(parametros, "nombre"));
+            responder(intercambio, 200, salida -> {
+                salida.write('[');
+                for (int i = 0; i < resultados.size(); i++) {
+                    if (i > 0) {
+                        salida.write(',');
+                    }
+                    EscritorJSON.desarrolladora(salida, resultados.get(i));
+                }
+                salida.write(']');
+            });
+            return;
+        }
+
+        int id = id(resto);
+        switch (metodo) {
+            case "GET": {
+                Desarrolladora d = gestor.obtenerDesarrolladoraPorId(id);
+                responder(intercambio, 200, salida -> EscritorJSON.desarrolladora(salida, d));
+                break;
+            }
+            case "PUT": {
+                Desarrolladora d = gestor.actualizarDesarrolladora(id, parametros.get("nombre"), parametros.get("pais"));
+                responder(intercambio, 200, salida -> EscritorJSON.desarrolladora(salida, d));
+                break;
+            }
+            case "DELETE":
+                if ("si".equals(parametros.get("cascada"))) {
+                    int borrados = gestor.eliminarDesarrolladoraEnCascada(id);
+                    responder(intercambio, 200, salida -> salida.write("{\"videojuegosEliminados\":" + borrados + "}"));
+                    break;
+                }
+                // GestorDatos usa la misma excepción para "no existe" y "tiene videojuegos"
+                if (gestor.contarVideojuegosDeDesarrolladora(id) > 0) {
+                    throw tieneVideojuegos();
+                }
+                try {
+                    gestor.eliminarDesarrolladora(id);
+                } catch (DesarrolladoraNoEncontradaException e) {
+                    // entre la comprobación y el borrado pudo entrar un videojuego suyo
+                    if (gestor.contarVideojuegosDeDesarrolladora(id) > 0) {
+                        throw tieneVideojuegos();
+                    }
+                    throw e;
+                }
+                intercambio.sendResponseHeaders(204, -1);
+                break;
+            default:
+                throw metodoNoPermitido(metodo);
+        }
+    }
+
+    // ========== RESPUESTAS ==========
+
+    private interface EscritorElemento<T> {
+        void escribir(Writer salida, T elemento) throws IOException;
+    }
+
+    private static void responderPagina(HttpExchange intercambio, Pagina<Videojuego> pagina) throws IOException {
+        responder(intercambio, 200, salida -> escribirPagina(salida, pagina, EscritorJSON::videojuego));
+    }
+
+    private static <T> void escribirPagina(Writer salida, Pagina<T> pagina, EscritorElemento<T> escritor) throws IOException {
+        salida.write("{\"elementos\":[");
+        List<T> elementos = pagina.getElementos();
+        for (int i = 0; i < elementos.size(); i++) {
+            if (i > 0) {
+                salida.write(',');
+            }
+            escritor.escribir(salida, elementos.get(i));
+        }
+        salida.write("],\"haySiguiente\":");
+        salida.write(Boolean.toString(pagina.haySiguiente()));
+        salida.write(",\"cursor\":");
+        salida.write(Integer.toString(pagina.getCursorSiguiente()));
+        salida.write('}');
+    }
+
+    private static void responder(HttpExchange intercambio, int estado, Cuerpo cuerpo) throws IOException {
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        Writer salida = new OutputStreamWriter(new SalidaRespuesta(intercambio, estado), StandardCharsets.UTF_8);
+        // solo se cierra si el cuerpo se escribe entero: cerrar envía lo que haya en
+        // el búfer con este estado, y un cuerpo a medias no debe salir como respuesta correcta
+        cuerpo.escribir(salida);
+        salida.close();
+    }
+
+    /**
+     * Guarda el cuerpo en un búfer. Si se cierra sin llenarlo, la respuesta
+     * sale entera con su Content-Length en una sola escritura; enviar
+     * cabeceras, datos y el trozo final por separado hace que las respuestas
+     * pequeñas esperen a los ACK retrasados de TCP. Si el búfer se llena, se
+     * pasa a enviar por trozos.
+     */
+    private static final class SalidaRespuesta extends OutputStream {
+        private final HttpExchange intercambio;
+        private final int estado;
+        private final byte[] buffer = new byte[TAMANIO_BUFFER];
+        private int usados;
+        // cuerpo de la respuesta una vez enviadas las cabeceras por trozos
+        private OutputStream trozos;
+
+        SalidaRespuesta(HttpExchange intercambio, int estado) {
+            this.intercambio = intercambio;
+            this.estado = estado;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (usados == buffer.length) {
+                vaciar();
+            }
+            buffer[usados++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] datos, int desde, int longitud) throws IOException {
+            while (longitud > 0) {
+                if (usados == buffer.length) {
+                    vaciar();
+                }
+                int copiar = Math.min(longitud, buffer.length - usados);
+                System.arraycopy(datos, desde, buffer, usados, copiar);
+                usados += copiar;
+                desde += copiar;
+                longitud -= copiar;
+            }
+        }
+
+        private void vaciar() throws IOException {
+            if (trozos == null) {
+                // longitud 0: a partir de aquí la respuesta va por trozos
+                intercambio.sendResponseHeaders(estado, 0);
+                trozos = intercambio.getResponseBody();
+            }
+            trozos.write(buffer, 0, usados);
+            usados = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (trozos == null) {
+                intercambio.sendResponseHeaders(estado, usados);
+                try (OutputStream cuerpo = intercambio.getResponseBody()) {
+                    cuerpo.write(buffer, 0, usados);
+                }
+                return;
+            }
+            vaciar();
+            trozos.close();
+        }
+    }
+
+    // si ya se enviaron las cabeceras (el error llegó a mitad de una respuesta por trozos)
+    // no se puede cambiar el estado: solo queda cerrar el intercambio, que lo hace atender
+    private static void responderError(HttpExchange intercambio, int estado, String mensaje) throws IOException {
+        if (intercambio.getResponseCode() != -1) {
+            return;
+        }
+        responder(intercambio, estado, salida -> EscritorJSON.error(salida, mensaje));
+    }
+
+    // ========== PARÁMETROS ==========
+
+    // parámetros de la query y, en POST y PUT, del formulario del cuerpo
+    private static Map<String, String> parametros(HttpExchange intercambio) throws IOException, PeticionNoValida {
+        Map<String, String> parametros = new HashMap<>();
+        leerParametros(intercambio.getRequestURI().getRawQuery(), parametros);
+        String metodo = intercambio.getRequestMethod();
+        if (metodo.equals("POST") || metodo.equals("PUT")) {
+            byte[] cuerpo = intercambio.getRequestBody().readNBytes(MAXIMO_CUERPO + 1);
+            if (cuerpo.length > MAXIMO_CUERPO) {
+                throw new PeticionNoValida(413, "El cuerpo de la petición es demasiado grande.");
+            }
+            leerParametros(new String(cuerpo, StandardCharsets.UTF_8), parametros);
+        }
+        return parametros;
+    }
+
+    private static void leerParametros(String texto, Map<String, String> destino) {
+        if (texto == null || texto.isEmpty()) {
+            return;
+        }
+        for (String par : texto.split("&")) {
+            if (par.isEmpty()) {
+                continue;
+            }
+            int igual = par.indexOf('=');
+            String clave = igual < 0 ? par : par.substring(0, igual);
+            String valor = igual < 0 ? "" : par.substring(igual + 1);
+            destino.put(URLDecoder.decode(clave, StandardCharsets.UTF_8), URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String texto(Map<String, String> parametros, String nombre) throws PeticionNoValida {
+        String valor = parametros.get(nombre);
+        if (valor == null) {
+            throw new PeticionNoValida(400, "Falta el parámetro " + nombre + ".");
+        }
+        return valor;
+    }
+
+    private static int entero(Map<String, String> parametros, String nombre) throws PeticionNoValida {
+        return aEntero(nombre, texto(parametros, nombre));
+    }
+
+    private static int entero(Map<String, String> parametros, String nombre, int porDefecto) throws PeticionNoValida {
+        String valor = parametros.get(nombre);
+        return valor == null ? porDefecto : aEntero(nombre, valor);
+    }
+
+    // null si no viene
+    private static Integer enteroOpcional(Map<String, String> parametros, String nombre) throws PeticionNoValida {
+        String valor = parametros.get(nombre);
+        return valor == null ? null : aEntero(nombre, valor);
+    }
+
+    private static int aEntero(String nombre, String valor) throws PeticionNoValida {
+        try {
+            return Integer.parseInt(valor.trim());
+        } catch (NumberFormatException e) {
+            throw new PeticionNoValida(400, "El parámetro " + nombre + " debe ser un número entero.");
+        }
+    }
+
+    private static int limite(Map<String, String> parametros) throws PeticionNoValida {
+        int limite = entero(parametros, "limite", LIMITE_POR_DEFECTO);
+        if (limite < 1 || limite > LIMITE_MAXIMO) {
+            throw new PeticionNoValida(400, "El límite debe estar entre 1 y " + LIMITE_MAXIMO + ".");
+        }
+        return limite;
+    }
+
+    private static int id(String resto) throws PeticionNoValida {
+        try {
+            return Integer.parseInt(resto);
+        } catch (NumberFormatException e) {
+            throw new PeticionNoValida(404, "Ruta no encontrada: " + resto);
+        }
+    }
+
+    private static PeticionNoValida metodoNoPermitido(String metodo) {
+        return new PeticionNoValida(405, "Método no permitido: " + metodo);
+    }
+
+    private static PeticionNoValida tieneVideojuegos() {
+        return new PeticionNoValida(409, "La desarrolladora tiene videojuegos; use cascada=si para borrarlos también.");
+    }
+}